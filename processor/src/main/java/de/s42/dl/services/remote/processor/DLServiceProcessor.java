@@ -0,0 +1,364 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote.processor;
+
+import de.s42.dl.services.DLMethod;
+import de.s42.dl.services.DLParameter;
+import de.s42.dl.services.remote.MethodInvoker;
+import de.s42.dl.services.remote.ServiceDispatcher;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.ModuleElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a ServiceDispatcher for each concrete class annotated with DLService and registers them for the
+ * ServiceLoader in META-INF/services. The dispatchers just contain invokers calling the DL methods directly with casted
+ * parameters instead of method handles - the descriptors of the services are still built by reflection. Each dispatcher carries the signature of the DL methods it was generated for, so an
+ * outdated dispatcher is ignored at runtime. Missing DLParameter annotations are reported as compile errors.
+ * <p>
+ * The processor ships in its own artifact dls-processor and is added to the annotation processor path of service
+ * projects. Services in named modules are not found through META-INF/services - their module-info has to declare the
+ * generated dispatchers (the processor prints the line as note):
+ * <pre>
+ * provides de.s42.dl.services.remote.ServiceDispatcher with my.services.MyServiceDLDispatcher;
+ * </pre>
+ *
+ * @author Benjamin Schiller
+ */
+@SupportedAnnotationTypes(DLServiceProcessor.DL_SERVICE)
+public class DLServiceProcessor extends AbstractProcessor
+{
+
+	public final static String DL_SERVICE = "de.s42.dl.services.DLService";
+	public final static String DL_METHOD = DLMethod.class.getName();
+	public final static String DL_PARAMETER = DLParameter.class.getName();
+	public final static String SERVICE_DISPATCHER = ServiceDispatcher.class.getName();
+	public final static String METHOD_INVOKER = MethodInvoker.class.getName();
+
+	protected final Set<String> dispatchers = new TreeSet<>();
+
+	/**
+	 * Dispatchers of services in named modules by module - the ServiceLoader ignores META-INF/services there
+	 */
+	protected final Map<String, Set<String>> moduleDispatchers = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		if (roundEnv.processingOver()) {
+			writeServiceFile();
+			return false;
+		}
+
+		TypeElement dlService = processingEnv.getElementUtils().getTypeElement(DL_SERVICE);
+
+		if (dlService == null) {
+			return false;
+		}
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(dlService)) {
+
+			// Abstract services are just exposed through their annotated subclasses
+			if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+				continue;
+			}
+
+			TypeElement service = (TypeElement) element;
+
+			if (isAccessible(service)) {
+				generateDispatcher(service);
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @param service
+	 *
+	 * @return true if the service can be referenced from a class in its package
+	 */
+	protected boolean isAccessible(TypeElement service)
+	{
+		Element element = service;
+
+		while (element.getKind() != ElementKind.PACKAGE) {
+
+			if (element.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+
+			// Inner, local and anonymous classes can not be referenced statically
+			if (element.getKind().isClass()
+				&& ((TypeElement) element).getNestingKind().isNested()
+				&& !element.getModifiers().contains(Modifier.STATIC)) {
+				return false;
+			}
+
+			element = element.getEnclosingElement();
+		}
+
+		return true;
+	}
+
+	protected boolean hasAnnotation(Element element, String annotationName)
+	{
+		return element.getAnnotationMirrors().stream()
+			.anyMatch((mirror) -> ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName));
+	}
+
+	/**
+	 * @param service
+	 *
+	 * @return the public DL methods of the service including inherited ones like Class.getMethods() returns them
+	 */
+	protected List<ExecutableElement> getDLMethods(TypeElement service)
+	{
+		List<ExecutableElement> result = new ArrayList<>();
+
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(service))) {
+
+			if (method.getModifiers().contains(Modifier.PUBLIC)
+				&& !method.getModifiers().contains(Modifier.STATIC)
+				&& hasAnnotation(method, DL_METHOD)) {
+				result.add(method);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @param type
+	 *
+	 * @return the source name of the erased type - without type annotations
+	 */
+	protected String getTypeName(TypeMirror type)
+	{
+		if (type.getKind() == TypeKind.VOID) {
+			return "void";
+		}
+
+		TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+
+		if (erased.getKind().isPrimitive()) {
+			return erased.getKind().name().toLowerCase();
+		}
+
+		if (erased.getKind() == TypeKind.ARRAY) {
+			return getTypeName(((ArrayType) erased).getComponentType()) + "[]";
+		}
+
+		return ((TypeElement) processingEnv.getTypeUtils().asElement(erased)).getQualifiedName().toString();
+	}
+
+	protected String getDispatcherSimpleName(TypeElement service)
+	{
+		StringBuilder name = new StringBuilder(service.getSimpleName());
+
+		// Nested classes are flattened into Outer_Inner
+		Element enclosing = service.getEnclosingElement();
+		while (enclosing.getKind() != ElementKind.PACKAGE) {
+			name.insert(0, enclosing.getSimpleName() + "_");
+			enclosing = enclosing.getEnclosingElement();
+		}
+
+		return name.append(ServiceDispatcher.CLASS_NAME_SUFFIX).toString();
+	}
+
+	protected void generateDispatcher(TypeElement service)
+	{
+		List<ExecutableElement> methods = getDLMethods(service);
+
+		// Validate like the MethodDescriptor does at runtime
+		boolean valid = true;
+		for (ExecutableElement method : methods) {
+			for (VariableElement parameter : method.getParameters()) {
+				if (!hasAnnotation(parameter, DL_PARAMETER)) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "All parameters of DL methods have to contain annotation DLParameter", parameter);
+					valid = false;
+				}
+			}
+		}
+
+		if (!valid) {
+			return;
+		}
+
+		PackageElement pack = processingEnv.getElementUtils().getPackageOf(service);
+		String packageName = pack.isUnnamed() ? "" : pack.getQualifiedName().toString();
+		String simpleName = getDispatcherSimpleName(service);
+		String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+		String serviceName = getTypeName(service.asType());
+
+		StringBuilder source = new StringBuilder(4096);
+
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+
+		source.append("/**\n * Generated by ").append(DLServiceProcessor.class.getName()).append(" - do not edit.\n */\n");
+		source.append("@javax.annotation.processing.Generated(\"").append(DLServiceProcessor.class.getName()).append("\")\n");
+		source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		source.append("public final class ").append(simpleName).append(" implements ").append(SERVICE_DISPATCHER).append("\n{\n\n");
+
+		// Signature to detect outdated dispatchers at runtime
+		List<String> signatures = new ArrayList<>();
+		for (ExecutableElement method : methods) {
+			List<String> parameterTypes = new ArrayList<>();
+			for (VariableElement parameter : method.getParameters()) {
+				parameterTypes.add(getTypeName(parameter.asType()));
+			}
+			signatures.add(ServiceDispatcher.createMethodSignature(getTypeName(method.getReturnType()), method.getSimpleName().toString(), parameterTypes));
+		}
+		source.append("\tprotected final static String SIGNATURE = \"").append(ServiceDispatcher.createSignature(signatures)).append("\";\n\n");
+
+		// Routing table
+		source.append("\tprotected final static String[] METHOD_NAMES = {");
+		for (int i = 0; i < methods.size(); ++i) {
+			source.append(i > 0 ? ", " : "").append('"').append(methods.get(i).getSimpleName()).append('"');
+		}
+		source.append("};\n\n");
+
+		source.append("\tprotected final static Class<?>[][] PARAMETER_TYPES = {\n");
+		for (int i = 0; i < methods.size(); ++i) {
+			source.append("\t\t{");
+			List<? extends VariableElement> parameters = methods.get(i).getParameters();
+			for (int p = 0; p < parameters.size(); ++p) {
+				source.append(p > 0 ? ", " : "").append(getTypeName(parameters.get(p).asType())).append(".class");
+			}
+			source.append("}").append(i < methods.size() - 1 ? "," : "").append("\n");
+		}
+		source.append("\t};\n\n");
+
+		// Direct invokers
+		source.append("\tprotected final static ").append(METHOD_INVOKER).append("[] INVOKERS = {\n");
+		for (int i = 0; i < methods.size(); ++i) {
+
+			ExecutableElement method = methods.get(i);
+			StringBuilder call = new StringBuilder();
+			call.append("((").append(serviceName).append(") service).").append(method.getSimpleName()).append('(');
+
+			List<? extends VariableElement> parameters = method.getParameters();
+			for (int p = 0; p < parameters.size(); ++p) {
+				call.append(p > 0 ? ", " : "").append('(').append(getTypeName(parameters.get(p).asType())).append(") parameters[").append(p).append(']');
+			}
+			call.append(')');
+
+			source.append("\t\t(service, parameters) -> ");
+			if (method.getReturnType().getKind() == TypeKind.VOID) {
+				source.append("{\n\t\t\t").append(call).append(";\n\t\t\treturn null;\n\t\t}");
+			} else {
+				source.append(call);
+			}
+			source.append(i < methods.size() - 1 ? "," : "").append("\n");
+		}
+		source.append("\t};\n\n");
+
+		source.append("\t@Override\n\tpublic Class<?> getServiceClass()\n\t{\n\t\treturn ").append(serviceName).append(".class;\n\t}\n\n");
+		source.append("\t@Override\n\tpublic String getSignature()\n\t{\n\t\treturn SIGNATURE;\n\t}\n\n");
+		source.append("\t@Override\n\tpublic int getMethodCount()\n\t{\n\t\treturn METHOD_NAMES.length;\n\t}\n\n");
+		source.append("\t@Override\n\tpublic String getMethodName(int index)\n\t{\n\t\treturn METHOD_NAMES[index];\n\t}\n\n");
+		source.append("\t@Override\n\tpublic Class<?>[] getParameterTypes(int index)\n\t{\n\t\treturn PARAMETER_TYPES[index].clone();\n\t}\n\n");
+		source.append("\t@Override\n\tpublic ").append(METHOD_INVOKER).append(" getInvoker(int index)\n\t{\n\t\treturn INVOKERS[index];\n\t}\n");
+		source.append("}\n");
+
+		try {
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, service);
+
+			try (Writer writer = file.openWriter()) {
+				writer.write(source.toString());
+			}
+
+			dispatchers.add(qualifiedName);
+
+			ModuleElement module = processingEnv.getElementUtils().getModuleOf(service);
+
+			if (module != null && !module.isUnnamed()) {
+				moduleDispatchers.computeIfAbsent(module.getQualifiedName().toString(), (name) -> new TreeSet<>()).add(qualifiedName);
+			}
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Error generating dispatcher " + qualifiedName + " - " + ex.getMessage(), service);
+		}
+	}
+
+	protected void writeServiceFile()
+	{
+		if (dispatchers.isEmpty()) {
+			return;
+		}
+
+		// Named modules have to declare their dispatchers in their module-info
+		for (Map.Entry<String, Set<String>> entry : moduleDispatchers.entrySet()) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Module " + entry.getKey()
+				+ " has to declare 'provides " + SERVICE_DISPATCHER + " with " + String.join(", ", entry.getValue()) + ";'");
+		}
+
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + SERVICE_DISPATCHER);
+
+			try (Writer writer = file.openWriter()) {
+				for (String dispatcher : dispatchers) {
+					writer.write(dispatcher);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Error writing service file of dispatchers - " + ex.getMessage());
+		}
+	}
+}
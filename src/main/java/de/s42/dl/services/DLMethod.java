@@ -59,4 +59,51 @@ public @interface DLMethod
 	public int ttl() default 0;
 
 	public MethodType[] methods() default {GET, POST};
+
+	/**
+	 * Names of static parameters which can optionally be given as path segments following
+	 * /&lt;servicename&gt;/&lt;servicemethod&gt; in the given order.
+	 *
+	 * @return
+	 */
+	public String[] pathParameters() default {};
+
+	/**
+	 * Max calls per minute - 0 inherits the limit of the service or the remote service config.
+	 *
+	 * @return
+	 */
+	public int rateLimit() default 0;
+
+	/**
+	 * Max calls at once after being idle - 0 defaults to rateLimit
+	 *
+	 * @return
+	 */
+	public int rateLimitBurst() default 0;
+
+	public RateLimitKey rateLimitKey() default RateLimitKey.IP;
+
+	/**
+	 * Initial limit of concurrent calls to this method in its own bulkhead - 0 shares the bulkhead of the service.
+	 *
+	 * @return
+	 */
+	public int concurrencyLimit() default 0;
+
+	/**
+	 * Deadline of a call in ms - database statements and mails get canceled once it expired. 0 inherits the remote
+	 * service config.
+	 *
+	 * @return
+	 */
+	public int timeout() default 0;
+
+	/**
+	 * Concurrent calls with the same parameters wait for the call in flight and share its result or error. Just for
+	 * idempotent methods whose result is fully defined by their static parameters.
+	 *
+	 * @return
+	 */
+	public boolean coalesce() default false;
 }
@@ -44,4 +44,27 @@ public @interface DLService
 	public String description() default "";
 
 	public boolean userLoggedIn() default false;
+
+	/**
+	 * Max calls per minute of each method - 0 inherits the remote service config.
+	 *
+	 * @return
+	 */
+	public int rateLimit() default 0;
+
+	/**
+	 * Max calls at once after being idle - 0 defaults to rateLimit
+	 *
+	 * @return
+	 */
+	public int rateLimitBurst() default 0;
+
+	public RateLimitKey rateLimitKey() default RateLimitKey.IP;
+
+	/**
+	 * Initial limit of concurrent calls to all methods of the service - 0 inherits the remote service config.
+	 *
+	 * @return
+	 */
+	public int concurrencyLimit() default 0;
 }
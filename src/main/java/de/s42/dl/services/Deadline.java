@@ -0,0 +1,146 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time until which the current call has to be done. It is bound to the thread executing the call so JDBC
+ * statements and mails can limit their blocking operations to the remaining budget.
+ *
+ * @author Benjamin Schiller
+ */
+public class Deadline
+{
+
+	protected final static ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+	protected final long timeoutMs;
+
+	protected final long expiresAtNanos;
+
+	public Deadline(long timeoutMs)
+	{
+		assert timeoutMs > 0;
+
+		this.timeoutMs = timeoutMs;
+		this.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+	}
+
+	/**
+	 * @return the deadline of the call on this thread if it has one
+	 */
+	public static Optional<Deadline> getCurrent()
+	{
+		return Optional.ofNullable(current.get());
+	}
+
+	/**
+	 * Binds a deadline to this thread - an already bound earlier deadline stays in place.
+	 *
+	 * @param timeoutMs
+	 *
+	 * @return the previously bound deadline which has to be restored with exit
+	 */
+	public static Deadline enter(long timeoutMs)
+	{
+		assert timeoutMs > 0;
+
+		Deadline previous = current.get();
+		Deadline deadline = new Deadline(timeoutMs);
+
+		if (previous == null || deadline.expiresAtNanos - previous.expiresAtNanos < 0) {
+			current.set(deadline);
+		}
+
+		return previous;
+	}
+
+	/**
+	 * Restores the deadline bound before the matching enter.
+	 *
+	 * @param previous
+	 */
+	public static void exit(Deadline previous)
+	{
+		if (previous != null) {
+			current.set(previous);
+		} else {
+			current.remove();
+		}
+	}
+
+	/**
+	 * @throws DeadlineExceeded if the deadline bound to this thread is expired
+	 */
+	public static void checkCurrent() throws DeadlineExceeded
+	{
+		Deadline deadline = current.get();
+
+		if (deadline != null) {
+			deadline.check();
+		}
+	}
+
+	public void check() throws DeadlineExceeded
+	{
+		if (isExpired()) {
+			throw new DeadlineExceeded("Deadline of " + timeoutMs + "ms exceeded");
+		}
+	}
+
+	public boolean isExpired()
+	{
+		return getRemainingNanos() <= 0;
+	}
+
+	public long getRemainingNanos()
+	{
+		return expiresAtNanos - System.nanoTime();
+	}
+
+	/**
+	 * @return remaining ms rounded up - at least 1 as 0 means infinite for most timeouts
+	 */
+	public long getRemainingMillis()
+	{
+		return Math.max(1, TimeUnit.NANOSECONDS.toMillis(getRemainingNanos() + 999999L));
+	}
+
+	/**
+	 * @return remaining seconds rounded up - at least 1 as 0 means infinite for JDBC query timeouts
+	 */
+	public int getRemainingSeconds()
+	{
+		return (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(getRemainingNanos() + 999999999L));
+	}
+
+	public long getTimeoutMs()
+	{
+		return timeoutMs;
+	}
+}
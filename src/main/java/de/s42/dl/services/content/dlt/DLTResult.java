@@ -28,7 +28,8 @@ package de.s42.dl.services.content.dlt;
 import de.s42.base.resources.ResourceHelper;
 import de.s42.dl.services.EntityNotFound;
 import de.s42.dl.srv.DLServletException;
-import de.s42.dl.services.remote.StreamResult;
+import de.s42.dl.services.remote.ETagHelper;
+import de.s42.dl.services.remote.SeekableStreamResult;
 import de.s42.dlt.DLT;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -39,7 +40,7 @@ import java.util.Optional;
  *
  * @author Benjamin Schiller
  */
-public class DLTResult implements StreamResult
+public class DLTResult implements SeekableStreamResult
 {
 
 	protected final String resourceName;
@@ -49,6 +50,7 @@ public class DLTResult implements StreamResult
 	protected final String encoding;
 	protected final String fileName;
 	protected final String mimeType;
+	protected String etag;
 
 	public DLTResult(String resourceName) throws DLServletException
 	{
@@ -105,6 +107,45 @@ public class DLTResult implements StreamResult
 		return evaluated.length;
 	}
 
+	@Override
+	public String getCacheKey()
+	{
+		return resourceName;
+	}
+
+	@Override
+	public String getETag()
+	{
+		if (etag == null) {
+			etag = ETagHelper.createETag(evaluated);
+		}
+
+		return etag;
+	}
+
+	@Override
+	public long getContentLength()
+	{
+		return evaluated.length;
+	}
+
+	@Override
+	public boolean isSeekable()
+	{
+		return true;
+	}
+
+	@Override
+	public long stream(OutputStream out, long offset, long length) throws IOException
+	{
+		int start = (int) Math.min(offset, evaluated.length);
+		int count = (int) Math.min(length, evaluated.length - start);
+
+		out.write(evaluated, start, count);
+
+		return count;
+	}
+
 	@Override
 	public int getTtl()
 	{
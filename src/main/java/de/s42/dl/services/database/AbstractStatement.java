@@ -31,6 +31,8 @@ import de.s42.base.beans.BeanProperty;
 import de.s42.base.conversion.ConversionHelper;
 import de.s42.base.resources.ResourceHelper;
 import de.s42.dl.DLAttribute.AttributeDL;
+import de.s42.dl.services.Deadline;
+import de.s42.dl.services.DeadlineExceeded;
 import de.s42.log.LogManager;
 import de.s42.log.Logger;
 import java.io.IOException;
@@ -126,6 +128,38 @@ public abstract class AbstractStatement<ResultType> implements Statement<ResultT
 		}
 	}
 
+	/**
+	 * Limits the statement to the remaining budget of the current deadline - the driver cancels it on expiry.
+	 *
+	 * @param statement
+	 *
+	 * @throws SQLException
+	 * @throws DeadlineExceeded if the deadline is already expired
+	 */
+	protected void applyDeadline(PreparedStatement statement) throws SQLException, DeadlineExceeded
+	{
+		Optional<Deadline> deadline = Deadline.getCurrent();
+
+		if (deadline.isPresent()) {
+			deadline.orElseThrow().check();
+			statement.setQueryTimeout(deadline.orElseThrow().getRemainingSeconds());
+		}
+	}
+
+	/**
+	 * @param ex
+	 *
+	 * @throws DeadlineExceeded if the statement failed as the current deadline expired (i.e. got canceled)
+	 */
+	protected void checkDeadline(SQLException ex) throws DeadlineExceeded
+	{
+		Optional<Deadline> deadline = Deadline.getCurrent();
+
+		if (deadline.isPresent() && deadline.orElseThrow().isExpired()) {
+			throw new DeadlineExceeded("Query " + getName() + " canceled - deadline of " + deadline.orElseThrow().getTimeoutMs() + "ms exceeded", ex);
+		}
+	}
+
 	protected void setParameters(PreparedStatement statement, Object... parameters) throws SQLException
 	{
 		if (parameters.length > 0) {
@@ -251,14 +285,18 @@ public abstract class AbstractStatement<ResultType> implements Statement<ResultT
 
 			stat = con.prepareStatement(statement);
 
+			applyDeadline(stat);
+
 			setParameters(stat, parameters);
 
 			stat.execute();
 			getDatabaseService().incrementAndGetDbCalls();
+			StatementCounter.increment();
 
 			log.stopTrace("executeNoResult.durationDbCall");
 
 		} catch (SQLException ex) {
+			checkDeadline(ex);
 			throw new Exception("Error in query " + getName() + " - " + ex.getMessage(), ex);
 		} finally {
 			if (stat != null) {
@@ -313,10 +351,13 @@ public abstract class AbstractStatement<ResultType> implements Statement<ResultT
 
 			stat = con.prepareStatement(statement, java.sql.Statement.RETURN_GENERATED_KEYS);
 
+			applyDeadline(stat);
+
 			setParameters(stat, parameters);
 
 			stat.execute();
 			getDatabaseService().incrementAndGetDbCalls();
+			StatementCounter.increment();
 
 			ResultSet resultSet = stat.getResultSet();
 
@@ -340,7 +381,10 @@ public abstract class AbstractStatement<ResultType> implements Statement<ResultT
 			return Optional.ofNullable(entity);
 
 		} catch (SQLException ex) {
+			checkDeadline(ex);
 			throw new SQLException("Error in query " + getName() + " - " + ex.getMessage(), ex.getSQLState(), ex);
+		} catch (DeadlineExceeded ex) {
+			throw ex;
 		} catch (Exception ex) {
 			throw new Exception("Error in query " + getName() + " - " + ex.getMessage(), ex);
 		} finally {
@@ -384,10 +428,13 @@ public abstract class AbstractStatement<ResultType> implements Statement<ResultT
 
 			stat = con.prepareStatement(statement, java.sql.Statement.RETURN_GENERATED_KEYS);
 
+			applyDeadline(stat);
+
 			setParameters(stat, parameters);
 
 			stat.execute();
 			getDatabaseService().incrementAndGetDbCalls();
+			StatementCounter.increment();
 
 			ResultSet resultSet = stat.getResultSet();
 
@@ -410,6 +457,11 @@ public abstract class AbstractStatement<ResultType> implements Statement<ResultT
 
 			return entities;
 
+		} catch (SQLException ex) {
+			checkDeadline(ex);
+			throw new Exception("Error in query " + getName() + " - " + ex.getMessage(), ex);
+		} catch (DeadlineExceeded ex) {
+			throw ex;
 		} catch (Exception ex) {
 			throw new Exception("Error in query " + getName() + " - " + ex.getMessage(), ex);
 		} finally {
@@ -43,6 +43,14 @@ public interface DatabaseService extends Service
 
 	public void closeAllConnections() throws Exception;
 
+	/**
+	 * Closes the connection bound to the current thread if there is one and it is not in a transaction. Has to be called
+	 * before short lived threads (i.e. virtual threads) end.
+	 *
+	 * @throws Exception
+	 */
+	public void closeThreadConnection() throws Exception;
+
 	public boolean isAutoCloseConnection() throws Exception;
 
 	public void setAutoCloseConnection(boolean autoCloseConnection) throws Exception;
@@ -56,4 +64,7 @@ public interface DatabaseService extends Service
 	public void rollbackTransaction() throws Exception;
 	
 	public int incrementAndGetDbCalls();
+
+	@AttributeDL(ignore = true)
+	public int getDbCalls();
 }
@@ -0,0 +1,88 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.database;
+
+/**
+ * Counts the statements executed by the call on this thread (i.e. for the access log). Counting is enabled between
+ * begin and end - statements executed outside are not counted.
+ *
+ * @author Benjamin Schiller
+ */
+public final class StatementCounter
+{
+
+	protected final static ThreadLocal<int[]> current = new ThreadLocal<>();
+
+	private StatementCounter()
+	{
+		// never instantiated
+	}
+
+	/**
+	 * Starts counting on this thread.
+	 *
+	 * @return the counter of an enclosing count which has to be restored with end
+	 */
+	public static int[] begin()
+	{
+		int[] previous = current.get();
+
+		current.set(new int[1]);
+
+		return previous;
+	}
+
+	/**
+	 * Stops counting and restores the enclosing count which includes the statements of this count.
+	 *
+	 * @param previous as returned by the matching begin
+	 *
+	 * @return the statements executed since the matching begin
+	 */
+	public static int end(int[] previous)
+	{
+		int[] counter = current.get();
+		int result = (counter != null) ? counter[0] : 0;
+
+		if (previous != null) {
+			previous[0] += result;
+			current.set(previous);
+		} else {
+			current.remove();
+		}
+
+		return result;
+	}
+
+	public static void increment()
+	{
+		int[] counter = current.get();
+
+		if (counter != null) {
+			++counter[0];
+		}
+	}
+}
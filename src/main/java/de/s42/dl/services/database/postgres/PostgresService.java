@@ -181,6 +181,23 @@ public class PostgresService extends AbstractService implements DatabaseService
 		}
 	}
 
+	@Override
+	public void closeThreadConnection() throws SQLException
+	{
+		Connection con = connections.get();
+
+		if (con == null) {
+			return;
+		}
+
+		if (con.isClosed()) {
+			connections.remove();
+			return;
+		}
+
+		closeConnection(con);
+	}
+
 	/**
 	 * Closes all connections
 	 * ATTENTION: Ignores transaction state in this method!
@@ -222,6 +239,7 @@ public class PostgresService extends AbstractService implements DatabaseService
 		return dbCalls.incrementAndGet();
 	}
 
+	@Override
 	@AttributeDL(ignore = true)
 	public int getDbCalls()
 	{
@@ -28,6 +28,8 @@ package de.s42.dl.services.email;
 import de.s42.base.files.FilesHelper;
 import de.s42.dl.DLAttribute.AttributeDL;
 import de.s42.dl.services.AbstractService;
+import de.s42.dl.services.Deadline;
+import de.s42.dl.services.DeadlineExceeded;
 import de.s42.log.LogManager;
 import de.s42.log.Logger;
 import jakarta.activation.DataHandler;
@@ -36,6 +38,7 @@ import jakarta.mail.Address;
 import jakarta.mail.Authenticator;
 import jakarta.mail.BodyPart;
 import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
 import jakarta.mail.Multipart;
 import jakarta.mail.PasswordAuthentication;
 import jakarta.mail.Session;
@@ -50,6 +53,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Date;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -103,6 +107,12 @@ public class SMTPEmailService extends AbstractService implements EmailService
 	@AttributeDL(required = false, defaultValue = "false")
 	protected boolean debug = false;
 
+	/**
+	 * Connect, read and write timeout in ms - shortened to the remaining budget of the current deadline
+	 */
+	@AttributeDL(required = false, defaultValue = "30000")
+	protected int timeout = 30000;
+
 	@Override
 	public void init()
 	{
@@ -117,6 +127,7 @@ public class SMTPEmailService extends AbstractService implements EmailService
 		log.info("senderName :", getSenderName());
 		log.info("senderEmail :", getSenderEmail());
 		log.info("debug :", isDebug());
+		log.info("timeout :", getTimeout());
 	}
 
 	@Override
@@ -172,7 +183,15 @@ public class SMTPEmailService extends AbstractService implements EmailService
 
 		log.debug("Sending email");
 
-		Properties properties = System.getProperties();
+		Optional<Deadline> deadline = Deadline.getCurrent();
+
+		if (deadline.isPresent()) {
+			deadline.orElseThrow().check();
+		}
+
+		// Copy the system properties as the timeouts are specific to this mail
+		Properties properties = new Properties();
+		properties.putAll(System.getProperties());
 
 		properties.put("mail.debug", isDebug() ? "true" : "false");
 		properties.setProperty("mail.transport.protocol", getProtocol());
@@ -188,7 +207,22 @@ public class SMTPEmailService extends AbstractService implements EmailService
 				"javax.net.ssl.SSLSocketFactory");
 		}
 
-		Session session = Session.getDefaultInstance(properties,
+		long socketTimeout = getTimeout();
+
+		if (deadline.isPresent()) {
+			socketTimeout = (socketTimeout > 0) ? Math.min(socketTimeout, deadline.orElseThrow().getRemainingMillis()) : deadline.orElseThrow().getRemainingMillis();
+		}
+
+		// The transport just reads the properties of its protocol (i.e. mail.smtps.* for smtps)
+		if (socketTimeout > 0) {
+			String protocolPrefix = "mail." + getProtocol() + ".";
+			properties.put(protocolPrefix + "connectiontimeout", String.valueOf(socketTimeout));
+			properties.put(protocolPrefix + "timeout", String.valueOf(socketTimeout));
+			properties.put(protocolPrefix + "writetimeout", String.valueOf(socketTimeout));
+		}
+
+		// The default instance would be cached with the properties of the first mail
+		Session session = Session.getInstance(properties,
 			new Authenticator()
 		{
 			@Override
@@ -302,7 +336,14 @@ public class SMTPEmailService extends AbstractService implements EmailService
 		message.setContent(rootBodyPart);
 
 		// Send message
-		Transport.send(message);
+		try {
+			Transport.send(message);
+		} catch (MessagingException ex) {
+			if (deadline.isPresent() && deadline.orElseThrow().isExpired()) {
+				throw new DeadlineExceeded("Sending mail canceled - deadline of " + deadline.orElseThrow().getTimeoutMs() + "ms exceeded", ex);
+			}
+			throw ex;
+		}
 
 		mailsSent.incrementAndGet();
 
@@ -448,4 +489,14 @@ public class SMTPEmailService extends AbstractService implements EmailService
 	{
 		this.debug = debug;
 	}
+
+	public int getTimeout()
+	{
+		return timeout;
+	}
+
+	public void setTimeout(int timeout)
+	{
+		this.timeout = timeout;
+	}
 }
@@ -0,0 +1,362 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.metrics;
+
+import de.s42.dl.DLAttribute.AttributeDL;
+import de.s42.dl.services.AbstractService;
+import de.s42.dl.services.ConfiguredPermissions;
+import de.s42.dl.services.DLMethod;
+import de.s42.dl.services.DLService;
+import de.s42.dl.services.database.DatabaseService;
+import de.s42.dl.services.email.EmailService;
+import de.s42.dl.services.email.SMTPEmailService;
+import de.s42.dl.services.remote.ConcurrencyLimiter;
+import de.s42.dl.services.remote.DefaultServletRemoteService;
+import de.s42.dl.services.remote.MethodDescriptor;
+import de.s42.dl.services.remote.ServiceDescriptor;
+import de.s42.dl.services.remote.StreamResult;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.json.JSONObject;
+
+/**
+ * Exposes the call metrics of all methods of the remote service as JSON or in the Prometheus text format. The methods
+ * require the configured permission (default "metrics") - grant it to the token of the scraper. An empty permission
+ * exposes the metrics to everyone. Permissions are just checked if the remote service has a permission service.
+ *
+ * @author Benjamin Schiller
+ */
+@DLService
+public class DefaultMetricsService extends AbstractService implements MetricsService, ConfiguredPermissions
+{
+
+	public final static String DEFAULT_PERMISSION = "metrics";
+
+	protected final static double[] QUANTILES = {0.5, 0.95, 0.99};
+
+	@AttributeDL(required = true)
+	protected DefaultServletRemoteService remoteService;
+
+	@AttributeDL(required = false)
+	protected DatabaseService databaseService;
+
+	@AttributeDL(required = false)
+	protected EmailService emailService;
+
+	@AttributeDL(required = false, defaultValue = "dls")
+	protected String prefix = "dls";
+
+	/**
+	 * Permission required to read the metrics - empty allows everyone
+	 */
+	@AttributeDL(required = false, defaultValue = DEFAULT_PERMISSION)
+	protected String permission = DEFAULT_PERMISSION;
+
+	@Override
+	public String[] getConfiguredPermissions()
+	{
+		if (permission == null || permission.isBlank()) {
+			return new String[0];
+		}
+
+		return new String[]{permission.trim()};
+	}
+
+	protected JSONObject toJSON(ConcurrencyLimiter limiter)
+	{
+		assert limiter != null;
+
+		JSONObject result = new JSONObject();
+		result.put("limit", limiter.getLimit());
+		result.put("inFlight", limiter.getInFlight());
+		result.put("queued", limiter.getQueued());
+		result.put("rejections", limiter.getRejections());
+
+		return result;
+	}
+
+	protected JSONObject toJSON(LatencyHistogram latency)
+	{
+		JSONObject result = new JSONObject();
+
+		result.put("p50", latency.getPercentile(0.5) / 1000.0);
+		result.put("p95", latency.getPercentile(0.95) / 1000.0);
+		result.put("p99", latency.getPercentile(0.99) / 1000.0);
+		result.put("max", latency.getMax() / 1000.0);
+		result.put("mean", latency.getMean() / 1000.0);
+
+		return result;
+	}
+
+	/**
+	 * @return metrics of all methods by service and method - latencies in ms
+	 *
+	 * @throws Exception
+	 */
+	@Override
+	@DLMethod
+	public JSONObject metrics() throws Exception
+	{
+		JSONObject services = new JSONObject();
+		JSONObject concurrency = new JSONObject();
+
+		for (ServiceDescriptor service : remoteService.getServiceDescriptors()) {
+
+			if (service.getConcurrencyLimiter() != null) {
+				concurrency.put(service.getName(), toJSON(service.getConcurrencyLimiter()));
+			}
+
+			JSONObject methods = new JSONObject();
+
+			for (MethodDescriptor method : service.getMethods()) {
+
+				MethodMetrics metrics = method.getMetrics();
+
+				JSONObject errorsByCode = new JSONObject();
+				for (Map.Entry<String, LongAdder> entry : metrics.getErrorsByCode().entrySet()) {
+					errorsByCode.put(entry.getKey(), entry.getValue().sum());
+				}
+
+				JSONObject methodJson = new JSONObject();
+				methodJson.put("calls", metrics.getCalls());
+				methodJson.put("errors", metrics.getErrors());
+				methodJson.put("errorsByCode", errorsByCode);
+				methodJson.put("bytes", metrics.getBytes());
+				methodJson.put("latency", toJSON(metrics.getLatency()));
+
+				if (method.isOwnConcurrencyLimiter()) {
+					methodJson.put("concurrency", toJSON(method.getConcurrencyLimiter()));
+				}
+
+				if (method.isCoalescing()) {
+					methodJson.put("coalesced", method.getSingleFlight().getCoalesced());
+				}
+
+				methods.put(method.getName(), methodJson);
+			}
+
+			services.put(service.getName(), methods);
+		}
+
+		JSONObject result = new JSONObject();
+		result.put("services", services);
+		result.put("concurrency", concurrency);
+
+		if (databaseService != null) {
+			result.put("dbCalls", databaseService.getDbCalls());
+		}
+
+		if (emailService instanceof SMTPEmailService) {
+			result.put("mailsSent", SMTPEmailService.getMailsSent());
+		}
+
+		return result;
+	}
+
+	protected static String escapeLabel(String value)
+	{
+		return value
+			.replace("\\", "\\\\")
+			.replace("\"", "\\\"")
+			.replace("\n", "\\n");
+	}
+
+	protected void appendHeader(StringBuilder out, String name, String type, String help)
+	{
+		out.append("# HELP ").append(prefix).append('_').append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(prefix).append('_').append(name).append(' ').append(type).append('\n');
+	}
+
+	protected void appendSample(StringBuilder out, String name, String labels, double value)
+	{
+		out.append(prefix).append('_').append(name);
+
+		if (labels != null) {
+			out.append('{').append(labels).append('}');
+		}
+
+		out.append(' ');
+
+		if (value == Math.rint(value) && !Double.isInfinite(value)) {
+			out.append((long) value);
+		} else {
+			out.append(value);
+		}
+
+		out.append('\n');
+	}
+
+	protected void appendConcurrencySamples(StringBuilder out, StringBuilder rejections, String labels, ConcurrencyLimiter limiter)
+	{
+		appendSample(out, "concurrency", labels + ",state=\"limit\"", limiter.getLimit());
+		appendSample(out, "concurrency", labels + ",state=\"in_flight\"", limiter.getInFlight());
+		appendSample(out, "concurrency", labels + ",state=\"queued\"", limiter.getQueued());
+		appendSample(rejections, "concurrency_rejections_total", labels, limiter.getRejections());
+	}
+
+	/**
+	 * @return metrics in the Prometheus text format - latencies in seconds
+	 *
+	 * @throws Exception
+	 */
+	@Override
+	@DLMethod
+	public StreamResult prometheus() throws Exception
+	{
+		StringBuilder calls = new StringBuilder();
+		StringBuilder errors = new StringBuilder();
+		StringBuilder bytes = new StringBuilder();
+		StringBuilder latency = new StringBuilder();
+		StringBuilder latencyMax = new StringBuilder();
+		StringBuilder concurrency = new StringBuilder();
+		StringBuilder rejections = new StringBuilder();
+		StringBuilder coalesced = new StringBuilder();
+
+		for (ServiceDescriptor service : remoteService.getServiceDescriptors()) {
+
+			if (service.getConcurrencyLimiter() != null) {
+				appendConcurrencySamples(concurrency, rejections, "service=\"" + escapeLabel(service.getName()) + "\"", service.getConcurrencyLimiter());
+			}
+
+			for (MethodDescriptor method : service.getMethods()) {
+
+				MethodMetrics metrics = method.getMetrics();
+				LatencyHistogram histogram = metrics.getLatency();
+				String labels = "service=\"" + escapeLabel(service.getName()) + "\",method=\"" + escapeLabel(method.getName()) + "\"";
+
+				appendSample(calls, "calls_total", labels, metrics.getCalls());
+				appendSample(bytes, "response_bytes_total", labels, metrics.getBytes());
+
+				for (Map.Entry<String, LongAdder> entry : metrics.getErrorsByCode().entrySet()) {
+					appendSample(errors, "errors_total", labels + ",code=\"" + escapeLabel(entry.getKey()) + "\"", entry.getValue().sum());
+				}
+
+				for (double quantile : QUANTILES) {
+					appendSample(latency, "latency_seconds", labels + ",quantile=\"" + quantile + "\"", histogram.getPercentile(quantile) / 1000000.0);
+				}
+				appendSample(latency, "latency_seconds_sum", labels, histogram.getSum() / 1000000.0);
+				appendSample(latency, "latency_seconds_count", labels, histogram.getCount());
+
+				appendSample(latencyMax, "latency_max_seconds", labels, histogram.getMax() / 1000000.0);
+
+				if (method.isOwnConcurrencyLimiter()) {
+					appendConcurrencySamples(concurrency, rejections, labels, method.getConcurrencyLimiter());
+				}
+
+				if (method.isCoalescing()) {
+					appendSample(coalesced, "coalesced_total", labels, method.getSingleFlight().getCoalesced());
+				}
+			}
+		}
+
+		StringBuilder out = new StringBuilder(calls.length() + errors.length() + bytes.length() + latency.length() + latencyMax.length() + 1024);
+
+		appendHeader(out, "calls_total", "counter", "Calls per service method");
+		out.append(calls);
+		appendHeader(out, "errors_total", "counter", "Failed calls per service method and error code");
+		out.append(errors);
+		appendHeader(out, "response_bytes_total", "counter", "Response bytes per service method");
+		out.append(bytes);
+		appendHeader(out, "latency_seconds", "summary", "Call latency per service method");
+		out.append(latency);
+		appendHeader(out, "latency_max_seconds", "gauge", "Max call latency per service method");
+		out.append(latencyMax);
+
+		if (!concurrency.isEmpty()) {
+			appendHeader(out, "concurrency", "gauge", "Adaptive concurrency limit, calls in flight and queued calls per bulkhead");
+			out.append(concurrency);
+			appendHeader(out, "concurrency_rejections_total", "counter", "Calls rejected per bulkhead");
+			out.append(rejections);
+		}
+
+		if (!coalesced.isEmpty()) {
+			appendHeader(out, "coalesced_total", "counter", "Calls which shared the result of an identical call in flight");
+			out.append(coalesced);
+		}
+
+		if (databaseService != null) {
+			appendHeader(out, "db_calls_total", "counter", "Database calls");
+			appendSample(out, "db_calls_total", null, databaseService.getDbCalls());
+		}
+
+		if (emailService instanceof SMTPEmailService) {
+			appendHeader(out, "mails_sent_total", "counter", "Sent mails");
+			appendSample(out, "mails_sent_total", null, SMTPEmailService.getMailsSent());
+		}
+
+		return new PrometheusResult(out.toString());
+	}
+
+	public DefaultServletRemoteService getRemoteService()
+	{
+		return remoteService;
+	}
+
+	public void setRemoteService(DefaultServletRemoteService remoteService)
+	{
+		this.remoteService = remoteService;
+	}
+
+	public DatabaseService getDatabaseService()
+	{
+		return databaseService;
+	}
+
+	public void setDatabaseService(DatabaseService databaseService)
+	{
+		this.databaseService = databaseService;
+	}
+
+	public EmailService getEmailService()
+	{
+		return emailService;
+	}
+
+	public void setEmailService(EmailService emailService)
+	{
+		this.emailService = emailService;
+	}
+
+	public String getPrefix()
+	{
+		return prefix;
+	}
+
+	public void setPrefix(String prefix)
+	{
+		this.prefix = prefix;
+	}
+
+	public String getPermission()
+	{
+		return permission;
+	}
+
+	public void setPermission(String permission)
+	{
+		this.permission = permission;
+	}
+}
@@ -0,0 +1,151 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of latencies in microseconds. Values below 16 are exact, larger values fall into 8
+ * sub buckets per power of 2 - percentiles have a relative error of at most 12.5%.
+ *
+ * @author Benjamin Schiller
+ */
+public class LatencyHistogram
+{
+
+	protected final static int LINEAR_BUCKETS = 16;
+	protected final static int SUB_BUCKET_BITS = 3;
+	protected final static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	protected final static int BUCKETS = LINEAR_BUCKETS + (64 - 4) * SUB_BUCKETS;
+
+	protected final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	protected final LongAdder count = new LongAdder();
+
+	protected final LongAdder sum = new LongAdder();
+
+	protected final AtomicLong max = new AtomicLong();
+
+	protected static int indexOf(long value)
+	{
+		if (value < LINEAR_BUCKETS) {
+			return (int) Math.max(0, value);
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+
+		return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + subBucket;
+	}
+
+	protected static long upperBoundOf(int index)
+	{
+		if (index < LINEAR_BUCKETS) {
+			return index;
+		}
+
+		int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+		int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+
+		return ((SUB_BUCKETS + subBucket + 1L) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	public void record(long micros)
+	{
+		if (micros < 0) {
+			micros = 0;
+		}
+
+		counts.incrementAndGet(indexOf(micros));
+		count.increment();
+		sum.add(micros);
+
+		long current = max.get();
+		while (micros > current && !max.compareAndSet(current, micros)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * @param quantile between 0 and 1
+	 *
+	 * @return the latency in microseconds at the quantile - 0 if nothing was recorded
+	 */
+	public long getPercentile(double quantile)
+	{
+		assert quantile >= 0.0 && quantile <= 1.0;
+
+		long[] snapshot = new long[BUCKETS];
+		long total = 0;
+
+		for (int i = 0; i < BUCKETS; ++i) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+
+		if (total == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long cumulative = 0;
+
+		for (int i = 0; i < BUCKETS; ++i) {
+
+			cumulative += snapshot[i];
+
+			if (cumulative >= rank) {
+				return Math.min(upperBoundOf(i), getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	public long getSum()
+	{
+		return sum.sum();
+	}
+
+	public long getMax()
+	{
+		return max.get();
+	}
+
+	public double getMean()
+	{
+		long c = getCount();
+
+		return (c > 0) ? (double) getSum() / c : 0.0;
+	}
+}
@@ -0,0 +1,95 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call metrics of a single service method.
+ *
+ * @author Benjamin Schiller
+ */
+public class MethodMetrics
+{
+
+	protected final LatencyHistogram latency = new LatencyHistogram();
+
+	protected final LongAdder calls = new LongAdder();
+
+	protected final LongAdder errors = new LongAdder();
+
+	protected final LongAdder bytes = new LongAdder();
+
+	protected final Map<String, LongAdder> errorsByCode = new ConcurrentHashMap<>();
+
+	/**
+	 * @param durationNanos
+	 * @param bytesWritten response bytes
+	 * @param errorCode the error code if the call failed or null
+	 */
+	public void record(long durationNanos, long bytesWritten, String errorCode)
+	{
+		calls.increment();
+		latency.record(durationNanos / 1000);
+
+		if (bytesWritten > 0) {
+			bytes.add(bytesWritten);
+		}
+
+		if (errorCode != null) {
+			errors.increment();
+			errorsByCode.computeIfAbsent(errorCode, (code) -> new LongAdder()).increment();
+		}
+	}
+
+	public LatencyHistogram getLatency()
+	{
+		return latency;
+	}
+
+	public long getCalls()
+	{
+		return calls.sum();
+	}
+
+	public long getErrors()
+	{
+		return errors.sum();
+	}
+
+	public long getBytes()
+	{
+		return bytes.sum();
+	}
+
+	public Map<String, LongAdder> getErrorsByCode()
+	{
+		return Collections.unmodifiableMap(errorsByCode);
+	}
+}
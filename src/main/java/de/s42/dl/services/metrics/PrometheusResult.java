@@ -0,0 +1,95 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.metrics;
+
+import de.s42.dl.services.remote.StreamResult;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Metrics in the Prometheus text exposition format.
+ *
+ * @author Benjamin Schiller
+ */
+public class PrometheusResult implements StreamResult
+{
+
+	public final static String MIME_TYPE = "text/plain; version=0.0.4";
+
+	protected final byte[] content;
+
+	public PrometheusResult(String content)
+	{
+		assert content != null;
+
+		this.content = content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public int getTtl()
+	{
+		return 0;
+	}
+
+	@Override
+	public String getMimeType()
+	{
+		return MIME_TYPE;
+	}
+
+	@Override
+	public String getEncoding()
+	{
+		return "UTF-8";
+	}
+
+	@Override
+	public String getFileName()
+	{
+		return "metrics.txt";
+	}
+
+	@Override
+	public boolean isInline()
+	{
+		return true;
+	}
+
+	@Override
+	public long getContentLength()
+	{
+		return content.length;
+	}
+
+	@Override
+	public long stream(OutputStream out) throws IOException
+	{
+		out.write(content);
+
+		return content.length;
+	}
+}
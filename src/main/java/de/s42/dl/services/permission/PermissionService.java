@@ -37,4 +37,9 @@ public interface PermissionService extends Service
 {
 
 	public void validate(HttpServletRequest request, boolean userLoggedIn, Set<String> permissions) throws Exception;
+
+	default public void validate(HttpServletRequest request, boolean userLoggedIn, PermissionSet permissions) throws Exception
+	{
+		validate(request, userLoggedIn, permissions.getPermissions());
+	}
 }
@@ -0,0 +1,226 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.permission;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable bitset of permissions. Permission strings are interned into global integer ids, so checking a set of
+ * permissions is a bitwise AND over a few words without allocations.
+ *
+ * @author Benjamin Schiller
+ */
+public final class PermissionSet
+{
+
+	private final static Map<String, Integer> permissionIds = new ConcurrentHashMap<>();
+	private final static Object internLock = new Object();
+
+	/**
+	 * Count of interned permissions - written after the id is in permissionIds, so a set reading a generation sees all
+	 * ids below it
+	 */
+	private static volatile int currentGeneration;
+
+	public final static PermissionSet EMPTY = new PermissionSet(new long[0], Collections.emptySet(), 0);
+
+	/**
+	 * Returns the id of the given permission - creates a new id if it is not interned yet.
+	 *
+	 * @param permission
+	 *
+	 * @return
+	 */
+	public static int intern(String permission)
+	{
+		assert permission != null : "permission != null";
+
+		Integer id = permissionIds.get(permission);
+
+		if (id != null) {
+			return id;
+		}
+
+		// Assign the id and publish the generation together
+		synchronized (internLock) {
+
+			id = permissionIds.get(permission);
+
+			if (id == null) {
+				id = currentGeneration;
+				permissionIds.put(permission, id);
+				currentGeneration = id + 1;
+			}
+
+			return id;
+		}
+	}
+
+	/**
+	 * Is incremented whenever a new permission gets interned. Allows to detect stale sets created by of.
+	 *
+	 * @return
+	 */
+	public static int getGeneration()
+	{
+		return currentGeneration;
+	}
+
+	/**
+	 * Creates a set interning all given permissions. Use this for declared permissions (i.e. in DLService and
+	 * DLMethod). Blank permissions are ignored.
+	 *
+	 * @param permissions
+	 *
+	 * @return
+	 */
+	public static PermissionSet intern(Collection<String> permissions)
+	{
+		assert permissions != null : "permissions != null";
+
+		for (String permission : permissions) {
+			if (!permission.isBlank()) {
+				intern(permission);
+			}
+		}
+
+		return of(permissions);
+	}
+
+	/**
+	 * Creates a set of the given permissions without interning new ones. As declared permissions are always interned
+	 * permissions which are not known can never be required and are just ignored in the bitset. Use this for granted
+	 * permissions (i.e. in tokens).
+	 *
+	 * @param permissions
+	 *
+	 * @return
+	 */
+	public static PermissionSet of(Collection<String> permissions)
+	{
+		assert permissions != null : "permissions != null";
+
+		// Read the generation first - permissions interned concurrently will make the set stale
+		int generation = getGeneration();
+
+		long[] bits = new long[0];
+		Set<String> names = new HashSet<>();
+
+		for (String permission : permissions) {
+
+			if (permission.isBlank()) {
+				continue;
+			}
+
+			names.add(permission);
+
+			Integer id = permissionIds.get(permission);
+
+			if (id != null) {
+
+				int word = id >>> 6;
+
+				if (word >= bits.length) {
+					bits = Arrays.copyOf(bits, word + 1);
+				}
+
+				bits[word] |= 1L << id;
+			}
+		}
+
+		return new PermissionSet(bits, Collections.unmodifiableSet(names), generation);
+	}
+
+	private final long[] bits;
+	private final Set<String> permissions;
+	private final int generation;
+
+	private PermissionSet(long[] bits, Set<String> permissions, int generation)
+	{
+		this.bits = bits;
+		this.permissions = permissions;
+		this.generation = generation;
+	}
+
+	/**
+	 * Checks if all permissions of the given set are contained in this set.
+	 *
+	 * @param required
+	 *
+	 * @return
+	 */
+	public boolean containsAll(PermissionSet required)
+	{
+		assert required != null : "required != null";
+
+		long[] requiredBits = required.bits;
+
+		// Sets only contain words up to their highest permission
+		if (requiredBits.length > bits.length) {
+			return false;
+		}
+
+		for (int i = 0; i < requiredBits.length; ++i) {
+			if ((bits[i] & requiredBits[i]) != requiredBits[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public boolean isEmpty()
+	{
+		return permissions.isEmpty();
+	}
+
+	/**
+	 * A set is stale if permissions got interned after it was created using of.
+	 *
+	 * @return
+	 */
+	public boolean isStale()
+	{
+		return generation != getGeneration();
+	}
+
+	public Set<String> getPermissions()
+	{
+		return permissions;
+	}
+
+	@Override
+	public String toString()
+	{
+		return permissions.toString();
+	}
+}
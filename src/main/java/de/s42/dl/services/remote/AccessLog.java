@@ -0,0 +1,448 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.log.LogManager;
+import de.s42.log.Logger;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured access log of remote calls. Calls write their record into a preallocated slot of a lock-free ring buffer
+ * and return - a background thread drains the ring and writes one JSON line per record into a rolling file. If the
+ * writer falls behind and the ring is full records are dropped and counted instead of blocking the calls.
+ *
+ * @author Benjamin Schiller
+ */
+public class AccessLog
+{
+
+	private final static Logger log = LogManager.getLogger(AccessLog.class.getName());
+
+	public final static long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	/**
+	 * Fixed layout of a record - the slots are reused for the lifetime of the log
+	 */
+	protected static class Record
+	{
+
+		protected long timestamp;
+		protected String service;
+		protected String method;
+		protected int status;
+		protected long latencyNanos;
+		protected int dbCalls;
+		protected long bytes;
+		protected String subject;
+		protected String errorCode;
+	}
+
+	protected final Path file;
+	protected final long maxFileSize;
+	protected final int maxFiles;
+	protected final int sampleRate;
+	protected final long slowThresholdNanos;
+
+	protected final Record[] records;
+
+	/**
+	 * Sequence of each slot - a slot is writable at position p if its sequence is p and readable if it is p + 1
+	 */
+	protected final AtomicLongArray sequences;
+	protected final int mask;
+	protected final AtomicLong tail = new AtomicLong();
+	protected final AtomicLong sampleCounter = new AtomicLong();
+
+	/**
+	 * Just accessed by the writer thread
+	 */
+	protected long head;
+	protected OutputStream out;
+	protected long fileSize;
+	protected final StringBuilder line = new StringBuilder(256);
+
+	protected final LongAdder written = new LongAdder();
+	protected final LongAdder dropped = new LongAdder();
+
+	protected volatile boolean running;
+	protected volatile Thread writer;
+
+	/**
+	 * @param file
+	 * @param bufferSize slots of the ring buffer - rounded up to a power of 2
+	 * @param maxFileSize size in bytes after which the file gets rolled over
+	 * @param maxFiles count of rolled files kept as file.1 ... file.maxFiles
+	 * @param sampleRate logs 1 of sampleRate calls - slow calls and errors are always logged
+	 * @param slowThresholdMs calls taking at least this long are always logged - 0 disables
+	 */
+	public AccessLog(Path file, int bufferSize, long maxFileSize, int maxFiles, int sampleRate, long slowThresholdMs)
+	{
+		assert file != null;
+		assert bufferSize > 0;
+		assert maxFileSize > 0;
+		assert maxFiles >= 0;
+		assert sampleRate > 0;
+		assert slowThresholdMs >= 0;
+
+		this.file = file;
+		this.maxFileSize = maxFileSize;
+		this.maxFiles = maxFiles;
+		this.sampleRate = sampleRate;
+		this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+
+		int capacity = Integer.highestOneBit(Math.max(2, bufferSize) * 2 - 1);
+
+		records = new Record[capacity];
+		sequences = new AtomicLongArray(capacity);
+		mask = capacity - 1;
+
+		for (int i = 0; i < capacity; ++i) {
+			records[i] = new Record();
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Opens the file and starts the writer thread.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void start() throws IOException
+	{
+		if (running) {
+			return;
+		}
+
+		open();
+
+		running = true;
+
+		writer = new Thread(this::drainLoop, "AccessLog " + file.getFileName());
+		writer.setDaemon(true);
+		writer.start();
+
+		log.info("Started access log", file);
+	}
+
+	/**
+	 * Stops the writer thread after it wrote all pending records and closes the file.
+	 */
+	public synchronized void stop()
+	{
+		if (!running) {
+			return;
+		}
+
+		running = false;
+
+		LockSupport.unpark(writer);
+
+		try {
+			writer.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+
+		writer = null;
+
+		try {
+			out.close();
+		} catch (IOException ex) {
+			log.error(ex, "Error closing access log");
+		}
+
+		log.info("Stopped access log", file, written.sum(), dropped.sum());
+	}
+
+	/**
+	 * @param latencyNanos
+	 * @param status
+	 * @param errorCode
+	 *
+	 * @return true if a call with the given outcome has to be logged
+	 */
+	public boolean isLogged(long latencyNanos, int status, String errorCode)
+	{
+		if (errorCode != null || status >= 400) {
+			return true;
+		}
+
+		if (slowThresholdNanos > 0 && latencyNanos >= slowThresholdNanos) {
+			return true;
+		}
+
+		return sampleRate == 1 || sampleCounter.getAndIncrement() % sampleRate == 0;
+	}
+
+	/**
+	 * Adds the record of a call if it gets sampled - never blocks. Does nothing if the log is not running (i.e. stopped
+	 * while the call was running).
+	 *
+	 * @param service
+	 * @param method
+	 * @param status
+	 * @param latencyNanos
+	 * @param dbCalls
+	 * @param bytes
+	 * @param subject might be null
+	 * @param errorCode might be null
+	 *
+	 * @return true if the record was added, false if it was not sampled or the buffer is full
+	 */
+	public boolean log(String service, String method, int status, long latencyNanos, int dbCalls, long bytes, String subject, String errorCode)
+	{
+		assert service != null;
+		assert method != null;
+
+		if (!running || !isLogged(latencyNanos, status, errorCode)) {
+			return false;
+		}
+
+		// Claim a slot - see the bounded MPMC queue by D. Vyukov
+		long position;
+		while (true) {
+
+			position = tail.get();
+			long sequence = sequences.getAcquire((int) position & mask);
+
+			if (sequence == position) {
+				if (tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+			} // The writer has not yet drained this slot
+			else if (sequence < position) {
+				dropped.increment();
+				return false;
+			}
+		}
+
+		Record record = records[(int) position & mask];
+		record.timestamp = System.currentTimeMillis();
+		record.service = service;
+		record.method = method;
+		record.status = status;
+		record.latencyNanos = latencyNanos;
+		record.dbCalls = dbCalls;
+		record.bytes = bytes;
+		record.subject = subject;
+		record.errorCode = errorCode;
+
+		// Publish the slot to the writer
+		sequences.setRelease((int) position & mask, position + 1);
+
+		// Wake the idle writer each time another half of the buffer got filled
+		if ((position & (mask >> 1)) == 0) {
+			LockSupport.unpark(writer);
+		}
+
+		return true;
+	}
+
+	protected void drainLoop()
+	{
+		while (running) {
+
+			try {
+				if (drain() > 0) {
+					continue;
+				}
+
+				// Flush while idle so records show up in the file in time
+				out.flush();
+			} catch (IOException ex) {
+				log.error(ex, "Error writing access log");
+			}
+
+			LockSupport.parkNanos(IDLE_PARK_NANOS);
+		}
+
+		// Write records added until stop
+		try {
+			drain();
+			out.flush();
+		} catch (IOException ex) {
+			log.error(ex, "Error writing access log");
+		}
+	}
+
+	/**
+	 * Writes all readable records.
+	 *
+	 * @return the count of written records
+	 *
+	 * @throws IOException
+	 */
+	protected int drain() throws IOException
+	{
+		int count = 0;
+
+		while (sequences.getAcquire((int) head & mask) == head + 1) {
+
+			Record record = records[(int) head & mask];
+
+			format(record);
+
+			// Release the references and the slot for the next round
+			record.service = null;
+			record.method = null;
+			record.subject = null;
+			record.errorCode = null;
+			sequences.setRelease((int) head & mask, head + records.length);
+			++head;
+
+			write();
+			++count;
+		}
+
+		written.add(count);
+
+		return count;
+	}
+
+	protected void format(Record record)
+	{
+		line.setLength(0);
+
+		line.append("{\"time\":\"").append(Instant.ofEpochMilli(record.timestamp)).append('"');
+		line.append(",\"service\":\"");
+		ErrorPayload.escape(record.service, line);
+		line.append("\",\"method\":\"");
+		ErrorPayload.escape(record.method, line);
+		line.append("\",\"status\":").append(record.status);
+		line.append(",\"latencyMs\":").append(record.latencyNanos / 1000L / 1000.0);
+		line.append(",\"dbCalls\":").append(record.dbCalls);
+		line.append(",\"bytes\":").append(record.bytes);
+
+		if (record.subject != null) {
+			line.append(",\"subject\":\"");
+			ErrorPayload.escape(record.subject, line);
+			line.append('"');
+		}
+
+		if (record.errorCode != null) {
+			line.append(",\"errorCode\":\"");
+			ErrorPayload.escape(record.errorCode, line);
+			line.append('"');
+		}
+
+		line.append("}\n");
+	}
+
+	protected void write() throws IOException
+	{
+		byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+
+		if (fileSize > 0 && fileSize + bytes.length > maxFileSize) {
+			roll();
+		}
+
+		out.write(bytes);
+		fileSize += bytes.length;
+	}
+
+	protected void open() throws IOException
+	{
+		Path parent = file.toAbsolutePath().getParent();
+
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+
+		out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 65536);
+		fileSize = Files.size(file);
+	}
+
+	/**
+	 * Moves file.n to file.n+1, the file to file.1 and reopens the file - the oldest file is dropped.
+	 *
+	 * @throws IOException
+	 */
+	protected void roll() throws IOException
+	{
+		out.close();
+
+		if (maxFiles > 0) {
+
+			for (int i = maxFiles - 1; i >= 1; --i) {
+
+				Path source = getRolledFile(i);
+
+				if (Files.exists(source)) {
+					Files.move(source, getRolledFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+
+			Files.move(file, getRolledFile(1), StandardCopyOption.REPLACE_EXISTING);
+		} else {
+			Files.delete(file);
+		}
+
+		open();
+	}
+
+	protected Path getRolledFile(int index)
+	{
+		return file.resolveSibling(file.getFileName() + "." + index);
+	}
+
+	public Path getFile()
+	{
+		return file;
+	}
+
+	public int getSampleRate()
+	{
+		return sampleRate;
+	}
+
+	public long getWritten()
+	{
+		return written.sum();
+	}
+
+	public long getDropped()
+	{
+		return dropped.sum();
+	}
+
+	public boolean isRunning()
+	{
+		return running;
+	}
+}
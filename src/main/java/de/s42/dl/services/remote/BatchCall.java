@@ -0,0 +1,201 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.base.functional.Either;
+import de.s42.dl.services.ServiceResult;
+import de.s42.dl.srv.ErrorCode;
+import java.util.Optional;
+
+/**
+ * A single call inside a batch request.
+ *
+ * @author Benjamin Schiller
+ */
+public class BatchCall
+{
+
+	protected MethodDescriptor method;
+
+	protected Object[] parameters;
+
+	protected Object result;
+
+	protected Object error;
+
+	/**
+	 * Service and method as requested - kept for the access log of calls which could not be routed
+	 */
+	protected String serviceName = "";
+
+	protected String methodName = "";
+
+	protected long latencyNanos;
+
+	protected int dbCalls;
+
+	public BatchCall()
+	{
+
+	}
+
+	public BatchCall(MethodDescriptor method, Object[] parameters)
+	{
+		assert method != null;
+		assert parameters != null;
+
+		this.method = method;
+		this.parameters = parameters;
+	}
+
+	public BatchCall(Object error)
+	{
+		assert error != null;
+
+		this.error = error;
+	}
+
+	/**
+	 * Unwraps the given method result just like a single call response would - Optional, ServiceResult and Either
+	 * values with ErrorCodes are resolved into result or error.
+	 *
+	 * @param result
+	 */
+	public void resolve(Object result)
+	{
+		// Unpack Optional results
+		if (result instanceof Optional optional) {
+			result = optional.orElse(null);
+		}
+
+		// Support soft errors without exception flow
+		if (result instanceof ServiceResult sResult) {
+
+			if (!sResult.isResult()) {
+				error = sResult.getError();
+				return;
+			}
+
+			result = sResult.getResult();
+		}
+
+		// Support Either values treating ErrorCode values as errors
+		if (result instanceof Either either) {
+
+			Object value = either.firstOrSecond();
+
+			if (value instanceof ErrorCode) {
+				error = value;
+				return;
+			}
+
+			result = value;
+		}
+
+		if (result instanceof StreamResult) {
+			error = new InvalidParameter("Method " + method.getName() + " returns a stream which is not supported in batch calls");
+			return;
+		}
+
+		// Streaming results are read completely as the batch response is written at once
+		if (StreamingResult.isStreaming(result)) {
+			try {
+				result = StreamingResult.of(result).toList();
+			} catch (Exception ex) {
+				error = ex;
+				return;
+			}
+		}
+
+		this.result = result;
+	}
+
+	public boolean isError()
+	{
+		return error != null;
+	}
+
+	public MethodDescriptor getMethod()
+	{
+		return method;
+	}
+
+	public Object[] getParameters()
+	{
+		return parameters;
+	}
+
+	public Object getResult()
+	{
+		return result;
+	}
+
+	public Object getError()
+	{
+		return error;
+	}
+
+	public void setError(Object error)
+	{
+		this.error = error;
+	}
+
+	public String getServiceName()
+	{
+		return (method != null) ? method.getService().getName() : serviceName;
+	}
+
+	public String getMethodName()
+	{
+		return (method != null) ? method.getName() : methodName;
+	}
+
+	public void setRequestedName(String serviceName, String methodName)
+	{
+		this.serviceName = (serviceName != null) ? serviceName : "";
+		this.methodName = (methodName != null) ? methodName : "";
+	}
+
+	public long getLatencyNanos()
+	{
+		return latencyNanos;
+	}
+
+	public void setLatencyNanos(long latencyNanos)
+	{
+		this.latencyNanos = latencyNanos;
+	}
+
+	public int getDbCalls()
+	{
+		return dbCalls;
+	}
+
+	public void setDbCalls(int dbCalls)
+	{
+		this.dbCalls = dbCalls;
+	}
+}
@@ -0,0 +1,83 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Request view of a single call inside a batch - the static parameters are given by the batch entry while headers,
+ * attributes and session are shared with the batch request.
+ *
+ * @author Benjamin Schiller
+ */
+public class BatchCallRequest extends HttpServletRequestWrapper
+{
+
+	protected final Map<String, String> parameters;
+
+	public BatchCallRequest(HttpServletRequest request, Map<String, String> parameters)
+	{
+		super(request);
+
+		assert parameters != null;
+
+		this.parameters = parameters;
+	}
+
+	@Override
+	public String getContentType()
+	{
+		return "application/json";
+	}
+
+	@Override
+	public Object getAttribute(String name)
+	{
+		if ("_jsonParameters".equals(name)) {
+			return parameters;
+		}
+
+		// Parameters of the batch request itself must not leak into the call
+		if ("_pathParameters".equals(name) || name.startsWith("_partParameter_")) {
+			return null;
+		}
+
+		return super.getAttribute(name);
+	}
+
+	@Override
+	public String getParameter(String name)
+	{
+		return parameters.get(name);
+	}
+
+	public Map<String, String> getParameters()
+	{
+		return parameters;
+	}
+}
@@ -0,0 +1,199 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A satisfiable byte range of a Range header with inclusive start and end.
+ *
+ * @author Benjamin Schiller
+ */
+public class ByteRange
+{
+
+	protected final long start;
+	protected final long end;
+
+	public ByteRange(long start, long end)
+	{
+		assert start >= 0;
+		assert end >= start;
+
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Parses a Range header of unit bytes against a content of the given length. Overlapping and adjacent ranges are
+	 * coalesced and the result is ordered by start.
+	 *
+	 * @param header i.e. "bytes=0-499,1000-,-200"
+	 * @param length
+	 *
+	 * @return the satisfiable ranges (empty if none is satisfiable) or null if the header is invalid or the ranges
+	 * request more bytes than the content has and it shall be ignored
+	 */
+	public static List<ByteRange> parse(String header, long length)
+	{
+		assert header != null;
+		assert length >= 0;
+
+		if (!header.startsWith("bytes=")) {
+			return null;
+		}
+
+		List<ByteRange> ranges = new ArrayList<>();
+
+		int headerLength = header.length();
+		int pos = 6;
+
+		while (pos < headerLength) {
+
+			int end = header.indexOf(',', pos);
+
+			if (end == -1) {
+				end = headerLength;
+			}
+
+			String spec = header.substring(pos, end).trim();
+			pos = end + 1;
+
+			if (spec.isEmpty()) {
+				continue;
+			}
+
+			int dash = spec.indexOf('-');
+
+			if (dash == -1) {
+				return null;
+			}
+
+			try {
+				// Suffix range -n -> the last n bytes
+				if (dash == 0) {
+
+					long suffix = Long.parseLong(spec.substring(1));
+
+					if (suffix > 0 && length > 0) {
+						ranges.add(new ByteRange(Math.max(0, length - suffix), length - 1));
+					}
+
+					continue;
+				}
+
+				long rangeStart = Long.parseLong(spec.substring(0, dash));
+				long rangeEnd = (dash == spec.length() - 1) ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+
+				if (rangeStart < 0 || (dash < spec.length() - 1 && rangeEnd < rangeStart)) {
+					return null;
+				}
+
+				if (rangeStart < length) {
+					ranges.add(new ByteRange(rangeStart, Math.min(rangeEnd, length - 1)));
+				}
+			} catch (NumberFormatException ex) {
+				return null;
+			}
+		}
+
+		// Overlapping ranges could request the content many times - answer them with the full content instead
+		long total = 0;
+
+		for (ByteRange range : ranges) {
+
+			total += range.getLength();
+
+			if (total > length) {
+				return null;
+			}
+		}
+
+		return coalesce(ranges);
+	}
+
+	/**
+	 * Merges overlapping and adjacent ranges.
+	 *
+	 * @param ranges
+	 *
+	 * @return the merged ranges ordered by start
+	 */
+	public static List<ByteRange> coalesce(List<ByteRange> ranges)
+	{
+		assert ranges != null;
+
+		if (ranges.size() < 2) {
+			return ranges;
+		}
+
+		List<ByteRange> sorted = new ArrayList<>(ranges);
+		sorted.sort(Comparator.comparingLong(ByteRange::getStart));
+
+		List<ByteRange> result = new ArrayList<>(sorted.size());
+		ByteRange current = sorted.get(0);
+
+		for (int i = 1; i < sorted.size(); ++i) {
+
+			ByteRange next = sorted.get(i);
+
+			if (next.start <= current.end + 1) {
+				if (next.end > current.end) {
+					current = new ByteRange(current.start, next.end);
+				}
+			} else {
+				result.add(current);
+				current = next;
+			}
+		}
+
+		result.add(current);
+
+		return result;
+	}
+
+	public String getContentRange(long contentLength)
+	{
+		return "bytes " + start + "-" + end + "/" + contentLength;
+	}
+
+	public long getStart()
+	{
+		return start;
+	}
+
+	public long getEnd()
+	{
+		return end;
+	}
+
+	public long getLength()
+	{
+		return end - start + 1;
+	}
+}
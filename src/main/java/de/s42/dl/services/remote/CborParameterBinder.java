@@ -0,0 +1,619 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Binds the values of a CBOR map request body to the static parameters of a method in a single pass - the CBOR
+ * counterpart of JsonParameterBinder. Scalar values are bound as their text (UUIDs of tag 37 in their canonical form,
+ * byte strings as base64), nested maps and arrays as JSON. Unknown keys are skipped without being materialized and
+ * the max length of parameters is enforced on the encoded length before reading large strings or decoding other
+ * values.
+ *
+ * @author Benjamin Schiller
+ */
+public class CborParameterBinder
+{
+
+	protected final static int MAX_DEPTH = 64;
+
+	protected final Map<String, ParameterDescriptor> parameters = new HashMap<>();
+
+	protected final int maxKeyLength;
+
+	public CborParameterBinder(ParameterDescriptor... parameters)
+	{
+		assert parameters != null;
+
+		int maxKey = 0;
+		for (ParameterDescriptor parameter : parameters) {
+			if (parameter.isStatic()) {
+				this.parameters.put(parameter.getName(), parameter);
+				maxKey = Math.max(maxKey, parameter.getName().getBytes(StandardCharsets.UTF_8).length);
+			}
+		}
+
+		maxKeyLength = maxKey;
+	}
+
+	/**
+	 * Reads the given CBOR map and returns the values of the declared parameters. Null and undefined values are not
+	 * contained in the result.
+	 *
+	 * @param in
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 * @throws InvalidParameter if the body is not a valid CBOR map
+	 * @throws ParameterTooLong if a declared value exceeds the max length of its parameter
+	 */
+	public Map<String, String> bind(InputStream in) throws IOException, InvalidParameter, ParameterTooLong
+	{
+		assert in != null;
+
+		Decoder decoder = new Decoder(in);
+		Map<String, String> result = new HashMap<>();
+
+		int initial = decoder.in.read();
+
+		// An empty body does not contain any parameters
+		if (initial == -1) {
+			return result;
+		}
+
+		if ((initial >> 5) != CborWriter.MAJOR_MAP) {
+			throw decoder.error("Request body has to be a CBOR map");
+		}
+
+		long size = decoder.readArgument(initial);
+
+		for (long i = 0; size == -1 || i < size; ++i) {
+
+			int keyInitial = decoder.readInitial();
+
+			if (size == -1 && keyInitial == CborWriter.BREAK) {
+				break;
+			}
+
+			if ((keyInitial >> 5) != CborWriter.MAJOR_TEXT) {
+				throw decoder.error("Keys have to be text strings");
+			}
+
+			long keyLength = decoder.readArgument(keyInitial);
+
+			// Keys longer than any declared key are never materialized
+			ParameterDescriptor parameter = null;
+			if (keyLength >= 0 && keyLength <= maxKeyLength) {
+				parameter = parameters.get(new String(decoder.readBytes((int) keyLength), StandardCharsets.UTF_8));
+			} else {
+				decoder.skipString(keyInitial, keyLength);
+			}
+
+			int valueInitial = decoder.readInitial();
+
+			if (parameter != null) {
+				String value = readValue(decoder, valueInitial, parameter);
+				if (value != null) {
+					result.put(parameter.getName(), value);
+				} else {
+					result.remove(parameter.getName());
+				}
+			} else {
+				decoder.skipValue(valueInitial, 0);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 *
+	 * @return a * b or Long.MAX_VALUE if it overflows - for non negative values
+	 */
+	protected static long saturatedMultiply(long a, long b)
+	{
+		assert a >= 0 && b >= 0;
+
+		long high = Math.multiplyHigh(a, b);
+		long result = a * b;
+
+		return (high != 0 || result < 0) ? Long.MAX_VALUE : result;
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 *
+	 * @return a + b or Long.MAX_VALUE if it overflows - for non negative values
+	 */
+	protected static long saturatedAdd(long a, long b)
+	{
+		assert a >= 0 && b >= 0;
+
+		return (a > Long.MAX_VALUE - b) ? Long.MAX_VALUE : a + b;
+	}
+
+	protected String readValue(Decoder decoder, int initial, ParameterDescriptor parameter) throws IOException, InvalidParameter, ParameterTooLong
+	{
+		long maxLength = parameter.getMaxLength();
+
+		// A UTF-8 encoded text has at most 3 bytes per char - fail before reading larger strings
+		if ((initial >> 5) == CborWriter.MAJOR_TEXT && (initial & 0x1f) != CborWriter.INDEFINITE_LENGTH) {
+
+			long length = decoder.readArgument(initial);
+
+			if (length > saturatedMultiply(maxLength, 3)) {
+				throw new ParameterTooLong("Parameter '" + parameter.getName() + "' has a max length of " + maxLength + " but is " + length + " bytes");
+			}
+
+			return checkLength(new String(decoder.readBytes(decoder.toLength(length)), StandardCharsets.UTF_8), parameter);
+		}
+
+		// No data item needs more than 3 bytes per char of its text form plus its header - stop decoding before
+		long maxBytes = saturatedAdd(saturatedMultiply(maxLength, 3), 9);
+		Object value;
+		decoder.limit = saturatedAdd(decoder.offset, maxBytes);
+		try {
+			value = decoder.readValue(initial, 0);
+		} catch (LimitExceeded ex) {
+			throw new ParameterTooLong("Parameter '" + parameter.getName() + "' has a max length of " + maxLength + " but its value has more than " + maxBytes + " bytes");
+		} finally {
+			decoder.limit = Long.MAX_VALUE;
+		}
+
+		if (value == null || value == JSONObject.NULL) {
+			return null;
+		}
+
+		if (value instanceof byte[] bytes) {
+			return checkLength(Base64.getEncoder().encodeToString(bytes), parameter);
+		}
+
+		if (value instanceof BigDecimal decimal) {
+			return checkLength(decimal.toPlainString(), parameter);
+		}
+
+		return checkLength(value.toString(), parameter);
+	}
+
+	protected String checkLength(String value, ParameterDescriptor parameter) throws ParameterTooLong
+	{
+		if (value.length() > parameter.getMaxLength()) {
+			throw new ParameterTooLong("Parameter '" + parameter.getName() + "' has a max length of " + parameter.getMaxLength() + " but is " + value.length());
+		}
+
+		return value;
+	}
+
+	/**
+	 * Thrown by the decoder if a value exceeds its limit.
+	 */
+	protected static class LimitExceeded extends IOException
+	{
+
+		protected LimitExceeded()
+		{
+			super("Limit exceeded");
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace()
+		{
+			return this;
+		}
+	}
+
+	/**
+	 * Reads CBOR data items into the object model of org.json.
+	 */
+	protected static class Decoder
+	{
+
+		protected final InputStream in;
+		protected long offset;
+
+		/**
+		 * Offset the decoder may not read beyond
+		 */
+		protected long limit = Long.MAX_VALUE;
+
+		protected Decoder(InputStream in)
+		{
+			this.in = in;
+			offset = 1;
+		}
+
+		protected InvalidParameter error(String message)
+		{
+			return new InvalidParameter("Invalid CBOR request body at " + offset + " - " + message);
+		}
+
+		protected int readInitial() throws IOException, InvalidParameter
+		{
+			if (offset >= limit) {
+				throw new LimitExceeded();
+			}
+
+			int c = in.read();
+
+			if (c == -1) {
+				throw error("Unexpected end");
+			}
+
+			offset++;
+
+			return c;
+		}
+
+		protected byte[] readBytes(int length) throws IOException, InvalidParameter
+		{
+			if (length > limit - offset) {
+				throw new LimitExceeded();
+			}
+
+			byte[] bytes = in.readNBytes(length);
+
+			if (bytes.length < length) {
+				throw error("Unexpected end");
+			}
+
+			offset += length;
+
+			return bytes;
+		}
+
+		protected void skipBytes(long length) throws IOException, InvalidParameter
+		{
+			if (length > limit - offset) {
+				throw new LimitExceeded();
+			}
+
+			try {
+				in.skipNBytes(length);
+			} catch (EOFException ex) {
+				throw error("Unexpected end");
+			}
+
+			offset += length;
+		}
+
+		/**
+		 * @return the argument of the initial byte - -1 for indefinite length
+		 */
+		protected long readArgument(int initial) throws IOException, InvalidParameter
+		{
+			int info = initial & 0x1f;
+
+			if (info < 24) {
+				return info;
+			}
+
+			if (info == CborWriter.INDEFINITE_LENGTH) {
+				return -1;
+			}
+
+			int bytes;
+			if (info == 24) {
+				bytes = 1;
+			} else if (info == 25) {
+				bytes = 2;
+			} else if (info == 26) {
+				bytes = 4;
+			} else if (info == 27) {
+				bytes = 8;
+			} else {
+				throw error("Reserved additional info " + info);
+			}
+
+			long result = 0;
+			for (int i = 0; i < bytes; ++i) {
+				result = (result << 8) | readInitial();
+			}
+
+			// Lengths and integers beyond the range of long are not supported
+			if (result < 0) {
+				throw error("Argument exceeds supported range");
+			}
+
+			return result;
+		}
+
+		protected int readLength(int initial) throws IOException, InvalidParameter
+		{
+			return toLength(readArgument(initial));
+		}
+
+		/**
+		 * @param length
+		 *
+		 * @return the length as array size
+		 *
+		 * @throws InvalidParameter if the length does not fit into an array
+		 */
+		protected int toLength(long length) throws InvalidParameter
+		{
+			if (length > Integer.MAX_VALUE - 8) {
+				throw error("Length exceeds supported range");
+			}
+
+			return (int) length;
+		}
+
+		protected void skipString(int initial, long length) throws IOException, InvalidParameter
+		{
+			if (length >= 0) {
+				skipBytes(length);
+				return;
+			}
+
+			// Indefinite length strings consist of definite chunks
+			int major = initial >> 5;
+			while (true) {
+
+				int chunk = readInitial();
+
+				if (chunk == CborWriter.BREAK) {
+					return;
+				}
+
+				if ((chunk >> 5) != major || (chunk & 0x1f) == CborWriter.INDEFINITE_LENGTH) {
+					throw error("Invalid string chunk");
+				}
+
+				skipBytes(readArgument(chunk));
+			}
+		}
+
+		protected byte[] readString(int initial) throws IOException, InvalidParameter
+		{
+			int length = readLength(initial);
+
+			if (length >= 0) {
+				return readBytes(length);
+			}
+
+			int major = initial >> 5;
+			ByteArrayOutputStream result = new ByteArrayOutputStream();
+			while (true) {
+
+				int chunk = readInitial();
+
+				if (chunk == CborWriter.BREAK) {
+					return result.toByteArray();
+				}
+
+				if ((chunk >> 5) != major || (chunk & 0x1f) == CborWriter.INDEFINITE_LENGTH) {
+					throw error("Invalid string chunk");
+				}
+
+				result.writeBytes(readBytes(readLength(chunk)));
+			}
+		}
+
+		protected void skipValue(int initial, int depth) throws IOException, InvalidParameter
+		{
+			if (depth > MAX_DEPTH) {
+				throw error("Max nesting depth of " + MAX_DEPTH + " exceeded");
+			}
+
+			int major = initial >> 5;
+
+			if (major == CborWriter.MAJOR_UNSIGNED || major == CborWriter.MAJOR_NEGATIVE) {
+				readArgument(initial);
+			} else if (major == CborWriter.MAJOR_BYTES || major == CborWriter.MAJOR_TEXT) {
+				skipString(initial, readArgument(initial));
+			} else if (major == CborWriter.MAJOR_ARRAY || major == CborWriter.MAJOR_MAP) {
+
+				long size = readArgument(initial);
+				int itemsPerEntry = (major == CborWriter.MAJOR_MAP) ? 2 : 1;
+
+				for (long i = 0; size == -1 || i < size; ++i) {
+
+					int next = readInitial();
+
+					if (size == -1 && next == CborWriter.BREAK) {
+						return;
+					}
+
+					skipValue(next, depth + 1);
+
+					if (itemsPerEntry == 2) {
+						skipValue(readInitial(), depth + 1);
+					}
+				}
+			} else if (major == CborWriter.MAJOR_TAG) {
+				readArgument(initial);
+				skipValue(readInitial(), depth + 1);
+			} else {
+				readSimple(initial);
+			}
+		}
+
+		protected Object readValue(int initial, int depth) throws IOException, InvalidParameter
+		{
+			if (depth > MAX_DEPTH) {
+				throw error("Max nesting depth of " + MAX_DEPTH + " exceeded");
+			}
+
+			int major = initial >> 5;
+
+			if (major == CborWriter.MAJOR_UNSIGNED) {
+				return readArgument(initial);
+			} else if (major == CborWriter.MAJOR_NEGATIVE) {
+				return -1 - readArgument(initial);
+			} else if (major == CborWriter.MAJOR_BYTES) {
+				return readString(initial);
+			} else if (major == CborWriter.MAJOR_TEXT) {
+				return new String(readString(initial), StandardCharsets.UTF_8);
+			} else if (major == CborWriter.MAJOR_ARRAY) {
+
+				long size = readArgument(initial);
+				JSONArray result = new JSONArray();
+
+				for (long i = 0; size == -1 || i < size; ++i) {
+
+					int next = readInitial();
+
+					if (size == -1 && next == CborWriter.BREAK) {
+						break;
+					}
+
+					result.put(readValue(next, depth + 1));
+				}
+
+				return result;
+			} else if (major == CborWriter.MAJOR_MAP) {
+
+				long size = readArgument(initial);
+				JSONObject result = new JSONObject();
+
+				for (long i = 0; size == -1 || i < size; ++i) {
+
+					int next = readInitial();
+
+					if (size == -1 && next == CborWriter.BREAK) {
+						break;
+					}
+
+					Object key = readValue(next, depth + 1);
+					Object value = readValue(readInitial(), depth + 1);
+
+					result.put(String.valueOf(key), toJSONValue(value));
+				}
+
+				return result;
+			} else if (major == CborWriter.MAJOR_TAG) {
+				return readTagged(readArgument(initial), depth);
+			}
+
+			return readSimple(initial);
+		}
+
+		/**
+		 * Values which have no JSON representation are converted into their text form
+		 */
+		protected Object toJSONValue(Object value)
+		{
+			if (value == null) {
+				return JSONObject.NULL;
+			}
+
+			if (value instanceof byte[] bytes) {
+				return Base64.getEncoder().encodeToString(bytes);
+			}
+
+			if (value instanceof UUID) {
+				return value.toString();
+			}
+
+			return value;
+		}
+
+		protected Object readTagged(long tag, int depth) throws IOException, InvalidParameter
+		{
+			Object value = readValue(readInitial(), depth + 1);
+
+			if (tag == CborWriter.TAG_UUID && value instanceof byte[] bytes && bytes.length == 16) {
+				long most = 0;
+				long least = 0;
+				for (int i = 0; i < 8; ++i) {
+					most = (most << 8) | (bytes[i] & 0xff);
+					least = (least << 8) | (bytes[i + 8] & 0xff);
+				}
+				return new UUID(most, least);
+			}
+
+			if (tag == CborWriter.TAG_POSITIVE_BIGNUM && value instanceof byte[] bytes) {
+				return new BigInteger(1, bytes);
+			}
+
+			if (tag == CborWriter.TAG_NEGATIVE_BIGNUM && value instanceof byte[] bytes) {
+				return new BigInteger(1, bytes).not();
+			}
+
+			if (tag == CborWriter.TAG_DECIMAL_FRACTION && value instanceof JSONArray array && array.length() == 2) {
+
+				Object exponent = array.get(0);
+				Object mantissa = array.get(1);
+
+				if (exponent instanceof Long exp && (mantissa instanceof Long || mantissa instanceof BigInteger)) {
+					BigInteger unscaled = (mantissa instanceof Long m) ? BigInteger.valueOf(m) : (BigInteger) mantissa;
+					return new BigDecimal(unscaled, Math.toIntExact(-exp));
+				}
+			}
+
+			// Unknown tags just carry their value
+			return value;
+		}
+
+		protected Object readSimple(int initial) throws IOException, InvalidParameter
+		{
+			if (initial == CborWriter.SIMPLE_FALSE) {
+				return Boolean.FALSE;
+			} else if (initial == CborWriter.SIMPLE_TRUE) {
+				return Boolean.TRUE;
+			} else if (initial == CborWriter.SIMPLE_NULL || initial == CborWriter.SIMPLE_UNDEFINED) {
+				return null;
+			} else if (initial == CborWriter.FLOAT_16) {
+				int bits = (readInitial() << 8) | readInitial();
+				return Float.float16ToFloat((short) bits);
+			} else if (initial == CborWriter.FLOAT_32) {
+				// Keep floats to bind their shortest text
+				return Float.intBitsToFloat((int) readFixed(4));
+			} else if (initial == CborWriter.FLOAT_64) {
+				return Double.longBitsToDouble(readFixed(8));
+			}
+
+			throw error("Unsupported simple value " + (initial & 0x1f));
+		}
+
+		protected long readFixed(int bytes) throws IOException, InvalidParameter
+		{
+			long result = 0;
+			for (int i = 0; i < bytes; ++i) {
+				result = (result << 8) | readInitial();
+			}
+
+			return result;
+		}
+	}
+}
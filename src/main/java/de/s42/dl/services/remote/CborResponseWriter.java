@@ -0,0 +1,202 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.dl.DLCore;
+import de.s42.dl.DLInstance;
+import de.s42.dl.exceptions.DLException;
+import de.s42.dl.io.json.JsonWriter;
+import de.s42.dl.services.database.query.DefaultQueryResult;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Serializes service results as CBOR using the same object model as JsonResponseWriter. UUIDs are written as tag 37
+ * with their 16 bytes, numbers in their binary form. Collections and the result list of a DefaultQueryResult are
+ * written element by element.
+ *
+ * @author Benjamin Schiller
+ */
+public class CborResponseWriter implements ResponseWriter
+{
+
+	public final static String CONTENT_TYPE = "application/cbor";
+
+	protected final DLCore core;
+	protected final boolean fullTypeNames;
+
+	public CborResponseWriter(DLCore core, boolean fullTypeNames)
+	{
+		assert core != null;
+
+		this.core = core;
+		this.fullTypeNames = fullTypeNames;
+	}
+
+	@Override
+	public String getContentType()
+	{
+		return CONTENT_TYPE;
+	}
+
+	@Override
+	public long write(Object result, OutputStream out) throws IOException, DLException
+	{
+		assert out != null;
+
+		try (CborWriter writer = new CborWriter(out)) {
+			writeValue(result, writer);
+			writer.flush();
+			return writer.getBytesWritten();
+		}
+	}
+
+	public void writeValue(Object value, CborWriter writer) throws IOException, DLException
+	{
+		assert writer != null;
+
+		if (value == null || value == JSONObject.NULL) {
+			writer.writeNull();
+		} else if (value instanceof JSONObject json) {
+			writeObject(json, writer);
+		} else if (value instanceof JSONArray json) {
+			writer.writeArrayStart(json.length());
+			for (Object entry : json) {
+				writeValue(entry, writer);
+			}
+		} else if (value instanceof String str) {
+			writer.writeString(str);
+		} else if (value instanceof Number number) {
+			writeNumber(number, writer);
+		} else if (value instanceof Boolean bool) {
+			writer.writeBoolean(bool);
+		} else if (value instanceof UUID uuid) {
+			writer.writeUUID(uuid);
+		} else if (value instanceof Enum) {
+			writer.writeString(value.toString());
+		} else if (value instanceof byte[] bytes) {
+			writer.writeBytes(bytes);
+		} else if (value instanceof DLInstance instance) {
+			writeObject(JsonWriter.toJSON(core, instance, fullTypeNames), writer);
+		} else if (value instanceof Collection collection) {
+			writer.writeArrayStart(collection.size());
+			for (Object entry : collection) {
+				writeValue(entry, writer);
+			}
+		} else if (value instanceof Iterable iterable) {
+			writer.writeIndefiniteArrayStart();
+			for (Object entry : iterable) {
+				writeValue(entry, writer);
+			}
+			writer.writeBreak();
+		} else if (value instanceof Object[] array) {
+			writeValue(Arrays.asList(array), writer);
+		} else if (value.getClass().equals(DefaultQueryResult.class)) {
+			writeQueryResult((DefaultQueryResult<?>) value, writer);
+		} else {
+			writeObject(JsonWriter.toJSON(core, core.convertFromJavaObject(value), fullTypeNames), writer);
+		}
+	}
+
+	protected void writeObject(JSONObject json, CborWriter writer) throws IOException, DLException
+	{
+		writer.writeMapStart(json.length());
+
+		for (String key : json.keySet()) {
+			writer.writeString(key);
+			writeValue(json.opt(key), writer);
+		}
+	}
+
+	protected void writeNumber(Number number, CborWriter writer) throws IOException
+	{
+		if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+			writer.writeLong(number.longValue());
+		} else if (number instanceof Double) {
+			writer.writeDouble(number.doubleValue());
+		} else if (number instanceof Float) {
+			writer.writeFloat(number.floatValue());
+		} else if (number instanceof BigInteger bigInteger) {
+			writer.writeBigInteger(bigInteger);
+		} else if (number instanceof BigDecimal bigDecimal) {
+			// Decimal fraction [exponent, mantissa] keeps the exact value
+			writer.writeTag(CborWriter.TAG_DECIMAL_FRACTION);
+			writer.writeArrayStart(2);
+			writer.writeLong(-bigDecimal.scale());
+			writer.writeBigInteger(bigDecimal.unscaledValue());
+		} else {
+			writer.writeDouble(number.doubleValue());
+		}
+	}
+
+	/**
+	 * Converts the query result without its entries to keep the DL representation of the result and streams the
+	 * entries into its result attribute.
+	 *
+	 * @param queryResult
+	 * @param writer
+	 *
+	 * @throws IOException
+	 * @throws DLException
+	 */
+	protected void writeQueryResult(DefaultQueryResult<?> queryResult, CborWriter writer) throws IOException, DLException
+	{
+		DefaultQueryResult<Object> shell = new DefaultQueryResult<>();
+		shell.setTotalCount(queryResult.getTotalCount());
+		shell.setLimit(queryResult.getLimit());
+		shell.setOffset(queryResult.getOffset());
+		shell.setResult(Collections.emptyList());
+
+		JSONObject json = JsonWriter.toJSON(core, core.convertFromJavaObject(shell), fullTypeNames);
+
+		// Unknown representation -> convert the whole result
+		if (!json.has("result") || queryResult.getResult() == null) {
+			writeObject(JsonWriter.toJSON(core, core.convertFromJavaObject(queryResult), fullTypeNames), writer);
+			return;
+		}
+
+		writer.writeMapStart(json.length());
+
+		for (String key : json.keySet()) {
+
+			writer.writeString(key);
+
+			if ("result".equals(key)) {
+				writeValue(queryResult.getResult(), writer);
+			} else {
+				writeValue(json.get(key), writer);
+			}
+		}
+	}
+}
@@ -0,0 +1,381 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.UUID;
+
+/**
+ * Buffered CBOR (RFC 8949) encoder writing data items directly into an output stream. Floating point values use the
+ * shortest lossless representation of float and double. Strings are encoded as UTF-8 without intermediate byte
+ * arrays. Closing the writer returns its buffer to the pool of Utf8Writer.
+ *
+ * @author Benjamin Schiller
+ */
+public class CborWriter implements AutoCloseable
+{
+
+	public final static int MAJOR_UNSIGNED = 0;
+	public final static int MAJOR_NEGATIVE = 1;
+	public final static int MAJOR_BYTES = 2;
+	public final static int MAJOR_TEXT = 3;
+	public final static int MAJOR_ARRAY = 4;
+	public final static int MAJOR_MAP = 5;
+	public final static int MAJOR_TAG = 6;
+	public final static int MAJOR_SIMPLE = 7;
+
+	public final static int TAG_POSITIVE_BIGNUM = 2;
+	public final static int TAG_NEGATIVE_BIGNUM = 3;
+	public final static int TAG_DECIMAL_FRACTION = 4;
+	public final static int TAG_UUID = 37;
+
+	public final static int SIMPLE_FALSE = 0xf4;
+	public final static int SIMPLE_TRUE = 0xf5;
+	public final static int SIMPLE_NULL = 0xf6;
+	public final static int SIMPLE_UNDEFINED = 0xf7;
+	public final static int FLOAT_16 = 0xf9;
+	public final static int FLOAT_32 = 0xfa;
+	public final static int FLOAT_64 = 0xfb;
+	public final static int BREAK = 0xff;
+
+	public final static int INDEFINITE_LENGTH = 31;
+
+	protected final OutputStream out;
+	protected byte[] buffer;
+	protected int position;
+	protected long bytesWritten;
+
+	public CborWriter(OutputStream out)
+	{
+		assert out != null;
+
+		this.out = out;
+		buffer = Utf8Writer.acquireBuffer();
+	}
+
+	protected void ensureOpen() throws IOException
+	{
+		if (buffer == null) {
+			throw new IOException("Writer is closed");
+		}
+	}
+
+	protected void ensureCapacity(int bytes) throws IOException
+	{
+		ensureOpen();
+
+		if (position + bytes > buffer.length) {
+			flushBuffer();
+		}
+	}
+
+	protected void flushBuffer() throws IOException
+	{
+		if (position > 0) {
+			out.write(buffer, 0, position);
+			bytesWritten += position;
+			position = 0;
+		}
+	}
+
+	/**
+	 * Writes the initial byte of a data item and its argument in the shortest form.
+	 *
+	 * @param major
+	 * @param argument unsigned
+	 *
+	 * @throws IOException
+	 */
+	public void writeHead(int major, long argument) throws IOException
+	{
+		ensureCapacity(9);
+
+		int type = major << 5;
+
+		if (argument >= 0 && argument < 24) {
+			buffer[position++] = (byte) (type | (int) argument);
+		} else if (argument >= 0 && argument <= 0xffL) {
+			buffer[position++] = (byte) (type | 24);
+			buffer[position++] = (byte) argument;
+		} else if (argument >= 0 && argument <= 0xffffL) {
+			buffer[position++] = (byte) (type | 25);
+			buffer[position++] = (byte) (argument >> 8);
+			buffer[position++] = (byte) argument;
+		} else if (argument >= 0 && argument <= 0xffffffffL) {
+			buffer[position++] = (byte) (type | 26);
+			writeInt((int) argument);
+		} else {
+			buffer[position++] = (byte) (type | 27);
+			writeLongBits(argument);
+		}
+	}
+
+	protected void writeInt(int value)
+	{
+		buffer[position++] = (byte) (value >> 24);
+		buffer[position++] = (byte) (value >> 16);
+		buffer[position++] = (byte) (value >> 8);
+		buffer[position++] = (byte) value;
+	}
+
+	protected void writeLongBits(long value)
+	{
+		writeInt((int) (value >> 32));
+		writeInt((int) value);
+	}
+
+	public void writeNull() throws IOException
+	{
+		ensureCapacity(1);
+		buffer[position++] = (byte) SIMPLE_NULL;
+	}
+
+	public void writeBoolean(boolean value) throws IOException
+	{
+		ensureCapacity(1);
+		buffer[position++] = (byte) (value ? SIMPLE_TRUE : SIMPLE_FALSE);
+	}
+
+	public void writeLong(long value) throws IOException
+	{
+		if (value >= 0) {
+			writeHead(MAJOR_UNSIGNED, value);
+		} else {
+			// -1 - n encodes n as -1 - value which is ~value
+			writeHead(MAJOR_NEGATIVE, ~value);
+		}
+	}
+
+	public void writeBigInteger(BigInteger value) throws IOException
+	{
+		assert value != null;
+
+		if (value.bitLength() < 64) {
+			writeLong(value.longValue());
+			return;
+		}
+
+		if (value.signum() >= 0) {
+			writeHead(MAJOR_TAG, TAG_POSITIVE_BIGNUM);
+			writeBytes(toUnsignedBytes(value));
+		} else {
+			writeHead(MAJOR_TAG, TAG_NEGATIVE_BIGNUM);
+			writeBytes(toUnsignedBytes(value.not()));
+		}
+	}
+
+	protected static byte[] toUnsignedBytes(BigInteger value)
+	{
+		byte[] bytes = value.toByteArray();
+
+		// Drop the sign byte
+		if (bytes.length > 1 && bytes[0] == 0) {
+			byte[] result = new byte[bytes.length - 1];
+			System.arraycopy(bytes, 1, result, 0, result.length);
+			return result;
+		}
+
+		return bytes;
+	}
+
+	public void writeFloat(float value) throws IOException
+	{
+		ensureCapacity(5);
+		buffer[position++] = (byte) FLOAT_32;
+		writeInt(Float.floatToIntBits(value));
+	}
+
+	/**
+	 * Writes the double as float if this is lossless.
+	 *
+	 * @param value
+	 *
+	 * @throws IOException
+	 */
+	public void writeDouble(double value) throws IOException
+	{
+		if ((double) (float) value == value || Double.isNaN(value)) {
+			writeFloat((float) value);
+			return;
+		}
+
+		ensureCapacity(9);
+		buffer[position++] = (byte) FLOAT_64;
+		writeLongBits(Double.doubleToLongBits(value));
+	}
+
+	public void writeString(String value) throws IOException
+	{
+		assert value != null;
+
+		int length = value.length();
+
+		// Compute the UTF-8 length first as it prefixes the string
+		long utf8Length = length;
+		for (int i = 0; i < length; ++i) {
+
+			char c = value.charAt(i);
+
+			if (c >= 0x80) {
+				if (c < 0x800) {
+					utf8Length += 1;
+				} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+					utf8Length += 2;
+					++i;
+				} // Unpaired surrogates are replaced with '?'
+				else if (!Character.isSurrogate(c)) {
+					utf8Length += 2;
+				}
+			}
+		}
+
+		writeHead(MAJOR_TEXT, utf8Length);
+
+		for (int i = 0; i < length; ++i) {
+
+			char c = value.charAt(i);
+
+			if (c < 0x80) {
+				ensureCapacity(1);
+				buffer[position++] = (byte) c;
+			} else if (c < 0x800) {
+				ensureCapacity(2);
+				buffer[position++] = (byte) (0xc0 | (c >> 6));
+				buffer[position++] = (byte) (0x80 | (c & 0x3f));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				ensureCapacity(4);
+				buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+				buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+				buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+				buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+			} else if (Character.isSurrogate(c)) {
+				ensureCapacity(1);
+				buffer[position++] = '?';
+			} else {
+				ensureCapacity(3);
+				buffer[position++] = (byte) (0xe0 | (c >> 12));
+				buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+				buffer[position++] = (byte) (0x80 | (c & 0x3f));
+			}
+		}
+	}
+
+	public void writeBytes(byte[] value) throws IOException
+	{
+		assert value != null;
+
+		writeHead(MAJOR_BYTES, value.length);
+
+		if (value.length > buffer.length - position) {
+			flushBuffer();
+			out.write(value);
+			bytesWritten += value.length;
+		} else {
+			System.arraycopy(value, 0, buffer, position, value.length);
+			position += value.length;
+		}
+	}
+
+	/**
+	 * Writes the UUID as tag 37 with its 16 bytes.
+	 *
+	 * @param value
+	 *
+	 * @throws IOException
+	 */
+	public void writeUUID(UUID value) throws IOException
+	{
+		assert value != null;
+
+		writeHead(MAJOR_TAG, TAG_UUID);
+		ensureCapacity(17);
+		buffer[position++] = (byte) ((MAJOR_BYTES << 5) | 16);
+		writeLongBits(value.getMostSignificantBits());
+		writeLongBits(value.getLeastSignificantBits());
+	}
+
+	public void writeTag(long tag) throws IOException
+	{
+		writeHead(MAJOR_TAG, tag);
+	}
+
+	public void writeArrayStart(int size) throws IOException
+	{
+		writeHead(MAJOR_ARRAY, size);
+	}
+
+	public void writeMapStart(int size) throws IOException
+	{
+		writeHead(MAJOR_MAP, size);
+	}
+
+	/**
+	 * Starts an array of unknown size which has to be closed with writeBreak.
+	 *
+	 * @throws IOException
+	 */
+	public void writeIndefiniteArrayStart() throws IOException
+	{
+		ensureCapacity(1);
+		buffer[position++] = (byte) ((MAJOR_ARRAY << 5) | INDEFINITE_LENGTH);
+	}
+
+	public void writeBreak() throws IOException
+	{
+		ensureCapacity(1);
+		buffer[position++] = (byte) BREAK;
+	}
+
+	public void flush() throws IOException
+	{
+		ensureOpen();
+		flushBuffer();
+		out.flush();
+	}
+
+	/**
+	 * Releases the buffer. Bytes not flushed are dropped and the underlying stream is not closed - see
+	 * Utf8Writer.close.
+	 */
+	@Override
+	public void close()
+	{
+		if (buffer == null) {
+			return;
+		}
+
+		Utf8Writer.releaseBuffer(buffer);
+		buffer = null;
+	}
+
+	public long getBytesWritten()
+	{
+		return bytesWritten + position;
+	}
+}
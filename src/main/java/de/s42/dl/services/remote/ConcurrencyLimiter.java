@@ -0,0 +1,287 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit (AIMD). The limit grows additively while calls are as fast as the observed baseline
+ * latency and shrinks multiplicatively once they get slower than the tolerated deviation. The baseline is the minimum
+ * latency of a sliding window, so sustained queueing can not drag it up. Methods sharing a limiter keep their own
+ * baseline. Calls above the limit wait in a short queue and get rejected fast if the queue is full or the wait times
+ * out.
+ *
+ * @author Benjamin Schiller
+ */
+public class ConcurrencyLimiter
+{
+
+	protected final static double BACKOFF_RATIO = 0.9;
+	protected final static double LATENCY_TOLERANCE = 2.0;
+	protected final static long BASELINE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+	/**
+	 * Minimum latency of the current and the previous window - covers the last 10 to 20 seconds.
+	 */
+	public static class LatencyBaseline
+	{
+
+		protected long windowStart;
+		protected long currentMin = Long.MAX_VALUE;
+		protected long previousMin = Long.MAX_VALUE;
+
+		/**
+		 * Adds a sample - has to be called under the update lock of the limiter.
+		 *
+		 * @param latencyNanos
+		 * @param now
+		 *
+		 * @return the baseline before the sample or Long.MAX_VALUE if there was no sample in the window yet
+		 */
+		protected long update(long latencyNanos, long now)
+		{
+			long elapsed = now - windowStart;
+
+			if (elapsed >= BASELINE_WINDOW_NANOS) {
+				previousMin = (elapsed < 2 * BASELINE_WINDOW_NANOS) ? currentMin : Long.MAX_VALUE;
+				currentMin = Long.MAX_VALUE;
+				windowStart = now;
+			}
+
+			long baseline = Math.min(currentMin, previousMin);
+
+			if (latencyNanos < currentMin) {
+				currentMin = latencyNanos;
+			}
+
+			return baseline;
+		}
+
+		public long getBaselineNanos()
+		{
+			return Math.min(currentMin, previousMin);
+		}
+	}
+
+	protected final int minLimit;
+
+	protected final int maxLimit;
+
+	protected final int maxQueue;
+
+	protected final long queueTimeoutNanos;
+
+	protected final AtomicInteger inFlight = new AtomicInteger();
+
+	protected final AtomicInteger queued = new AtomicInteger();
+
+	protected final LongAdder rejections = new LongAdder();
+
+	protected final ReentrantLock queueLock = new ReentrantLock();
+
+	protected final Condition released = queueLock.newCondition();
+
+	protected final ReentrantLock updateLock = new ReentrantLock();
+
+	protected volatile double limit;
+
+	protected final LatencyBaseline baseline = new LatencyBaseline();
+
+	/**
+	 * @param initialLimit
+	 * @param minLimit
+	 * @param maxLimit
+	 * @param maxQueue max calls waiting for a slot
+	 * @param queueTimeoutMs max wait for a slot
+	 */
+	public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue, int queueTimeoutMs)
+	{
+		assert minLimit > 0;
+		assert maxLimit >= minLimit;
+		assert initialLimit >= minLimit && initialLimit <= maxLimit;
+		assert maxQueue >= 0;
+		assert queueTimeoutMs >= 0;
+
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.maxQueue = maxQueue;
+		this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+	}
+
+	public boolean tryAcquire()
+	{
+		while (true) {
+
+			int current = inFlight.get();
+
+			if (current >= (int) limit) {
+				return false;
+			}
+
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Takes a slot - waits in the queue if the limit is reached.
+	 *
+	 * @return false if the call got rejected
+	 *
+	 * @throws InterruptedException
+	 */
+	public boolean acquire() throws InterruptedException
+	{
+		if (tryAcquire()) {
+			return true;
+		}
+
+		if (queued.incrementAndGet() > maxQueue) {
+			queued.decrementAndGet();
+			rejections.increment();
+			return false;
+		}
+
+		try {
+			long remaining = queueTimeoutNanos;
+
+			queueLock.lock();
+			try {
+				while (!tryAcquire()) {
+
+					if (remaining <= 0) {
+						rejections.increment();
+						return false;
+					}
+
+					remaining = released.awaitNanos(remaining);
+				}
+
+				return true;
+			} finally {
+				queueLock.unlock();
+			}
+		} finally {
+			queued.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Releases a slot and adapts the limit from the latency of the call.
+	 *
+	 * @param latencyNanos
+	 */
+	public void release(long latencyNanos)
+	{
+		release(latencyNanos, baseline);
+	}
+
+	/**
+	 * Releases a slot and adapts the limit from the latency of the call compared to the given baseline - allows
+	 * methods with different latencies to share a limiter.
+	 *
+	 * @param latencyNanos
+	 * @param latencyBaseline baseline of the calling method - just used with this limiter
+	 */
+	public void release(long latencyNanos, LatencyBaseline latencyBaseline)
+	{
+		assert latencyBaseline != null;
+
+		int before = inFlight.getAndDecrement();
+
+		// Samples are skipped under contention instead of serializing all releases
+		if (updateLock.tryLock()) {
+			try {
+				adapt(latencyNanos, before, latencyBaseline);
+			} finally {
+				updateLock.unlock();
+			}
+		}
+
+		if (queued.get() > 0) {
+			queueLock.lock();
+			try {
+				released.signal();
+			} finally {
+				queueLock.unlock();
+			}
+		}
+	}
+
+	protected void adapt(long latencyNanos, int concurrency, LatencyBaseline latencyBaseline)
+	{
+		long baselineNanos = latencyBaseline.update(latencyNanos, System.nanoTime());
+
+		if (baselineNanos == Long.MAX_VALUE) {
+			return;
+		}
+
+		double current = limit;
+
+		if (latencyNanos > baselineNanos * LATENCY_TOLERANCE) {
+			limit = Math.max(minLimit, current * BACKOFF_RATIO);
+		} // Just grow if the limit is actually used
+		else if (concurrency * 2 >= current) {
+			limit = Math.min(maxLimit, current + 1.0 / current);
+		}
+	}
+
+	public int getLimit()
+	{
+		return (int) limit;
+	}
+
+	public int getInFlight()
+	{
+		return inFlight.get();
+	}
+
+	public int getQueued()
+	{
+		return queued.get();
+	}
+
+	public long getRejections()
+	{
+		return rejections.sum();
+	}
+
+	public int getMinLimit()
+	{
+		return minLimit;
+	}
+
+	public int getMaxLimit()
+	{
+		return maxLimit;
+	}
+}
@@ -0,0 +1,138 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.IOException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Counts the bytes of a response body written through the output stream or declared as content length (i.e. for
+ * container sendfile).
+ *
+ * @author Benjamin Schiller
+ */
+public class CountingResponse extends HttpServletResponseWrapper
+{
+
+	protected class CountingOutputStream extends ServletOutputStream
+	{
+
+		protected final ServletOutputStream out;
+
+		protected CountingOutputStream(ServletOutputStream out)
+		{
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			out.write(b);
+			bytesWritten++;
+		}
+
+		@Override
+		public void write(byte[] data, int offset, int length) throws IOException
+		{
+			out.write(data, offset, length);
+			bytesWritten += length;
+		}
+
+		@Override
+		public void flush() throws IOException
+		{
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			out.close();
+		}
+
+		@Override
+		public boolean isReady()
+		{
+			return out.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener)
+		{
+			out.setWriteListener(writeListener);
+		}
+	}
+
+	protected CountingOutputStream outputStream;
+
+	protected long bytesWritten;
+
+	protected long contentLength = -1;
+
+	public CountingResponse(HttpServletResponse response)
+	{
+		super(response);
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException
+	{
+		if (outputStream == null) {
+			outputStream = new CountingOutputStream(super.getOutputStream());
+		}
+
+		return outputStream;
+	}
+
+	@Override
+	public void setContentLength(int length)
+	{
+		super.setContentLength(length);
+		contentLength = length;
+	}
+
+	@Override
+	public void setContentLengthLong(long length)
+	{
+		super.setContentLengthLong(length);
+		contentLength = length;
+	}
+
+	/**
+	 * @return the bytes written or the declared content length if the body was not written by the application
+	 */
+	public long getBytesWritten()
+	{
+		if (bytesWritten == 0 && contentLength > 0 && getStatus() != HttpServletResponse.SC_NOT_MODIFIED) {
+			return contentLength;
+		}
+
+		return bytesWritten;
+	}
+}
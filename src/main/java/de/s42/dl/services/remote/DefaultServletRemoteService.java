@@ -26,10 +26,7 @@
 package de.s42.dl.services.remote;
 
 import de.s42.base.collections.MappedList;
-import de.s42.base.conversion.ConversionHelper;
-import de.s42.base.files.FilesHelper;
 import de.s42.base.functional.Either;
-import de.s42.base.validation.ValidationHelper;
 import de.s42.dl.DLAttribute.AttributeDL;
 import de.s42.dl.DLCore;
 import de.s42.dl.DLInstance;
@@ -39,54 +36,86 @@ import de.s42.dl.io.json.JsonWriter;
 import de.s42.dl.services.AbstractService;
 import de.s42.dl.services.DLMethod;
 import de.s42.dl.services.DLParameter;
-import static de.s42.dl.services.DLParameter.Validation.*;
 import de.s42.dl.services.DLService;
+import de.s42.dl.services.Deadline;
+import de.s42.dl.services.RateLimitKey;
 import de.s42.dl.services.Service;
 import de.s42.dl.services.ServiceResult;
 import de.s42.dl.services.database.DatabaseService;
+import de.s42.dl.services.database.StatementCounter;
 import de.s42.dl.services.l10n.LocalizationService;
 import de.s42.dl.services.permission.PermissionService;
+import de.s42.dl.services.permission.PermissionSet;
+import de.s42.dl.services.token.AbstractTokenService;
+import de.s42.dl.services.token.Token;
+import de.s42.dl.services.token.TokenService;
 import de.s42.dl.srv.DLServletException;
 import de.s42.dl.srv.ErrorCode;
 import de.s42.dl.types.DLContainer;
 import de.s42.log.LogManager;
 import de.s42.log.Logger;
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
-import java.lang.reflect.InvocationTargetException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.Part;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 /**
  *
  * @author Benjamin Schiller
  */
-// @todo optimize service method caching (lookup and permissions)
 public class DefaultServletRemoteService extends AbstractService implements ServletRemoteService, DLContainer<DynamicServletParameter>
 {
 
 	@SuppressWarnings("FieldNameHidesFieldInSuperclass")
 	private final static Logger log = LogManager.getLogger(DefaultServletRemoteService.class.getName());
 
+	public final static String ERROR_CODE_ATTRIBUTE = "_errorCode";
+
+	public final static String SSE_CONTENT_TYPE = "text/event-stream";
+
+	public final static String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+	public final static String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+	public final static String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+	public final static String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+	public final static String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
 	@AttributeDL(required = false, defaultValue = "true")
 	protected boolean validatePermissions = true;
 
@@ -116,6 +145,237 @@ public class DefaultServletRemoteService extends AbstractService implements Serv
 
 	protected ServiceDescriptor[] serviceDescriptorsArray;
 
+	protected ServiceRouter router;
+
+	protected JsonResponseWriter jsonResponseWriter;
+
+	protected CborResponseWriter cborResponseWriter;
+
+	/**
+	 * Sends results as CBOR to clients accepting application/cbor and binds CBOR request bodies
+	 */
+	@AttributeDL(required = false, defaultValue = "true")
+	protected boolean cbor = true;
+
+	/**
+	 * Invokes service methods using the invokers generated at build time if available - the descriptors are built by
+	 * reflection anyway
+	 */
+	@AttributeDL(required = false, defaultValue = "true")
+	protected boolean generatedDispatchers = true;
+
+	/**
+	 * Path of the batch endpoint below the servlet (/&lt;batchPath&gt;) - empty disables batching
+	 */
+	@AttributeDL(required = false, defaultValue = "_batch")
+	protected String batchPath = "_batch";
+
+	@AttributeDL(required = false, defaultValue = "50")
+	protected int maxBatchSize = 50;
+
+	/**
+	 * Max calls of a batch requested as parallel executed at the same time - needs a pooled DatabaseService
+	 */
+	@AttributeDL(required = false, defaultValue = "8")
+	protected int batchParallelism = 8;
+
+	protected ExecutorService batchExecutor;
+
+	/**
+	 * Max count of cached responses of methods with a ttl - 0 disables the server side response cache. Cached responses
+	 * are shared between all callers, so only enable it if the ttl methods do not depend on the user
+	 */
+	@AttributeDL(required = false, defaultValue = "0")
+	protected int responseCacheMaxEntries = 0;
+
+	@AttributeDL(required = false, defaultValue = "67108864")
+	protected int responseCacheMaxBytes = 67108864;
+
+	@AttributeDL(required = false, defaultValue = "1048576")
+	protected int responseCacheMaxEntrySize = 1048576;
+
+	protected ResponseCache responseCache;
+
+	/**
+	 * JSON responses up to this size get buffered to send an ETag and Content-Length - 0 disables ETags for JSON
+	 */
+	@AttributeDL(required = false, defaultValue = "1048576")
+	protected int etagMaxBufferSize = 1048576;
+
+	/**
+	 * Compresses JSON and text responses if the client accepts gzip (or deflate)
+	 */
+	@AttributeDL(required = false, defaultValue = "true")
+	protected boolean compression = true;
+
+	@AttributeDL(required = false, defaultValue = "false")
+	protected boolean compressionDeflate = false;
+
+	@AttributeDL(required = false, defaultValue = "6")
+	protected int compressionLevel = 6;
+
+	/**
+	 * Responses smaller than this are not compressed
+	 */
+	@AttributeDL(required = false, defaultValue = "1024")
+	protected int compressionMinSize = 1024;
+
+	/**
+	 * Max bytes of kept compressed bodies of cacheable content (cached responses, StreamResults with ETag)
+	 */
+	@AttributeDL(required = false, defaultValue = "16777216")
+	protected int compressionCacheMaxBytes = 16777216;
+
+	@AttributeDL(required = false, defaultValue = "1048576")
+	protected int compressionCacheMaxEntrySize = 1048576;
+
+	protected ResponseCompressor compressor;
+
+	/**
+	 * Default max calls per minute of each method without own limit - 0 disables the default limit
+	 */
+	@AttributeDL(required = false, defaultValue = "0")
+	protected int rateLimit = 0;
+
+	@AttributeDL(required = false, defaultValue = "0")
+	protected int rateLimitBurst = 0;
+
+	/**
+	 * Key of the default limit - TOKEN, IP or GLOBAL
+	 */
+	@AttributeDL(required = false, defaultValue = "IP")
+	protected String rateLimitKey = "IP";
+
+	/**
+	 * Header containing the client IP (i.e. X-Forwarded-For behind a proxy) - empty uses the remote address
+	 */
+	@AttributeDL(required = false, defaultValue = "")
+	protected String clientIpHeader = "";
+
+	/**
+	 * Count of trusted proxies appending to the clientIpHeader - the client IP is the entry appended by the outermost
+	 * trusted proxy, counted from the right as all entries before are controlled by the client
+	 */
+	@AttributeDL(required = false, defaultValue = "1")
+	protected int trustedProxies = 1;
+
+	/**
+	 * Interval in seconds to evict idle rate limit buckets
+	 */
+	@AttributeDL(required = false, defaultValue = "60")
+	protected int rateLimitSweepInterval = 60;
+
+	protected ScheduledExecutorService rateLimitSweeper;
+
+	/**
+	 * Max size of a multipart request body and so of all uploaded files of a request in MB - 0 is unlimited. The body
+	 * size is checked by its Content-Length before the container parses the parts. The container limits
+	 * (multipart-config in the web.xml) should match.
+	 */
+	@AttributeDL(required = false, defaultValue = "0")
+	protected int maxUploadSizeMB = 0;
+
+	/**
+	 * MessageDigest algorithm to hash uploads after the container moved them - empty disables hashing
+	 */
+	@AttributeDL(required = false, defaultValue = "")
+	protected String uploadHashAlgorithm = "";
+
+	/**
+	 * Files from this size on are sent by the container sendfile if supported
+	 */
+	@AttributeDL(required = false, defaultValue = "49152")
+	protected int sendfileMinSize = 49152;
+
+	/**
+	 * Max count of ranges in one Range request - more ranges get the full content
+	 */
+	@AttributeDL(required = false, defaultValue = "16")
+	protected int maxRanges = 16;
+
+	/**
+	 * Initial concurrent calls per service without own limit - 0 disables the default bulkheads
+	 */
+	@AttributeDL(required = false, defaultValue = "0")
+	protected int concurrencyLimit = 0;
+
+	@AttributeDL(required = false, defaultValue = "1")
+	protected int concurrencyMinLimit = 1;
+
+	@AttributeDL(required = false, defaultValue = "200")
+	protected int concurrencyMaxLimit = 200;
+
+	/**
+	 * Max calls waiting for a slot per bulkhead - further calls get rejected with 503
+	 */
+	@AttributeDL(required = false, defaultValue = "16")
+	protected int concurrencyQueueSize = 16;
+
+	/**
+	 * Max wait for a slot in ms
+	 */
+	@AttributeDL(required = false, defaultValue = "50")
+	protected int concurrencyQueueTimeout = 50;
+
+	/**
+	 * Max time in ms between flushes while streaming results of streams, iterators and publishers
+	 */
+	@AttributeDL(required = false, defaultValue = "1000")
+	protected int streamFlushInterval = 1000;
+
+	/**
+	 * Max time in ms a coalesced call waits for the call in flight before it gets executed on its own
+	 */
+	@AttributeDL(required = false, defaultValue = "5000")
+	protected int coalesceMaxWait = 5000;
+
+	/**
+	 * Default deadline of a call in ms for methods without own timeout - 0 disables the default deadline
+	 */
+	@AttributeDL(required = false, defaultValue = "0")
+	protected int timeout = 0;
+
+	/**
+	 * File of the structured access log of calls - empty disables the access log
+	 */
+	@AttributeDL(required = false, defaultValue = "")
+	protected String accessLogFile = "";
+
+	/**
+	 * Logs 1 of accessLogSampleRate calls - slow calls and errors are always logged
+	 */
+	@AttributeDL(required = false, defaultValue = "1")
+	protected int accessLogSampleRate = 1;
+
+	/**
+	 * Calls taking at least this long in ms are always logged - 0 disables
+	 */
+	@AttributeDL(required = false, defaultValue = "1000")
+	protected int accessLogSlowThreshold = 1000;
+
+	/**
+	 * Records buffered for the writer - records are dropped if the buffer is full
+	 */
+	@AttributeDL(required = false, defaultValue = "8192")
+	protected int accessLogBufferSize = 8192;
+
+	/**
+	 * Max size of the access log file in MB before it gets rolled over
+	 */
+	@AttributeDL(required = false, defaultValue = "100")
+	protected int accessLogMaxFileSizeMB = 100;
+
+	/**
+	 * Rolled over access log files to keep
+	 */
+	@AttributeDL(required = false, defaultValue = "10")
+	protected int accessLogMaxFiles = 10;
+
+	/**
+	 * Read once into a local by the calls - exit might clear it while calls are still running
+	 */
+	protected volatile AccessLog accessLog;
+
 	@Override
 	public void addChild(String name, DynamicServletParameter child)
 	{
@@ -126,10 +386,12 @@ public class DefaultServletRemoteService extends AbstractService implements Serv
 	}
 
 	@Override
-	protected void initService()
+	protected void initService() throws IOException
 	{
 		log.info("initService");
 
+		Map<Class<?>, ServiceDispatcher> dispatchers = loadDispatchers();
+
 		// Init services
 		DLType serviceType = core.getType(Service.class).orElseThrow();
 		for (DLInstance exported : core.getExported()) {
@@ -146,7 +408,7 @@ public class DefaultServletRemoteService extends AbstractService implements Serv
 					// Just add classes with annotation DLService
 					if (dlService != null) {
 						services.add(service.getName(), service);
-						serviceDescriptors.add(service.getName(), new ServiceDescriptor(service, localizationService));
+						serviceDescriptors.add(service.getName(), new ServiceDescriptor(service, localizationService, dispatchers.get(service.getClass())));
 					}
 				}
 			}
@@ -155,646 +417,2795 @@ public class DefaultServletRemoteService extends AbstractService implements Serv
 		serviceDescriptorsArray = serviceDescriptors.values().toArray(ServiceDescriptor[]::new);
 
 		Arrays.sort(serviceDescriptorsArray);
-	}
 
-	@Override
-	protected void exitService()
-	{
-		log.info("exitService");
-	}
+		router = new ServiceRouter(serviceDescriptorsArray);
 
-	protected void setTTL(HttpServletResponse response, int ttl)
-	{
-		assert response != null;
-		assert ttl >= 0;
+		jsonResponseWriter = new JsonResponseWriter(core, !shortTypeNames);
 
-		if (ttl > 0) {
-			response.setHeader("Cache-Control", "public, max-age=" + ttl);
-		} else {
-			response.setHeader("Cache-Control", "private");
+		if (cbor) {
+			cborResponseWriter = new CborResponseWriter(core, !shortTypeNames);
 		}
-	}
-
-	protected void sendStreamedResponse(HttpServletResponse response, StreamResult result) throws IOException
-	{
-		assert response != null;
-		assert result != null;
 
-		// TTL
-		setTTL(response, result.getTtl());
+		batchExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-		// Mime Type
-		response.setContentType(result.getMimeType());
+		initRateLimiters();
 
-		// Encoding
-		String encoding = result.getEncoding();
+		initConcurrencyLimiters();
 
-		if (encoding != null) {
-			response.setCharacterEncoding(encoding);
+		if (compression) {
+			compressor = new ResponseCompressor(compressionLevel, compressionMinSize, compressionDeflate, compressionCacheMaxBytes, compressionCacheMaxEntrySize);
 		}
 
-		// Disposition inline/attachment
-		response.setHeader(
-			"Content-Disposition",
-			"" + (result.isInline() ? "inline" : "attachment")
-			+ "; filename=\"" + result.getFileName() + "\"");
+		if (responseCacheMaxEntries > 0) {
+			responseCache = new ResponseCache(responseCacheMaxEntries, responseCacheMaxBytes, responseCacheMaxEntrySize);
+		}
 
-		// Send file to client
-		try (OutputStream out = response.getOutputStream()) {
-			result.stream(out);
-			out.flush();
-			out.close();
-			//log.debug("Sent streamed response", StringHelper.toString(result), bytesWritten);
+		if (accessLogFile != null && !accessLogFile.isBlank()) {
+			// Published once it is running
+			AccessLog newLog = new AccessLog(Path.of(accessLogFile), accessLogBufferSize, accessLogMaxFileSizeMB * 1024L * 1024L, accessLogMaxFiles, accessLogSampleRate, accessLogSlowThreshold);
+			newLog.start();
+			accessLog = newLog;
 		}
 	}
 
-	protected void sendJSONResponse(HttpServletResponse response, Object result, int ttl) throws IOException, DLException
+	/**
+	 * Loads the dispatchers generated by the DLServiceProcessor.
+	 *
+	 * @return the dispatchers by their service class
+	 */
+	protected Map<Class<?>, ServiceDispatcher> loadDispatchers()
 	{
-		assert response != null;
-		assert ttl >= 0;
+		Map<Class<?>, ServiceDispatcher> result = new HashMap<>();
 
-		// Send JSON result to client
-		setTTL(response, ttl);
-
-		response.setContentType("application/json");
-		response.setCharacterEncoding("UTF-8");
-
-		if (result != null) {
-
-			// Allows to directly JSON objects and DLInstances
-			if (result instanceof JSONObject json) {
-				result = json.toString();
-			} else if (result instanceof JSONArray json) {
-				result = json.toString();
-			} else if (result instanceof DLInstance instance) {
-				result = JsonWriter.toJSON(core, instance, !shortTypeNames).toString();
-			} else {
-				result = JsonWriter.toJSON(core, core.convertFromJavaObject(result), !shortTypeNames).toString();
-			}
+		if (!generatedDispatchers) {
+			return result;
 		}
 
-		if (result != null) {
-			try (PrintWriter out = response.getWriter()) {
-				out.print(result);
-				out.flush();
-				//log.debug("Sent json response");
+		try {
+			for (ServiceDispatcher dispatcher : ServiceLoader.load(ServiceDispatcher.class)) {
+				result.put(dispatcher.getServiceClass(), dispatcher);
 			}
+		} catch (ServiceConfigurationError ex) {
+			log.warn("Error loading generated dispatchers - falling back to reflection", ex.getMessage());
 		}
+
+		log.debug("Loaded generated dispatchers", result.size());
+
+		return result;
 	}
 
 	@Override
-	@SuppressWarnings("null")
-	public void sendErrorResponse(HttpServletRequest request, HttpServletResponse response, Object error)
+	protected void exitService()
 	{
-		assert request != null;
-		assert response != null;
-		assert error != null;
-
-		String errorMessage = "";
+		log.info("exitService");
 
-		// Make sure to log the Throwable before trying to send it
-		if (error instanceof Throwable throwable) {
+		if (batchExecutor != null) {
+			batchExecutor.shutdownNow();
+			batchExecutor = null;
+		}
 
-			if (error instanceof DLServletException dLServletException) {
-				// Just log dl exceptions of 5XX status codes
-				DLServletException dlex = dLServletException;
-				if (dlex.getHttpStatus() >= 500) {
-					log.error(dlex.getErrorCode(), dlex.getMessage(), request.getRequestURL());
-				} else {
-					log.debug("DLException with code", dlex.getHttpStatus(), dlex.getErrorCode(), errorMessage);
-				}
-			} // Log throwables to error log anyways
-			else {
-				log.error(throwable, errorMessage, request.getRequestURL());
-			}
+		if (rateLimitSweeper != null) {
+			rateLimitSweeper.shutdownNow();
+			rateLimitSweeper = null;
 		}
 
-		// Return unhandled exception as JSON errors if a response can still be send
-		if (!response.isCommitted()) {
+		// Calls still holding the log just get their records dropped after stop
+		AccessLog currentLog = accessLog;
 
-			String errorClass = error.getClass().getName();
+		if (currentLog != null) {
+			accessLog = null;
+			currentLog.stop();
+		}
+	}
 
-			// Allow error response to inject a status code using the ErorCode interface
-			String errorCode;
-			if (error instanceof ErrorCode errorCode1) {
-				//errorMessage = errorCode1.getMessage();
-				errorCode = errorCode1.getErrorCode();
-				response.setStatus(errorCode1.getHttpStatus());
-			} // Default other execeptions to be 500 and the name of the class as errorCode
-			else {
-				errorCode = error.getClass().getSimpleName().toUpperCase();
-				response.setStatus(500);
-			}
+	/**
+	 * Creates the rate limiters of all methods - the method annotation overrides the service annotation which overrides
+	 * the config of the remote service.
+	 */
+	protected void initRateLimiters()
+	{
+		List<RateLimiter> rateLimiters = new ArrayList<>();
 
-			response.setHeader("Cache-Control", "private");
-			response.setContentType("application/json");
-			response.setCharacterEncoding("UTF-8");
+		for (ServiceDescriptor service : serviceDescriptorsArray) {
 
-			// Send Throwable response on the wire
-			if (error instanceof Throwable throwable) {
+			DLService dlService = service.getDlService();
 
-				errorMessage = throwable.getMessage();
+			for (MethodDescriptor method : service.getMethods()) {
 
-				try (PrintWriter out = response.getWriter()) {
+				DLMethod dlMethod = method.getDlMethod();
 
-					out.print(
-						"{\"error\":\""
-						+ (errorMessage != null
-							? errorMessage
-								.replaceAll("\n", "")
-								.replaceAll("\\\\", "\\\\\\\\")
-								.replaceAll("\"", "\\\\\"") : "") + "\""
-						+ ", \"errorClass\":\"" + errorClass + "\""
-						+ ", \"errorCode\":\"" + errorCode + "\""
-						+ "}");
-					out.flush();
-					return;
-				} catch (IOException ex) {
-					log.error(ex, "Error writing error response");
-				}
-			}
+				int rate;
+				int burst;
+				RateLimitKey key;
 
-			// Send custom error object on the line
-			if (error != null) {
-
-				// Create the custom result - similar to send json response
-				Object result;
-				// Allows to directly JSON objects and DLInstances
-				if (error instanceof JSONObject json) {
-					result = json.toString();
-				} else if (error instanceof JSONArray json) {
-					result = json.toString();
-				} else if (error instanceof DLInstance instance) {
-					try {
-						result = JsonWriter.toJSON(core, instance, !shortTypeNames).toString();
-					} catch (DLException ex) {
-						result = "\"" + ex.getMessage() + "\"";
-					}
+				if (dlMethod.rateLimit() > 0) {
+					rate = dlMethod.rateLimit();
+					burst = dlMethod.rateLimitBurst();
+					key = dlMethod.rateLimitKey();
+				} else if (dlService.rateLimit() > 0) {
+					rate = dlService.rateLimit();
+					burst = dlService.rateLimitBurst();
+					key = dlService.rateLimitKey();
+				} else if (rateLimit > 0) {
+					rate = rateLimit;
+					burst = rateLimitBurst;
+					key = RateLimitKey.valueOf(rateLimitKey.toUpperCase());
 				} else {
-					try {
-						result = JsonWriter.toJSON(core, core.convertFromJavaObject(error), !shortTypeNames).toString();
-					} catch (DLException ex) {
-						result = "\"" + ex.getMessage() + "\"";
-					}
+					continue;
 				}
 
-				// Send the custom result
-				if (result != null) {
-					try (PrintWriter out = response.getWriter()) {
-						out.print(result);
-						out.flush();
-						log.debug("Sent json response");
-					} catch (IOException ex) {
-						log.error(ex);
-					}
-				}
+				RateLimiter rateLimiter = new RateLimiter(rate, (burst > 0) ? burst : rate, key);
+				method.setRateLimiter(rateLimiter);
+				rateLimiters.add(rateLimiter);
 			}
 		}
-	}
 
-	protected void sendResponse(HttpServletRequest request, HttpServletResponse response, Object result, int ttl) throws IOException, DLException
-	{
-		assert request != null;
-		assert response != null;
-		assert ttl >= 0;
+		// Evict full buckets to keep memory bounded by the active clients
+		if (!rateLimiters.isEmpty()) {
 
-		// Unpack Optional results
-		if (result instanceof Optional optional) {
-			result = optional.orElse(null);
+			rateLimitSweeper = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+				Thread thread = new Thread(runnable, "dl-rate-limit-sweeper");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			rateLimitSweeper.scheduleWithFixedDelay(() -> {
+				for (RateLimiter rateLimiter : rateLimiters) {
+					rateLimiter.sweep();
+				}
+			}, rateLimitSweepInterval, rateLimitSweepInterval, TimeUnit.SECONDS);
 		}
+	}
 
-		// Support soft errors without exception flow
-		if (result instanceof ServiceResult sResult) {
+	/**
+	 * Creates the bulkheads - methods with an own limit get their own, all other methods of a service share the one of
+	 * the service while keeping their own latency baseline. The service annotation overrides the config of the remote
+	 * service.
+	 */
+	protected void initConcurrencyLimiters()
+	{
+		for (ServiceDescriptor service : serviceDescriptorsArray) {
 
-			// Result -> Just unwrap
-			if (sResult.isResult()) {
-				result = sResult.getResult();
-			} // Error -> send as error response
-			else {
-				sendErrorResponse(request, response, sResult.getError());
-				return;
+			int serviceLimit = (service.getDlService().concurrencyLimit() > 0) ? service.getDlService().concurrencyLimit() : concurrencyLimit;
+
+			if (serviceLimit > 0) {
+				service.setConcurrencyLimiter(createConcurrencyLimiter(serviceLimit));
 			}
-		}
 
-		// Support Either values treating ErrorCode values as errors
-		if (result instanceof Either either) {
+			for (MethodDescriptor method : service.getMethods()) {
 
-			Object value = either.firstOrSecond();
+				int methodLimit = method.getDlMethod().concurrencyLimit();
 
-			if (value instanceof ErrorCode) {
-				sendErrorResponse(request, response, value);
-				return;
+				if (methodLimit > 0) {
+					method.setConcurrencyLimiter(createConcurrencyLimiter(methodLimit));
+				} else {
+					method.setConcurrencyLimiter(service.getConcurrencyLimiter());
+				}
 			}
-
-			result = value;
 		}
+	}
 
-		// Send stream results
-		if (result instanceof StreamResult streamResult) {
-			sendStreamedResponse(response, streamResult);
-			return;
-		}
+	protected ConcurrencyLimiter createConcurrencyLimiter(int initialLimit)
+	{
+		int min = Math.max(1, Math.min(concurrencyMinLimit, initialLimit));
+		int max = Math.max(initialLimit, concurrencyMaxLimit);
 
-		// Default to sending result as JSON
-		sendJSONResponse(response, result, ttl);
+		return new ConcurrencyLimiter(initialLimit, min, max, Math.max(0, concurrencyQueueSize), Math.max(0, concurrencyQueueTimeout));
 	}
 
-	protected FileRef getRequestParameterFileRef(HttpServletRequest request, DLParameter dlParameter) throws IOException, ServletException
+	protected String getClientAddress(HttpServletRequest request)
 	{
-		if (request.getContentType() == null || !request.getContentType().startsWith("multipart/form-data")) {
-			throw new ParameterRequired("File parameter '" + dlParameter.value() + "' needs to be posted as 'multipart/form-data'");
-		}
+		assert request != null;
 
-		Part p = request.getPart(dlParameter.value());
-		if (p != null) {
+		if (clientIpHeader != null && !clientIpHeader.isEmpty()) {
 
-			if (p.getSize() > dlParameter.maxLength()) {
-				throw new ParameterTooLong("Parameter '" + dlParameter.value() + "' has a max length of " + dlParameter.maxLength() + " but is " + p.getSize());
-			}
+			String forwarded = request.getHeader(clientIpHeader);
 
-			try (InputStream in = p.getInputStream()) {
+			if (forwarded != null && !forwarded.isBlank()) {
 
-				File folder = (File) request.getServletContext().getAttribute(ServletContext.TEMPDIR);
-				File tempFile = File.createTempFile("dl-", "", folder);
+				// Skip the entries appended by the inner trusted proxies
+				int end = forwarded.length();
+				int start = forwarded.lastIndexOf(',', end - 1) + 1;
 
-				FilesHelper.writeInputStreamToFile(tempFile.toPath(), in);
+				for (int i = 1; i < trustedProxies && start > 0; ++i) {
+					end = start - 1;
+					start = forwarded.lastIndexOf(',', end - 1) + 1;
+				}
 
-				Map<String, Object> attributes = new HashMap();
+				String address = forwarded.substring(start, end).trim();
 
-				// File can be moved as it is a temp file
-				return new FileRef(tempFile.getAbsolutePath(), p.getContentType(), p.getSubmittedFileName(), attributes, true);
+				if (!address.isEmpty()) {
+					return address;
+				}
 			}
 		}
 
-		return null;
+		return request.getRemoteAddr();
 	}
 
-	protected String getRequestParameter(HttpServletRequest request, DLParameter dlParameter) throws IOException, ServletException
+	/**
+	 * Takes a permit of the rate limiter of the method if it has one.
+	 *
+	 * @param request
+	 * @param response
+	 * @param method
+	 *
+	 * @throws TooManyRequests if the limit is exceeded - sets Retry-After
+	 */
+	protected void validateRateLimit(HttpServletRequest request, HttpServletResponse response, MethodDescriptor method) throws TooManyRequests
 	{
-		String key = dlParameter.value();
+		assert request != null;
+		assert method != null;
 
-		if (request.getContentType() != null
-			&& (request.getContentType().startsWith("application/json")
-			//see https://developer.mozilla.org/en-US/docs/Web/HTTP/CORS -> Simple Request avoids Preflight
-			|| (request.getContentType().startsWith("text/plain")))) {
+		RateLimiter rateLimiter = method.getRateLimiter();
 
-			JSONObject requestAsJSON = (JSONObject) request.getAttribute("_jsonParameters");
+		if (rateLimiter == null) {
+			return;
+		}
 
-			if (requestAsJSON == null) {
+		String key = null;
+		RateLimitKey keyType = rateLimiter.getKey();
 
-				StringBuilder jb = new StringBuilder();
-				String line;
+		if (keyType == RateLimitKey.GLOBAL) {
+			key = "";
+		} else if (keyType == RateLimitKey.TOKEN) {
+			key = getTokenRateLimitKey(request);
+		}
 
-				BufferedReader reader = request.getReader();
-				while ((line = reader.readLine()) != null) {
-					jb.append(line);
-				}
+		// Calls without a valid token are limited per client IP
+		if (key == null) {
+			key = getClientAddress(request);
+		}
 
-				requestAsJSON = new JSONObject(jb.toString());
+		long waitNanos = rateLimiter.acquire(key);
 
-				request.setAttribute("_jsonParameters", requestAsJSON);
-			}
+		if (waitNanos > 0) {
+
+			long retryAfter = RateLimiter.getRetryAfterSeconds(waitNanos);
 
-			if (requestAsJSON.has(key) && !requestAsJSON.isNull(key)) {
-				return requestAsJSON.get(key).toString();
+			if (response != null) {
+				response.setHeader("Retry-After", String.valueOf(retryAfter));
 			}
 
+			throw new TooManyRequests("Rate limit of " + method.getService().getName() + "." + method.getName() + " exceeded - retry after " + retryAfter + "s");
+		}
+	}
+
+	/**
+	 * Keys the limit on the validated token - the raw Authorization header can not be used as clients could send a new
+	 * one with each call to get a fresh bucket.
+	 *
+	 * @param request
+	 *
+	 * @return the key of the valid token of the request or null if it has none
+	 */
+	protected String getTokenRateLimitKey(HttpServletRequest request)
+	{
+		assert request != null;
+
+		if (!(permissionService instanceof TokenService tokenService)) {
 			return null;
-		} else if (request.getContentType() != null && request.getContentType().startsWith("multipart/form-data")) {
+		}
 
-			Object requestAsPart = request.getAttribute("_partParameter_" + key);
+		Optional<Token> token = tokenService.getToken(request);
 
-			if (requestAsPart == null) {
+		if (token.isEmpty()) {
+			return null;
+		}
 
-				//@todo Handle to big uploads properly - currently nothing is returned to client
-				Part p = request.getPart(key);
-				if (p != null) {
+		String subject = token.orElseThrow().getSubject();
+
+		// Keys are prefixed to never collide with client addresses
+		return (subject != null) ? "subject:" + subject : "token:" + token.orElseThrow().getToken();
+	}
 
-					/*if (p.getSubmittedFileName() != null) {
+	protected void setTTL(HttpServletResponse response, int ttl)
+	{
+		assert response != null;
+		assert ttl >= 0;
 
-						try (InputStream in = p.getInputStream()) {
-							byte[] data = new byte[(int) p.getSize()];
-							in.read(data);
-							File folder = (File) request.getServletContext().getAttribute(ServletContext.TEMPDIR);
-							//log.debug("Temp Folder: " + folder.getAbsolutePath());
-							File tempFile = File.createTempFile("dl-", "", folder);
-							//log.debug("Temp File: " + tempFile.getAbsolutePath());
+		if (ttl > 0) {
+			response.setHeader("Cache-Control", "public, max-age=" + ttl);
+		} else {
+			response.setHeader("Cache-Control", "private");
+		}
+	}
 
-							FilesHelper.writeByteArrayToFile(tempFile.getAbsolutePath(), data);
+	/**
+	 * Evaluates If-None-Match and If-Modified-Since of GET and HEAD requests.
+	 *
+	 * @param request
+	 * @param etag the ETag of the response or null
+	 * @param lastModified the last modification of the response in ms or -1
+	 *
+	 * @return true if the client has the current version of the response
+	 */
+	protected boolean isNotModified(HttpServletRequest request, String etag, long lastModified)
+	{
+		assert request != null;
 
-							Map<String, Object> attributes = new HashMap();
+		String requestMethod = request.getMethod();
 
-							// File can be moved as it is a temp file
-							FileRef ref = new FileRef(tempFile.getAbsolutePath(), p.getContentType(), p.getSubmittedFileName(), attributes, true);
+		if (!"GET".equals(requestMethod) && !"HEAD".equals(requestMethod)) {
+			return false;
+		}
 
-							requestAsPart = ref;
-						}
-					} else {*/
-					try (InputStream in = p.getInputStream()) {
-						byte[] data = new byte[(int) p.getSize()];
-						in.read(data);
-						requestAsPart = new String(data, StandardCharsets.UTF_8);
-					}
-					//}
+		// If-None-Match takes precedence over If-Modified-Since
+		String ifNoneMatch = request.getHeader("If-None-Match");
 
-					request.setAttribute("_partParameter_" + key, requestAsPart);
-				}
+		if (ifNoneMatch != null) {
+			return etag != null && ETagHelper.matches(ifNoneMatch, etag);
+		}
+
+		if (lastModified >= 0) {
+
+			long ifModifiedSince;
+			try {
+				ifModifiedSince = request.getDateHeader("If-Modified-Since");
+			} catch (IllegalArgumentException ex) {
+				return false;
 			}
 
-			return (String) requestAsPart;
+			// Http dates just have a precision of seconds
+			return ifModifiedSince >= 0 && (lastModified / 1000) <= (ifModifiedSince / 1000);
 		}
 
-		return request.getParameter(key);
+		return false;
 	}
 
-	@SuppressWarnings("UseSpecificCatch")
-	protected Object getParameter(HttpServletRequest request, HttpServletResponse response, ParameterDescriptor parameter) throws Exception
+	/**
+	 * Negotiates the content encoding for a response.
+	 *
+	 * @param request
+	 * @param response
+	 * @param mimeType
+	 * @param length length of the uncompressed body or -1 if unknown
+	 *
+	 * @return the content encoding or null if the response shall not be compressed
+	 */
+	protected String getContentEncoding(HttpServletRequest request, HttpServletResponse response, String mimeType, long length)
 	{
 		assert request != null;
-		assert parameter != null;
-
-		DLParameter dlParameter = parameter.getDlParameter();
+		assert response != null;
 
-		if (dlParameter == null) {
-			throw new InvalidParameter("DLParameter not set for parameter " + parameter.getName());
+		if (compressor == null || !ResponseCompressor.isCompressible(mimeType)) {
+			return null;
 		}
 
-		String key = dlParameter.value();
+		response.addHeader("Vary", "Accept-Encoding");
 
-		Object result;
+		if (length >= 0 && length < compressor.getMinSize()) {
+			return null;
+		}
 
-		// Dynamic parameters
-		if (key.startsWith("$")) {
+		return compressor.negotiate(request.getHeader("Accept-Encoding"));
+	}
 
-			String dynamicKey = key.substring(1);
-			DynamicServletParameter dynamicParameter = dynamicParameters.get(dynamicKey);
+	/**
+	 * Sends a body which is completely known - sets ETag and Content-Length, answers conditional requests with 304 and
+	 * compresses if accepted.
+	 *
+	 * @param request
+	 * @param response
+	 * @param body
+	 * @param length
+	 * @param etag
+	 * @param cacheCompressed keep the compressed body by its ETag
+	 *
+	 * @throws IOException
+	 */
+	protected void sendBody(HttpServletRequest request, HttpServletResponse response, byte[] body, int length, String etag, boolean cacheCompressed) throws IOException
+	{
+		assert request != null;
+		assert response != null;
+		assert body != null;
 
-			if (dynamicParameter == null) {
+		String encoding = getContentEncoding(request, response, response.getContentType(), length);
 
-				if (dlParameter.required()) {
-					throw new ParameterRequired("Dynamic parameter '" + dlParameter.value() + "' is required");
-				}
+		if (encoding != null && etag != null) {
+			etag = ResponseCompressor.getEncodedETag(etag, encoding);
+		}
 
-				return null;
-			}
+		if (etag != null) {
+			response.setHeader("ETag", etag);
+		}
 
-			result = dynamicParameter.resolve(request, response, dynamicKey);
-		} // Static parameters
-		else {
+		if (isNotModified(request, etag, -1)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
 
-			if (FileRef.class.isAssignableFrom(parameter.getType())) {
-				result = getRequestParameterFileRef(request, dlParameter);
+		if (encoding != null) {
+
+			if (cacheCompressed && etag != null) {
+				body = compressor.getCompressed(etag, body, 0, length, encoding);
 			} else {
-				String strResult = getRequestParameter(request, dlParameter);
+				body = compressor.compress(body, 0, length, encoding);
+			}
 
-				if (strResult != null && strResult.length() > dlParameter.maxLength()) {
-					throw new ParameterTooLong("Parameter '" + dlParameter.value() + "' has a max length of " + dlParameter.maxLength() + " but is " + strResult.length());
-				}
+			length = body.length;
 
-				// Set to default value if no value is given
-				if (strResult == null && !dlParameter.defaultValue().isBlank()) {
-					strResult = dlParameter.defaultValue();
-				}
+			response.setHeader("Content-Encoding", encoding);
+		}
 
-				if (strResult != null) {
+		response.setContentLength(length);
 
-					if (dlParameter.validation().equals(UUID)) {
+		if (length > 0 && !"HEAD".equals(request.getMethod())) {
+			try (OutputStream out = response.getOutputStream()) {
+				out.write(body, 0, length);
+			}
+		}
+	}
 
-						if (!ValidationHelper.isUUID(strResult)) {
-							throw new InvalidParameter("Parameter " + parameter.getName() + " is not a UUID ");
-						}
-					} else if (dlParameter.validation().equals(Email)) {
+	protected void sendStreamedResponse(HttpServletRequest request, HttpServletResponse response, StreamResult result) throws IOException
+	{
+		assert request != null;
+		assert response != null;
+		assert result != null;
 
-						if (!ValidationHelper.isEmailAddress(strResult)) {
-							throw new InvalidParameter("Parameter " + parameter.getName() + " is not a Email ");
-						}
-					} else if (dlParameter.validation().equals(Pattern)) {
+		// TTL
+		setTTL(response, result.getTtl());
 
-						if (!strResult.matches(dlParameter.pattern())) {
-							throw new InvalidParameter("Parameter " + parameter.getName() + " is not of pattern " + dlParameter.pattern());
-						}
-					}
-				}
+		// Mime Type
+		response.setContentType(result.getMimeType());
 
-				result = strResult;
-			}
+		// Encoding
+		String encoding = result.getEncoding();
 
-			// Convert the parameter -> make sure to get any exception and handle it
-			try {
-				result = ConversionHelper.convert(result, parameter.getType());
-			} catch (Exception ex) {
-				throw new InvalidParameter("Error converting '" + dlParameter.value() + "' - " + ex.getMessage(), ex);
-			}
+		if (encoding != null) {
+			response.setCharacterEncoding(encoding);
 		}
 
-		if (dlParameter.required() && result == null) {
-			throw new ParameterRequired("Parameter '" + dlParameter.value() + "' is required");
+		// Disposition inline/attachment
+		response.setHeader(
+			"Content-Disposition",
+			"" + (result.isInline() ? "inline" : "attachment")
+			+ "; filename=\"" + result.getFileName() + "\"");
+
+		// Conditional requests
+		String etag = result.getETag();
+		long lastModified = result.getLastModified();
+		long contentLength = result.getContentLength();
+		SeekableStreamResult seekableResult = (result instanceof SeekableStreamResult seekable && seekable.isSeekable() && contentLength >= 0) ? seekable : null;
+		String range = seekableResult != null && "GET".equals(request.getMethod()) ? request.getHeader("Range") : null;
+
+		// Ranges refer to the identity encoding
+		String contentEncoding = (range == null) ? getContentEncoding(request, response, result.getMimeType(), contentLength) : null;
+
+		if (contentEncoding != null && etag != null) {
+			etag = ResponseCompressor.getEncodedETag(etag, contentEncoding);
 		}
 
-		return result;
-	}
+		if (etag != null) {
+			response.setHeader("ETag", etag);
+		}
 
-	protected void validatePermissions(HttpServletRequest request, DLService service, DLMethod method) throws Exception
-	{
-		assert request != null;
-		assert service != null;
-		assert method != null;
+		if (lastModified >= 0) {
+			response.setDateHeader("Last-Modified", lastModified);
+		}
 
-		if (!isValidatePermissions() || (permissionService == null)) {
+		if (seekableResult != null) {
+			response.setHeader("Accept-Ranges", "bytes");
+		}
+
+		if (isNotModified(request, etag, lastModified)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
 			return;
 		}
 
-		boolean userLoggedIn = false;
-		Set<String> permissions = new HashSet<>();
+		// Partial content if the range still refers to the current content
+		if (range != null && isIfRangeSatisfied(request, etag, lastModified)) {
+
+			List<ByteRange> ranges = ByteRange.parse(range, contentLength);
+
+			if (ranges != null) {
 
-		userLoggedIn |= service.userLoggedIn();
+				if (ranges.isEmpty()) {
+					response.setHeader("Content-Range", "bytes */" + contentLength);
+					response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+					return;
+				}
 
-		for (String permission : service.permissions()) {
-			if (!permission.isBlank()) {
-				permissions.add(permission);
+				// Too many ranges are answered with the full content
+				if (ranges.size() <= maxRanges) {
+					sendRangedResponse(request, response, seekableResult, ranges, contentLength);
+					return;
+				}
 			}
 		}
 
-		userLoggedIn |= method.userLoggedIn();
+		if (contentEncoding != null) {
+			sendCompressedStreamedResponse(request, response, result, contentEncoding, etag, contentLength);
+			return;
+		}
 
-		for (String permission : method.permissions()) {
-			if (!permission.isBlank()) {
-				permissions.add(permission);
-			}
+		if (contentLength >= 0) {
+			response.setContentLengthLong(contentLength);
 		}
 
-		if (userLoggedIn || !permissions.isEmpty()) {
-			permissionService.validate(request, userLoggedIn, permissions);
+		// Headers are complete
+		if ("HEAD".equals(request.getMethod())) {
+			return;
+		}
+
+		Path file = result.getFile();
+
+		if (file != null && contentLength >= 0) {
+			sendFile(request, response, file, 0, contentLength);
+			return;
+		}
+
+		// Send file to client
+		try (OutputStream out = response.getOutputStream()) {
+			result.stream(out);
+			out.flush();
+			out.close();
+			//log.debug("Sent streamed response", StringHelper.toString(result), bytesWritten);
 		}
 	}
 
-	@Override
-	@SuppressWarnings("UseSpecificCatch")
-	public void call(HttpServletRequest request, HttpServletResponse response) throws Throwable
+	/**
+	 * @param request
+	 * @param etag
+	 * @param lastModified
+	 *
+	 * @return true if there is no If-Range or it matches the ETag (strong) or last modification
+	 */
+	protected boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified)
 	{
-		assert request != null : "request != null";
-		assert response != null : "response != null";
+		assert request != null;
 
-		// @todo make service method determination more generic (patterns, subpaths, ...)
-		String pathInfo = request.getPathInfo();
+		String ifRange = request.getHeader("If-Range");
 
-		if (pathInfo == null) {
-			throw new InvalidPath("Pathinfo has to be of structure /<servicename>/<servicemethod>");
+		if (ifRange == null) {
+			return true;
 		}
 
-		String[] pathParts = pathInfo.split("/");
-
-		if (pathParts.length != 3) {
-			throw new InvalidPath("Pathinfo has to be of structure /<servicename>/<servicemethod>");
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			return ETagHelper.matchesStrong(ifRange, etag);
 		}
 
-		String serviceName = pathParts[1];
+		if (lastModified < 0) {
+			return false;
+		}
 
-		if (serviceName == null || serviceName.isBlank()) {
-			throw new InvalidPath("Service is required");
+		try {
+			return (request.getDateHeader("If-Range") / 1000) == (lastModified / 1000);
+		} catch (IllegalArgumentException ex) {
+			return false;
 		}
+	}
 
-		String methodName = pathParts[2];
+	/**
+	 * Sends a part of a file without copying it through user space buffers. Uses the container sendfile support
+	 * (Tomcat) for synchronous requests and FileChannel.transferTo into the response otherwise.
+	 *
+	 * @param request
+	 * @param response
+	 * @param file
+	 * @param offset
+	 * @param length
+	 *
+	 * @throws IOException
+	 */
+	protected void sendFile(HttpServletRequest request, HttpServletResponse response, Path file, long offset, long length) throws IOException
+	{
+		assert request != null;
+		assert response != null;
+		assert file != null;
+		assert offset >= 0;
+		assert length >= 0;
 
-		if (methodName == null || methodName.isBlank()) {
-			throw new InvalidPath("Method is required");
-		}
+		response.setContentLengthLong(length);
 
-		Optional<ServiceDescriptor> optService = serviceDescriptors.get(serviceName);
+		if (length >= sendfileMinSize
+			&& !request.isAsyncStarted()
+			&& Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
 
-		if (optService.isEmpty()) {
-			throw new UnknownService("Service " + serviceName + " is not mapped");
+			// The container sends the file after the servlet returns
+			request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_START_ATTRIBUTE, offset);
+			request.setAttribute(SENDFILE_END_ATTRIBUTE, offset + length);
+			return;
 		}
 
-		ServiceDescriptor service = optService.orElseThrow();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ); OutputStream out = response.getOutputStream()) {
 
-		Optional<MethodDescriptor> optMethod = service.getMethod(methodName);
+			WritableByteChannel target = Channels.newChannel(out);
+			long position = offset;
+			long end = offset + length;
 
-		if (optMethod.isEmpty()) {
-			throw new UnknownMethod("Method " + methodName + " is not mapped");
-		}
+			while (position < end) {
 
-		MethodDescriptor method = optMethod.orElseThrow();
+				long sent = channel.transferTo(position, end - position, target);
 
-		// Make sure the method is allowed by the service
-		if (!method.isAllowedMethod(request.getMethod())) {
-			response.setHeader("Allow", method.getAllowedMethods());
-			throw new MethodNotAllowed("Method " + methodName + " is not allowed - only " + method.getAllowedMethods());
+				if (sent <= 0) {
+					break;
+				}
+
+				position += sent;
+			}
 		}
+	}
 
-		validatePermissions(request, service.getDlService(), method.getDlMethod());
+	/**
+	 * Sends 206 Partial Content with a single range or multipart/byteranges for multiple ranges.
+	 *
+	 * @param response
+	 * @param result
+	 * @param ranges
+	 * @param contentLength
+	 *
+	 * @throws IOException
+	 */
+	protected void sendRangedResponse(HttpServletRequest request, HttpServletResponse response, SeekableStreamResult result, List<ByteRange> ranges, long contentLength) throws IOException
+	{
+		assert request != null;
+		assert response != null;
+		assert result != null;
+		assert ranges != null && !ranges.isEmpty();
 
-		ParameterDescriptor[] parameters = method.getParameters();
+		response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
 
-		Object[] callParams = new Object[parameters.length];
+		if (ranges.size() == 1) {
 
-		for (int i = 0; i < parameters.length; ++i) {
+			ByteRange range = ranges.get(0);
+
+			response.setHeader("Content-Range", range.getContentRange(contentLength));
+			response.setContentLengthLong(range.getLength());
+
+			Path file = result.getFile();
 
-			ParameterDescriptor parameter = parameters[i];
+			if (file != null) {
+				sendFile(request, response, file, range.getStart(), range.getLength());
+				return;
+			}
+
+			try (OutputStream out = response.getOutputStream()) {
+				result.stream(out, range.getStart(), range.getLength());
+			}
 
-			callParams[i] = getParameter(request, response, parameter);
+			return;
 		}
 
-		String callId = "Call " + serviceName + "." + methodName;
+		// Multiple ranges - the total length is known up front
+		String boundary = "DLS" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+		byte[][] partHeaders = new byte[ranges.size()][];
+		byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+		long totalLength = closing.length;
 
-		log.info(callId);
-		log.start(callId);
+		for (int i = 0; i < partHeaders.length; ++i) {
 
-		// If the method shall be transactioned and the database service is not already in a transaction
-		boolean transaction = method.isTransactioned() & ((databaseService != null) ? !databaseService.isInTransaction() : false);
+			ByteRange range = ranges.get(i);
 
-		if (transaction) {
-			databaseService.startTransaction();
+			partHeaders[i] = ("\r\n--" + boundary
+				+ "\r\nContent-Type: " + result.getMimeType()
+				+ "\r\nContent-Range: " + range.getContentRange(contentLength)
+				+ "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+
+			totalLength += partHeaders[i].length + range.getLength();
 		}
 
-		try {
-			try {
-				Object result = method.call(callParams);
+		response.setContentType("multipart/byteranges; boundary=" + boundary);
+		response.setContentLengthLong(totalLength);
 
-				if (transaction) {
-					databaseService.commitTransaction();
-				}
+		try (OutputStream out = response.getOutputStream()) {
 
-				sendResponse(request, response, result, method.getTtl());
-			} catch (InvocationTargetException ex) {
+			for (int i = 0; i < partHeaders.length; ++i) {
 
-				throw ex.getCause();
-			}
+				ByteRange range = ranges.get(i);
 
-		} catch (Throwable ex) {
-			if (transaction) {
-				databaseService.rollbackTransaction();
+				out.write(partHeaders[i]);
+				result.stream(out, range.getStart(), range.getLength());
 			}
-			throw ex;
-		} finally {
-			log.stopInfo(callId);
+
+			out.write(closing);
 		}
 	}
 
-	public boolean isValidatePermissions()
+	protected void sendCompressedStreamedResponse(HttpServletRequest request, HttpServletResponse response, StreamResult result, String contentEncoding, String etag, long contentLength) throws IOException
 	{
-		return validatePermissions;
-	}
+		assert request != null;
+		assert response != null;
+		assert result != null;
+		assert contentEncoding != null;
 
-	public void setValidatePermissions(boolean validatePermissions)
-	{
-		this.validatePermissions = validatePermissions;
-	}
+		response.setHeader("Content-Encoding", contentEncoding);
 
-	public DLCore getCore()
-	{
-		return core;
-	}
+		boolean head = "HEAD".equals(request.getMethod());
 
-	public void setCore(DLCore core)
-	{
-		this.core = core;
-	}
+		String cacheKey = result.getCacheKey();
 
-	public PermissionService getPermissionService()
-	{
-		return permissionService;
-	}
+		// Compress cacheable content just once - the ETag alone might not be unique across results (i.e. size and mtime)
+		if (etag != null && cacheKey != null && contentLength >= 0 && contentLength <= compressor.getCacheMaxEntrySize()) {
 
-	public void setPermissionService(PermissionService permissionService)
-	{
-		this.permissionService = permissionService;
-	}
+			cacheKey = ResponseCompressor.createCacheKey(cacheKey, etag);
 
-	public Set<Service> getServices()
-	{
-		return services.values();
+			byte[] compressed = compressor.getCached(cacheKey);
+
+			if (compressed == null) {
+				ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) contentLength);
+				result.stream(buffer);
+				compressed = compressor.compress(buffer.toByteArray(), 0, buffer.size(), contentEncoding);
+				compressor.putCached(cacheKey, compressed);
+			}
+
+			response.setContentLength(compressed.length);
+
+			if (!head) {
+				try (OutputStream out = response.getOutputStream()) {
+					out.write(compressed);
+				}
+			}
+
+			return;
+		}
+
+		if (head) {
+			return;
+		}
+
+		// Not closed on errors - that would finish the compressed body and hide the failure from the client
+		OutputStream out = compressor.compress(response.getOutputStream(), contentEncoding);
+		result.stream(out);
+		out.close();
 	}
 
-	public ServiceDescriptor[] getServiceDescriptors()
+	/**
+	 * Returns the output stream for a JSON body of unknown length - compressed if accepted
+	 *
+	 * @param request
+	 * @param response
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 */
+	protected OutputStream getStreamingOutputStream(HttpServletRequest request, HttpServletResponse response) throws IOException
 	{
-		return serviceDescriptorsArray;
+		return getStreamingOutputStream(request, response, JsonResponseWriter.CONTENT_TYPE);
 	}
 
-	public LocalizationService getLocalizationService()
+	/**
+	 * Returns the output stream for a body of unknown length - compressed if accepted
+	 *
+	 * @param request
+	 * @param response
+	 * @param mimeType
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 */
+	protected OutputStream getStreamingOutputStream(HttpServletRequest request, HttpServletResponse response, String mimeType) throws IOException
 	{
-		return localizationService;
+		return getStreamingOutputStream(request, response, mimeType, false);
 	}
 
-	public void setLocalizationService(LocalizationService localizationService)
+	/**
+	 * Returns the output stream for a body of unknown length - compressed if accepted
+	 *
+	 * @param request
+	 * @param response
+	 * @param mimeType
+	 * @param syncFlush if true flushing a compressed stream sends all data written so far
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 */
+	protected OutputStream getStreamingOutputStream(HttpServletRequest request, HttpServletResponse response, String mimeType, boolean syncFlush) throws IOException
 	{
-		this.localizationService = localizationService;
+		assert request != null;
+		assert response != null;
+
+		String encoding = getContentEncoding(request, response, mimeType, -1);
+
+		if (encoding != null) {
+			response.setHeader("Content-Encoding", encoding);
+			return compressor.compress(response.getOutputStream(), encoding, syncFlush);
+		}
+
+		return response.getOutputStream();
 	}
 
-	public DatabaseService getDatabaseService()
+	/**
+	 * Selects the writer for the result by the Accept header - CBOR if it is explicitly accepted with a higher quality
+	 * than JSON or with the same quality but listed first. JSON stays the default for missing headers and wildcards.
+	 *
+	 * @param request
+	 *
+	 * @return
+	 */
+	protected ResponseWriter getResponseWriter(HttpServletRequest request)
 	{
-		return databaseService;
+		assert request != null;
+
+		if (cborResponseWriter == null) {
+			return jsonResponseWriter;
+		}
+
+		String accept = request.getHeader("Accept");
+
+		if (accept == null || accept.indexOf(CborResponseWriter.CONTENT_TYPE) == -1) {
+			return jsonResponseWriter;
+		}
+
+		float cborQ = -1;
+		float jsonQ = -1;
+		float applicationQ = -1;
+		float anyQ = -1;
+		int cborIndex = -1;
+		int jsonIndex = -1;
+		int applicationIndex = -1;
+		int anyIndex = -1;
+
+		int length = accept.length();
+		int start = 0;
+
+		while (start < length) {
+
+			int end = accept.indexOf(',', start);
+
+			if (end == -1) {
+				end = length;
+			}
+
+			String mediaRange = accept.substring(start, end).trim();
+			float q = 1.0f;
+
+			int paramStart = mediaRange.indexOf(';');
+
+			if (paramStart > -1) {
+
+				for (String param : mediaRange.substring(paramStart + 1).split(";")) {
+
+					param = param.trim();
+
+					if (param.startsWith("q=")) {
+						try {
+							q = Float.parseFloat(param.substring(2).trim());
+						} catch (NumberFormatException ex) {
+							q = 0.0f;
+						}
+					}
+				}
+
+				mediaRange = mediaRange.substring(0, paramStart).trim();
+			}
+
+			if (CborResponseWriter.CONTENT_TYPE.equalsIgnoreCase(mediaRange)) {
+				cborQ = q;
+				cborIndex = start;
+			} else if (JsonResponseWriter.CONTENT_TYPE.equalsIgnoreCase(mediaRange)) {
+				jsonQ = q;
+				jsonIndex = start;
+			} else if ("application/*".equals(mediaRange)) {
+				applicationQ = q;
+				applicationIndex = start;
+			} else if ("*/*".equals(mediaRange)) {
+				anyQ = q;
+				anyIndex = start;
+			}
+
+			start = end + 1;
+		}
+
+		// The most specific range applies to JSON
+		if (jsonQ == -1) {
+			jsonQ = (applicationQ != -1) ? applicationQ : anyQ;
+			jsonIndex = (applicationQ != -1) ? applicationIndex : anyIndex;
+		}
+
+		if (cborQ > 0 && (cborQ > jsonQ || (cborQ == jsonQ && cborIndex < jsonIndex))) {
+			return cborResponseWriter;
+		}
+
+		return jsonResponseWriter;
 	}
 
-	public void setDatabaseService(DatabaseService databaseService)
+	protected void setContentType(HttpServletResponse response, String contentType)
 	{
-		this.databaseService = databaseService;
+		assert response != null;
+		assert contentType != null;
+
+		response.setContentType(contentType);
+
+		// Binary bodies have no charset
+		if (!CborResponseWriter.CONTENT_TYPE.equals(contentType)) {
+			response.setCharacterEncoding("UTF-8");
+		}
+
+		// The body depends on the Accept header as soon as alternatives are offered
+		if (cborResponseWriter != null) {
+			response.addHeader("Vary", "Accept");
+		}
 	}
 
-	@Override
-	public List<DynamicServletParameter> getChildren()
+	/**
+	 * Sends the result as JSON or as CBOR if the client accepts it.
+	 *
+	 * @param request
+	 * @param response
+	 * @param result
+	 * @param ttl
+	 *
+	 * @throws IOException
+	 * @throws DLException
+	 */
+	protected void sendJSONResponse(HttpServletRequest request, HttpServletResponse response, Object result, int ttl) throws IOException, DLException
 	{
-		return Collections.unmodifiableList(new ArrayList<>(dynamicParameters.values()));
+		assert request != null;
+		assert response != null;
+		assert ttl >= 0;
+
+		// Send JSON result to client
+		setTTL(response, ttl);
+
+		ResponseWriter writer = getResponseWriter(request);
+		String contentType = writer.getContentType();
+
+		setContentType(response, contentType);
+
+		if (result == null) {
+			return;
+		}
+
+		// Stream the body directly into the response
+		if (etagMaxBufferSize <= 0) {
+			OutputStream out = getStreamingOutputStream(request, response, contentType);
+			writer.write(result, out);
+			out.close();
+			return;
+		}
+
+		// Buffer the body to send an ETag and Content-Length - larger responses are streamed without
+		ResponseBuffer buffer = new ResponseBuffer(etagMaxBufferSize, ()
+			-> "HEAD".equals(request.getMethod()) ? OutputStream.nullOutputStream() : getStreamingOutputStream(request, response, contentType)
+		);
+
+		writer.write(result, buffer);
+
+		// Finishes the streamed body (i.e. the compression) of an overflowed buffer
+		buffer.close();
+
+		if (!buffer.isOverflowed()) {
+			sendBody(request, response, buffer.getBuffer(), buffer.size(), ETagHelper.createETag(buffer.getBuffer(), 0, buffer.size()), false);
+		}
+	}
+
+	/**
+	 * Selects the format of a streaming result by the Accept header - SSE, NDJSON or a JSON array by default.
+	 *
+	 * @param request
+	 *
+	 * @return the content type of the format
+	 */
+	protected String getStreamingContentType(HttpServletRequest request)
+	{
+		assert request != null;
+
+		String accept = request.getHeader("Accept");
+
+		if (accept != null) {
+
+			if (accept.contains(SSE_CONTENT_TYPE)) {
+				return SSE_CONTENT_TYPE;
+			}
+
+			if (accept.contains(NDJSON_CONTENT_TYPE)) {
+				return NDJSON_CONTENT_TYPE;
+			}
+		}
+
+		return JsonResponseWriter.CONTENT_TYPE;
+	}
+
+	/**
+	 * Writes the elements of the result as they are pulled - blocking writes to the client slow down the production of
+	 * elements. The output is flushed at least every streamFlushInterval ms, SSE after each event. The result is closed
+	 * in any case - if the client disconnects its resources get released and a deferred transaction is rolled back.
+	 *
+	 * @param request
+	 * @param response
+	 * @param result
+	 * @param ttl
+	 *
+	 * @throws Exception
+	 */
+	protected void sendStreamingResponse(HttpServletRequest request, HttpServletResponse response, StreamingResult result, int ttl) throws Exception
+	{
+		assert request != null;
+		assert response != null;
+		assert result != null;
+		assert ttl >= 0;
+
+		try (result) {
+
+			setTTL(response, ttl);
+
+			String contentType = getStreamingContentType(request);
+			boolean sse = SSE_CONTENT_TYPE.equals(contentType);
+			boolean ndjson = NDJSON_CONTENT_TYPE.equals(contentType);
+
+			response.setContentType(contentType);
+			response.setCharacterEncoding("UTF-8");
+			response.addHeader("Vary", "Accept");
+
+			if ("HEAD".equals(request.getMethod())) {
+				result.complete();
+				return;
+			}
+
+			// Proxies must not buffer events
+			if (sse) {
+				response.setHeader("X-Accel-Buffering", "no");
+			}
+
+			long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, streamFlushInterval));
+
+			// Compressing events would delay them in the compressor
+			OutputStream out = sse ? response.getOutputStream() : getStreamingOutputStream(request, response, contentType, true);
+
+			// Not closed on errors - that would finish a compressed body and hide the failure from the client
+			Utf8Writer writer = new Utf8Writer(out);
+
+			if (!sse && !ndjson) {
+				writer.write('[');
+			}
+
+			long lastFlush = System.nanoTime();
+			boolean first = true;
+
+			try {
+				while (result.hasNext()) {
+
+					Object element = result.next();
+
+					if (sse) {
+						writer.write("data: ");
+						jsonResponseWriter.writeValue(element, writer);
+						writer.write("\n\n");
+						writer.flush();
+						continue;
+					}
+
+					if (ndjson) {
+						jsonResponseWriter.writeValue(element, writer);
+						writer.write('\n');
+					} else {
+						if (!first) {
+							writer.write(',');
+						}
+						jsonResponseWriter.writeValue(element, writer);
+					}
+
+					first = false;
+
+					long now = System.nanoTime();
+					if (now - lastFlush >= flushIntervalNanos) {
+						writer.flush();
+						lastFlush = now;
+					}
+				}
+			} catch (RuntimeException | DLException ex) {
+
+				// Headers are sent already - let SSE clients know the stream failed
+				if (sse) {
+					writer.write("event: error\ndata: ");
+					JSONObject.quote(getErrorCode(ex), writer);
+					writer.write("\n\n");
+					writer.flush();
+				}
+
+				throw ex;
+			}
+
+			if (!sse && !ndjson) {
+				writer.write(']');
+			}
+
+			writer.flush();
+			out.close();
+
+			result.complete();
+		}
+	}
+
+	/**
+	 * Returns a writer for error responses - the response has been reset before by sendErrorResponse.
+	 *
+	 * @param response
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 */
+	protected PrintWriter getErrorWriter(HttpServletResponse response) throws IOException
+	{
+		try {
+			return response.getWriter();
+		} catch (IllegalStateException ex) {
+			return new PrintWriter(new Utf8Writer(response.getOutputStream()));
+		}
+	}
+
+	/**
+	 * Sends the encoded error body - the response has been reset before by sendErrorResponse.
+	 *
+	 * @param response
+	 * @param payload
+	 *
+	 * @throws IOException
+	 */
+	protected void sendErrorPayload(HttpServletResponse response, byte[] payload) throws IOException
+	{
+		assert response != null;
+		assert payload != null;
+
+		OutputStream out;
+		try {
+			out = response.getOutputStream();
+		} catch (IllegalStateException ex) {
+			PrintWriter writer = response.getWriter();
+			writer.write(new String(payload, StandardCharsets.UTF_8));
+			writer.flush();
+			return;
+		}
+
+		response.setContentLength(payload.length);
+		out.write(payload);
+		out.flush();
+	}
+
+	@Override
+	@SuppressWarnings("null")
+	public void sendErrorResponse(HttpServletRequest request, HttpServletResponse response, Object error)
+	{
+		assert request != null;
+		assert response != null;
+		assert error != null;
+
+		String errorMessage = "";
+
+		// Make sure to log the Throwable before trying to send it
+		if (error instanceof Throwable throwable) {
+
+			if (error instanceof DLServletException dLServletException) {
+				// Just log dl exceptions of 5XX status codes
+				DLServletException dlex = dLServletException;
+				if (dlex.getHttpStatus() >= 500) {
+					log.error(dlex.getErrorCode(), dlex.getMessage(), request.getRequestURL());
+				} else {
+					log.debug("DLException with code", dlex.getHttpStatus(), dlex.getErrorCode(), errorMessage);
+				}
+			} // Log throwables to error log anyways
+			else {
+				log.error(throwable, errorMessage, request.getRequestURL());
+			}
+		}
+
+		request.setAttribute(ERROR_CODE_ATTRIBUTE, getErrorCode(error));
+
+		// A committed response can not carry the error anymore - it gets aborted so the client sees a broken transfer
+		// instead of a complete (possibly compressed) body
+		if (response.isCommitted()) {
+			log.debug("Aborting committed response", request.getRequestURL());
+			request.setAttribute(ABORT_ATTRIBUTE, error);
+			return;
+		}
+
+		// Drops the partial output and all headers of the failed response like Content-Encoding, ETag and Content-Length
+		response.reset();
+
+		// Return unhandled exception as JSON errors
+		String errorClass = error.getClass().getName();
+
+		// Allow error response to inject a status code using the ErorCode interface
+		String errorCode;
+		if (error instanceof ErrorCode errorCode1) {
+			//errorMessage = errorCode1.getMessage();
+			errorCode = errorCode1.getErrorCode();
+			response.setStatus(errorCode1.getHttpStatus());
+		} // Default other execeptions to be 500 and the name of the class as errorCode
+		else {
+			errorCode = error.getClass().getSimpleName().toUpperCase();
+			response.setStatus(500);
+		}
+
+		response.setHeader("Cache-Control", "private");
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+
+		// Send Throwable response on the wire
+		if (error instanceof Throwable throwable) {
+
+			try {
+				sendErrorPayload(response, ErrorPayload.get(throwable.getMessage(), errorClass, errorCode));
+				return;
+			} catch (IOException ex) {
+				log.error(ex, "Error writing error response");
+			}
+		}
+
+		// Send custom error object on the line
+		if (error != null) {
+
+			// Create the custom result - similar to send json response
+			Object result;
+			// Allows to directly JSON objects and DLInstances
+			if (error instanceof JSONObject json) {
+				result = json.toString();
+			} else if (error instanceof JSONArray json) {
+				result = json.toString();
+			} else if (error instanceof DLInstance instance) {
+				try {
+					result = JsonWriter.toJSON(core, instance, !shortTypeNames).toString();
+				} catch (DLException ex) {
+					result = "\"" + ex.getMessage() + "\"";
+				}
+			} else {
+				try {
+					result = JsonWriter.toJSON(core, core.convertFromJavaObject(error), !shortTypeNames).toString();
+				} catch (DLException ex) {
+					result = "\"" + ex.getMessage() + "\"";
+				}
+			}
+
+			// Send the custom result
+			if (result != null) {
+				try (PrintWriter out = getErrorWriter(response)) {
+					out.print(result);
+					out.flush();
+					log.debug("Sent json response");
+				} catch (IOException ex) {
+					log.error(ex);
+				}
+			}
+		}
+	}
+
+	protected void sendCachedResponse(HttpServletRequest request, HttpServletResponse response, ResponseCache.Entry entry) throws IOException
+	{
+		assert request != null;
+		assert response != null;
+		assert entry != null;
+
+		setTTL(response, entry.getRemainingTtl(System.currentTimeMillis()));
+
+		setContentType(response, entry.getContentType());
+
+		byte[] body = entry.getBody();
+
+		sendBody(request, response, body, body.length, entry.getETag(), true);
+	}
+
+	protected void sendCacheableJSONResponse(HttpServletRequest request, HttpServletResponse response, Object result, MethodDescriptor method, String cacheKey) throws IOException, DLException
+	{
+		assert request != null;
+		assert response != null;
+		assert method != null;
+		assert cacheKey != null;
+
+		ResponseWriter writer = getResponseWriter(request);
+
+		// Serialize once into the cache and send the cached bytes
+		byte[] body;
+		if (result != null) {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+			writer.write(result, buffer);
+			body = buffer.toByteArray();
+		} else {
+			body = new byte[0];
+		}
+
+		ResponseCache.Entry entry = new ResponseCache.Entry(
+			method.getService().getName(),
+			method.getName(),
+			body,
+			writer.getContentType(),
+			System.currentTimeMillis() + method.getTtl() * 1000L
+		);
+
+		responseCache.put(cacheKey, entry);
+
+		sendCachedResponse(request, response, entry);
+	}
+
+	protected void sendResponse(HttpServletRequest request, HttpServletResponse response, Object result, int ttl) throws Exception
+	{
+		sendResponse(request, response, result, ttl, null, null);
+	}
+
+	/**
+	 * Sends the result of a method to the client.
+	 *
+	 * @param request
+	 * @param response
+	 * @param result
+	 * @param ttl
+	 * @param method the called method - required if cacheKey is given
+	 * @param cacheKey if not null JSON results get stored in the response cache with this key
+	 *
+	 * @throws Exception
+	 */
+	protected void sendResponse(HttpServletRequest request, HttpServletResponse response, Object result, int ttl, MethodDescriptor method, String cacheKey) throws Exception
+	{
+		assert request != null;
+		assert response != null;
+		assert ttl >= 0;
+		assert cacheKey == null || method != null;
+
+		// Unpack Optional results
+		if (result instanceof Optional optional) {
+			result = optional.orElse(null);
+		}
+
+		// Support soft errors without exception flow
+		if (result instanceof ServiceResult sResult) {
+
+			// Result -> Just unwrap
+			if (sResult.isResult()) {
+				result = sResult.getResult();
+			} // Error -> send as error response
+			else {
+				sendErrorResponse(request, response, sResult.getError());
+				return;
+			}
+		}
+
+		// Support Either values treating ErrorCode values as errors
+		if (result instanceof Either either) {
+
+			Object value = either.firstOrSecond();
+
+			if (value instanceof ErrorCode) {
+				sendErrorResponse(request, response, value);
+				return;
+			}
+
+			result = value;
+		}
+
+		// Send stream results
+		if (result instanceof StreamResult streamResult) {
+			sendStreamedResponse(request, response, streamResult);
+			return;
+		}
+
+		// Send elements of streams, iterators and publishers as they are produced
+		if (StreamingResult.isStreaming(result)) {
+			sendStreamingResponse(request, response, StreamingResult.of(result), ttl);
+			return;
+		}
+
+		// Default to sending result as JSON
+		if (cacheKey != null) {
+			sendCacheableJSONResponse(request, response, result, method, cacheKey);
+		} else {
+			sendJSONResponse(request, response, result, ttl);
+		}
+	}
+
+	/**
+	 * Returns the uploads of the request - they get cleaned up at the end of the call.
+	 *
+	 * @param request
+	 *
+	 * @return
+	 */
+	protected RequestUploads getRequestUploads(HttpServletRequest request)
+	{
+		assert request != null;
+
+		RequestUploads uploads = (RequestUploads) request.getAttribute(RequestUploads.REQUEST_ATTRIBUTE);
+
+		if (uploads == null) {
+			File folder = (File) request.getServletContext().getAttribute(ServletContext.TEMPDIR);
+			uploads = new RequestUploads(folder, maxUploadSizeMB * 1024L * 1024L, uploadHashAlgorithm);
+			request.setAttribute(RequestUploads.REQUEST_ATTRIBUTE, uploads);
+		}
+
+		return uploads;
+	}
+
+	/**
+	 * Returns the part - checks the size of the body before the container parses it.
+	 *
+	 * @param request
+	 * @param name
+	 *
+	 * @return the part or null
+	 *
+	 * @throws IOException
+	 * @throws ServletException
+	 * @throws UploadTooLarge if the body exceeds maxUploadSizeMB
+	 * @throws LengthRequired if maxUploadSizeMB is set and the body has no Content-Length
+	 */
+	protected Part getPart(HttpServletRequest request, String name) throws IOException, ServletException
+	{
+		assert request != null;
+		assert name != null;
+
+		if (maxUploadSizeMB > 0) {
+
+			long length = request.getContentLengthLong();
+
+			if (length < 0) {
+				throw new LengthRequired("Multipart requests need a Content-Length");
+			}
+
+			if (length > maxUploadSizeMB * 1024L * 1024L) {
+				throw new UploadTooLarge("Uploads of a request have a max size of " + maxUploadSizeMB + "MB");
+			}
+		}
+
+		return request.getPart(name);
+	}
+
+	protected FileRef getRequestParameterFileRef(HttpServletRequest request, DLParameter dlParameter) throws IOException, ServletException
+	{
+		if (request.getContentType() == null || !request.getContentType().startsWith("multipart/form-data")) {
+			throw new ParameterRequired("File parameter '" + dlParameter.value() + "' needs to be posted as 'multipart/form-data'");
+		}
+
+		Part p = getPart(request, dlParameter.value());
+		if (p != null) {
+			// File can be moved as it is a temp file
+			return getRequestUploads(request).receive(p, dlParameter.value(), dlParameter.maxLength());
+		}
+
+		return null;
+	}
+
+	protected String getRequestParameter(HttpServletRequest request, ParameterDescriptor parameter) throws IOException, ServletException
+	{
+		String key = parameter.getName();
+
+		Map<String, String> pathParameters = (Map<String, String>) request.getAttribute("_pathParameters");
+
+		if (pathParameters != null) {
+
+			String pathParameter = pathParameters.get(key);
+
+			if (pathParameter != null) {
+				return pathParameter;
+			}
+		}
+
+		if (request.getContentType() != null
+			&& (request.getContentType().startsWith("application/json")
+			//see https://developer.mozilla.org/en-US/docs/Web/HTTP/CORS -> Simple Request avoids Preflight
+			|| (request.getContentType().startsWith("text/plain")))) {
+
+			Map<String, String> requestAsJSON = (Map<String, String>) request.getAttribute("_jsonParameters");
+
+			// Bind all declared parameters of the method in one pass over the body
+			if (requestAsJSON == null) {
+
+				requestAsJSON = parameter.getMethod().getJsonParameterBinder().bind(request.getReader());
+
+				request.setAttribute("_jsonParameters", requestAsJSON);
+			}
+
+			return requestAsJSON.get(key);
+		} else if (cborResponseWriter != null
+			&& request.getContentType() != null
+			&& request.getContentType().startsWith(CborResponseWriter.CONTENT_TYPE)) {
+
+			// Shares the request attribute with JSON bodies as batches inject their parameters there
+			Map<String, String> requestAsCBOR = (Map<String, String>) request.getAttribute("_jsonParameters");
+
+			if (requestAsCBOR == null) {
+
+				requestAsCBOR = parameter.getMethod().getCborParameterBinder().bind(request.getInputStream());
+
+				request.setAttribute("_jsonParameters", requestAsCBOR);
+			}
+
+			return requestAsCBOR.get(key);
+		} else if (request.getContentType() != null && request.getContentType().startsWith("multipart/form-data")) {
+
+			Object requestAsPart = request.getAttribute("_partParameter_" + key);
+
+			if (requestAsPart == null) {
+
+				Part p = getPart(request, key);
+				if (p != null) {
+
+					// A UTF-8 encoded text has at most 3 bytes per char - fail before reading larger parts
+					long maxBytes = parameter.getMaxLength() * 3L;
+
+					if (p.getSize() > maxBytes || p.getSize() > Integer.MAX_VALUE - 8) {
+						throw new ParameterTooLong("Parameter '" + key + "' has a max length of " + parameter.getMaxLength() + " but is " + p.getSize() + " bytes");
+					}
+
+					try (InputStream in = p.getInputStream()) {
+						requestAsPart = new String(in.readNBytes((int) p.getSize()), StandardCharsets.UTF_8);
+					}
+
+					request.setAttribute("_partParameter_" + key, requestAsPart);
+				}
+			}
+
+			return (String) requestAsPart;
+		}
+
+		return request.getParameter(key);
+	}
+
+	@SuppressWarnings("UseSpecificCatch")
+	protected Object getParameter(HttpServletRequest request, HttpServletResponse response, ParameterDescriptor parameter) throws Exception
+	{
+		assert request != null;
+		assert parameter != null;
+
+		DLParameter dlParameter = parameter.getDlParameter();
+
+		if (dlParameter == null) {
+			throw new InvalidParameter("DLParameter not set for parameter " + parameter.getName());
+		}
+
+		String key = dlParameter.value();
+
+		Object result;
+
+		// Dynamic parameters
+		if (key.startsWith("$")) {
+
+			String dynamicKey = key.substring(1);
+			DynamicServletParameter dynamicParameter = dynamicParameters.get(dynamicKey);
+
+			if (dynamicParameter == null) {
+
+				if (dlParameter.required()) {
+					throw new ParameterRequired("Dynamic parameter '" + dlParameter.value() + "' is required");
+				}
+
+				return null;
+			}
+
+			result = dynamicParameter.resolve(request, response, dynamicKey);
+		} // Static parameters
+		else {
+
+			if (FileRef.class.isAssignableFrom(parameter.getType())) {
+				result = getRequestParameterFileRef(request, dlParameter);
+			} else {
+				String strResult = getRequestParameter(request, parameter);
+
+				if (strResult != null && strResult.length() > dlParameter.maxLength()) {
+					throw new ParameterTooLong("Parameter '" + dlParameter.value() + "' has a max length of " + dlParameter.maxLength() + " but is " + strResult.length());
+				}
+
+				// Set to default value if no value is given
+				if (strResult == null && !dlParameter.defaultValue().isBlank()) {
+					strResult = dlParameter.defaultValue();
+				}
+
+				if (strResult != null) {
+					parameter.validate(strResult);
+				}
+
+				result = strResult;
+			}
+
+			// Convert the parameter with its precompiled converter
+			result = parameter.convert(result);
+		}
+
+		if (dlParameter.required() && result == null) {
+			throw new ParameterRequired("Parameter '" + dlParameter.value() + "' is required");
+		}
+
+		return result;
+	}
+
+	protected void validatePermissions(HttpServletRequest request, MethodDescriptor method) throws Exception
+	{
+		assert request != null;
+		assert method != null;
+
+		if (!isValidatePermissions() || (permissionService == null)) {
+			return;
+		}
+
+		boolean userLoggedIn = method.isRequiresUserLoggedIn();
+		PermissionSet permissions = method.getRequiredPermissions();
+
+		if (userLoggedIn || !permissions.isEmpty()) {
+			permissionService.validate(request, userLoggedIn, permissions);
+		}
+	}
+
+	protected Object[] getParameters(HttpServletRequest request, HttpServletResponse response, MethodDescriptor method) throws Exception
+	{
+		assert request != null;
+		assert method != null;
+
+		ParameterDescriptor[] parameters = method.getParameters();
+
+		Object[] callParams = new Object[parameters.length];
+
+		for (int i = 0; i < parameters.length; ++i) {
+			callParams[i] = getParameter(request, response, parameters[i]);
+		}
+
+		return callParams;
+	}
+
+	/**
+	 * Invokes the method within its deadline, its bulkhead and its own transaction if the method is transactioned and
+	 * no transaction is running yet.
+	 *
+	 * @param method
+	 * @param callParams
+	 *
+	 * @return the raw result of the method
+	 *
+	 * @throws Throwable
+	 */
+	protected Object invokeMethod(MethodDescriptor method, Object[] callParams) throws Throwable
+	{
+		assert method != null;
+		assert callParams != null;
+
+		// The deadline includes the time waiting for a slot in the bulkhead
+		int callTimeout = (method.getTimeout() > 0) ? method.getTimeout() : timeout;
+		Deadline previousDeadline = (callTimeout > 0) ? Deadline.enter(callTimeout) : null;
+
+		try {
+			// Calls within a running transaction (i.e. a transactioned batch) have to see its uncommitted changes
+			if (method.isCoalescing() && (databaseService == null || !databaseService.isInTransaction())) {
+				return invokeMethodCoalesced(method, callParams);
+			}
+
+			return invokeMethodLimited(method, callParams);
+		} finally {
+			if (callTimeout > 0) {
+				Deadline.exit(previousDeadline);
+			}
+		}
+	}
+
+	/**
+	 * Shares the call in flight with the same parameters - waiting calls do not take a slot of the bulkhead. If the
+	 * call in flight takes longer than coalesceMaxWait the waiting call gets executed on its own, if it takes longer
+	 * than the deadline the waiting call fails.
+	 *
+	 * @param method
+	 * @param callParams
+	 *
+	 * @return the raw result of the method
+	 *
+	 * @throws Throwable
+	 */
+	protected Object invokeMethodCoalesced(MethodDescriptor method, Object[] callParams) throws Throwable
+	{
+		assert method != null;
+		assert callParams != null;
+
+		long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, coalesceMaxWait));
+
+		Optional<Deadline> deadline = Deadline.getCurrent();
+
+		if (deadline.isPresent()) {
+			maxWaitNanos = Math.min(maxWaitNanos, deadline.orElseThrow().getRemainingNanos());
+		}
+
+		try {
+			return method.getSingleFlight().execute(ResponseCache.createKey(method, callParams), () -> invokeMethodLimited(method, callParams), maxWaitNanos);
+		} catch (SingleFlight.WaitTimeout ex) {
+
+			Deadline.checkCurrent();
+
+			log.debug("Coalesced call did not finish in time", method.getService().getName(), method.getName());
+
+			return invokeMethodLimited(method, callParams);
+		}
+	}
+
+	/**
+	 * Invokes the method holding a slot of its bulkhead if it has one.
+	 *
+	 * @param method
+	 * @param callParams
+	 *
+	 * @return the raw result of the method
+	 *
+	 * @throws Throwable
+	 * @throws ServiceOverloaded if no slot was available in time
+	 */
+	protected Object invokeMethodLimited(MethodDescriptor method, Object[] callParams) throws Throwable
+	{
+		ConcurrencyLimiter limiter = method.getConcurrencyLimiter();
+
+		if (limiter != null && !limiter.acquire()) {
+			throw new ServiceOverloaded("Service " + method.getService().getName() + " is overloaded - " + limiter.getLimit() + " calls in flight");
+		}
+
+		long start = System.nanoTime();
+
+		try {
+			// If the method shall be transactioned and the database service is not already in a transaction
+			boolean transaction = method.isTransactioned() && databaseService != null && !databaseService.isInTransaction();
+
+			if (transaction) {
+				databaseService.startTransaction();
+			}
+
+			try {
+				Object result = method.invoke(callParams);
+
+				// Streaming results may read from the database while being sent - commit once they are done
+				if (StreamingResult.isStreaming(result)) {
+
+					StreamingResult streamingResult = StreamingResult.of(result);
+
+					if (transaction) {
+						streamingResult.deferTransaction(databaseService);
+					}
+
+					return streamingResult;
+				}
+
+				if (transaction) {
+					databaseService.commitTransaction();
+				}
+
+				return result;
+			} catch (Throwable ex) {
+				if (transaction) {
+					databaseService.rollbackTransaction();
+				}
+				throw ex;
+			}
+		} finally {
+			if (limiter != null) {
+				limiter.release(System.nanoTime() - start, method.getLatencyBaseline());
+			}
+		}
+	}
+
+	protected boolean isBatchPath(String pathInfo)
+	{
+		return batchPath != null
+			&& !batchPath.isEmpty()
+			&& pathInfo != null
+			&& pathInfo.length() == batchPath.length() + 1
+			&& pathInfo.startsWith(batchPath, 1);
+	}
+
+	@Override
+	public void call(HttpServletRequest request, HttpServletResponse response) throws Throwable
+	{
+		assert request != null : "request != null";
+		assert response != null : "response != null";
+
+		String pathInfo = request.getPathInfo();
+
+		try {
+			if (isBatchPath(pathInfo)) {
+				callBatch(request, response);
+			} else {
+				callMethod(request, response, pathInfo);
+			}
+		} finally {
+
+			// Remove uploads the call has not moved
+			RequestUploads uploads = (RequestUploads) request.getAttribute(RequestUploads.REQUEST_ATTRIBUTE);
+
+			if (uploads != null) {
+				uploads.cleanup();
+			}
+
+			// Virtual threads are not reused - dont leave their connections open
+			if (databaseService != null && Thread.currentThread().isVirtual()) {
+				databaseService.closeThreadConnection();
+			}
+		}
+	}
+
+	/**
+	 * @param error
+	 *
+	 * @return the error code of an ErrorCode or the upper case simple class name
+	 */
+	public static String getErrorCode(Object error)
+	{
+		assert error != null;
+
+		if (error instanceof ErrorCode errorCode) {
+			return errorCode.getErrorCode();
+		}
+
+		return error.getClass().getSimpleName().toUpperCase();
+	}
+
+	protected void callMethod(HttpServletRequest request, HttpServletResponse response, String pathInfo) throws Throwable
+	{
+		MethodDescriptor method = router.route(pathInfo);
+
+		// Path parameters are looked up before any other static parameters
+		if (method.isHasPathParameters()) {
+			request.setAttribute("_pathParameters", router.getPathParameters(method, pathInfo));
+		}
+
+		// Record latency, response bytes and errors of the method
+		long start = System.nanoTime();
+		CountingResponse countingResponse = new CountingResponse(response);
+		String errorCode = null;
+		int status = 0;
+		int[] statements = StatementCounter.begin();
+
+		try {
+			callMethod(request, countingResponse, method);
+		} catch (Throwable ex) {
+			errorCode = getErrorCode(ex);
+			// The error response is sent by the servlet after the call
+			status = (ex instanceof ErrorCode error) ? error.getHttpStatus() : 500;
+			throw ex;
+		} finally {
+
+			int dbCalls = StatementCounter.end(statements);
+
+			long latency = System.nanoTime() - start;
+
+			// Soft errors are sent within the call
+			if (errorCode == null) {
+				errorCode = (String) request.getAttribute(ERROR_CODE_ATTRIBUTE);
+				status = countingResponse.getStatus();
+			}
+
+			method.getMetrics().record(latency, countingResponse.getBytesWritten(), errorCode);
+
+			AccessLog currentLog = accessLog;
+
+			if (currentLog != null) {
+				currentLog.log(method.getService().getName(), method.getName(), status, latency, dbCalls, countingResponse.getBytesWritten(), getSubject(request), errorCode);
+			}
+		}
+	}
+
+	/**
+	 * @param request
+	 *
+	 * @return the subject of the token if it got resolved within the call
+	 */
+	protected String getSubject(HttpServletRequest request)
+	{
+		assert request != null;
+
+		Object token = request.getAttribute(AbstractTokenService.TOKEN_ATTRIBUTE);
+
+		if (token instanceof Optional<?> optToken && optToken.isPresent() && optToken.orElseThrow() instanceof Token resolved) {
+			return resolved.getSubject();
+		}
+
+		return null;
+	}
+
+	protected void callMethod(HttpServletRequest request, HttpServletResponse response, MethodDescriptor method) throws Throwable
+	{
+		String methodName = method.getName();
+
+		// Make sure the method is allowed by the service
+		if (!method.isAllowedMethod(request.getMethod())) {
+			response.setHeader("Allow", method.getAllowedMethods());
+			throw new MethodNotAllowed("Method " + methodName + " is not allowed - only " + method.getAllowedMethods());
+		}
+
+		validateRateLimit(request, response, method);
+
+		validatePermissions(request, method);
+
+		Object[] callParams = getParameters(request, response, method);
+
+		// Serve ttl'd methods from the response cache
+		String cacheKey = null;
+
+		if (responseCache != null && method.isCacheable()) {
+
+			cacheKey = ResponseCache.createKey(method, callParams);
+
+			// Each encoding is cached separately
+			if (getResponseWriter(request) != jsonResponseWriter) {
+				cacheKey += '\u0000' + getResponseWriter(request).getContentType();
+			}
+
+			ResponseCache.Entry entry = responseCache.get(cacheKey);
+
+			if (entry != null) {
+				sendCachedResponse(request, response, entry);
+				return;
+			}
+		}
+
+		try {
+			Object result = invokeMethod(method, callParams);
+
+			sendResponse(request, response, result, method.getTtl(), method, cacheKey);
+		} catch (ServiceOverloaded ex) {
+			response.setHeader("Retry-After", "1");
+			throw ex;
+		}
+	}
+
+	/**
+	 * Resolves a single entry of a batch - routing, permissions and parameters are resolved on the request thread.
+	 *
+	 * @param request
+	 * @param response
+	 * @param entry
+	 *
+	 * @return the prepared call or a call containing the error
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	protected BatchCall prepareBatchCall(HttpServletRequest request, HttpServletResponse response, Object entry)
+	{
+		assert request != null;
+		assert response != null;
+
+		String serviceName = null;
+		String methodName = null;
+
+		try {
+			if (!(entry instanceof JSONObject call)) {
+				throw new InvalidParameter("Batch call has to be an object of {service, method, parameters}");
+			}
+
+			serviceName = call.optString("service", null);
+			methodName = call.optString("method", null);
+
+			MethodDescriptor method = router.route(serviceName, methodName);
+
+			if (!method.isAllowedMethod(request.getMethod())) {
+				throw new MethodNotAllowed("Method " + method.getName() + " is not allowed - only " + method.getAllowedMethods());
+			}
+
+			// Entries of a batch count for the limit - the batch response itself has no Retry-After
+			validateRateLimit(request, null, method);
+
+			validatePermissions(request, method);
+
+			// Map the given values of the declared static parameters
+			Map<String, String> values = new HashMap<>();
+			JSONObject parameters = call.optJSONObject("parameters");
+
+			if (parameters != null) {
+				for (ParameterDescriptor parameter : method.getStaticParameters()) {
+
+					Object value = parameters.opt(parameter.getName());
+
+					if (value != null && value != JSONObject.NULL) {
+						values.put(parameter.getName(), value.toString());
+					}
+				}
+			}
+
+			return new BatchCall(method, getParameters(new BatchCallRequest(request, values), response, method));
+		} catch (Throwable ex) {
+			BatchCall call = new BatchCall(ex);
+			call.setRequestedName(serviceName, methodName);
+			return call;
+		}
+	}
+
+	protected void executeBatchCall(BatchCall call)
+	{
+		assert call != null;
+
+		long start = System.nanoTime();
+		int[] statements = StatementCounter.begin();
+
+		try {
+			call.resolve(invokeMethod(call.getMethod(), call.getParameters()));
+		} catch (Throwable ex) {
+			call.setError(ex);
+		} finally {
+			call.setDbCalls(StatementCounter.end(statements));
+			call.setLatencyNanos(System.nanoTime() - start);
+		}
+
+		call.getMethod().getMetrics().record(call.getLatencyNanos(), 0, call.isError() ? getErrorCode(call.getError()) : null);
+	}
+
+	/**
+	 * Writes one access log record per call of a batch. Calls which did not get executed as the batch failed before
+	 * are logged with the error of the batch.
+	 *
+	 * @param request
+	 * @param calls
+	 * @param bytes bytes of the result of each call in the uncompressed batch body
+	 * @param batchError error failing the whole batch or null
+	 */
+	protected void logBatch(HttpServletRequest request, BatchCall[] calls, long[] bytes, Throwable batchError)
+	{
+		assert request != null;
+		assert calls != null;
+		assert bytes != null;
+
+		AccessLog currentLog = accessLog;
+
+		if (currentLog == null) {
+			return;
+		}
+
+		String subject = getSubject(request);
+
+		for (int i = 0; i < calls.length; ++i) {
+
+			BatchCall call = calls[i];
+
+			if (call == null) {
+				continue;
+			}
+
+			Object error = call.getError();
+
+			if (error == null && batchError != null) {
+				error = batchError;
+			}
+
+			int status = (error == null) ? 200 : (error instanceof ErrorCode errorCode) ? errorCode.getHttpStatus() : 500;
+
+			currentLog.log(call.getServiceName(), call.getMethodName(), status, call.getLatencyNanos(), call.getDbCalls(), bytes[i], subject, (error != null) ? getErrorCode(error) : null);
+		}
+	}
+
+	/**
+	 * Executes all calls within one transaction - the first error rolls back the whole batch and fails the request. The
+	 * calls are invoked like single calls (deadline, bulkhead, metrics) but join the transaction of the batch.
+	 *
+	 * @param calls
+	 *
+	 * @throws Throwable
+	 */
+	protected void executeBatchTransactioned(BatchCall[] calls) throws Throwable
+	{
+		assert calls != null;
+
+		boolean transaction = !databaseService.isInTransaction();
+
+		if (transaction) {
+			databaseService.startTransaction();
+		}
+
+		try {
+			for (BatchCall call : calls) {
+
+				if (!call.isError()) {
+					executeBatchCall(call);
+				}
+
+				Object error = call.getError();
+
+				if (error instanceof Throwable throwable) {
+					throw throwable;
+				} else if (error instanceof ErrorCode errorCode) {
+					throw new DLServletException(errorCode.getMessage(), errorCode.getErrorCode(), errorCode.getHttpStatus());
+				} else if (error != null) {
+					throw new DLServletException("Batch call failed", "BATCH_CALL_FAILED", 500);
+				}
+			}
+
+			if (transaction) {
+				databaseService.commitTransaction();
+			}
+		} catch (Throwable ex) {
+			if (transaction) {
+				databaseService.rollbackTransaction();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Executes the calls in parallel on virtual threads - each call is handled like a single call with its own
+	 * transaction. Each virtual thread gets its own connection of the database service, so parallel batches need a
+	 * pooled DatabaseService (i.e. TomcatPostgresService) - with an unpooled one each call opens a new connection.
+	 *
+	 * @param calls
+	 *
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	protected void executeBatchParallel(BatchCall[] calls) throws InterruptedException, ExecutionException
+	{
+		assert calls != null;
+
+		Semaphore permits = new Semaphore(Math.max(1, batchParallelism));
+		List<Future<?>> futures = new ArrayList<>(calls.length);
+
+		for (BatchCall call : calls) {
+
+			if (call.isError()) {
+				continue;
+			}
+
+			futures.add(batchExecutor.submit(() -> {
+				permits.acquire();
+				try {
+					executeBatchCall(call);
+				} finally {
+					permits.release();
+
+					if (databaseService != null) {
+						databaseService.closeThreadConnection();
+					}
+				}
+				return null;
+			}));
+		}
+
+		for (Future<?> future : futures) {
+			future.get();
+		}
+	}
+
+	protected void writeBatchResult(Writer out, HttpServletRequest request, BatchCall call) throws IOException, DLException
+	{
+		assert out != null;
+		assert call != null;
+
+		Object error = call.getError();
+
+		if (error == null) {
+			out.write("{\"status\":200,\"result\":");
+			jsonResponseWriter.writeValue(call.getResult(), out);
+			out.write('}');
+			return;
+		}
+
+		int status;
+		String errorCode;
+
+		if (error instanceof ErrorCode errorCode1) {
+			errorCode = errorCode1.getErrorCode();
+			status = errorCode1.getHttpStatus();
+		} else {
+			errorCode = error.getClass().getSimpleName().toUpperCase();
+			status = 500;
+		}
+
+		if (error instanceof Throwable throwable) {
+
+			if (status >= 500) {
+				log.error(throwable, errorCode, throwable.getMessage(), request.getRequestURL());
+			} else {
+				log.debug("Batch call failed with code", status, errorCode);
+			}
+
+			String errorMessage = throwable.getMessage();
+
+			out.write("{\"status\":" + status
+				+ ",\"error\":" + JSONObject.quote(errorMessage != null ? errorMessage : "")
+				+ ",\"errorClass\":" + JSONObject.quote(error.getClass().getName())
+				+ ",\"errorCode\":" + JSONObject.quote(errorCode)
+				+ "}");
+			return;
+		}
+
+		// Custom error objects
+		out.write("{\"status\":" + status + ",\"errorCode\":" + JSONObject.quote(errorCode) + ",\"error\":");
+		jsonResponseWriter.writeValue(error, out);
+		out.write('}');
+	}
+
+	/**
+	 * Executes multiple calls in one request. The body is either an array of calls {service, method, parameters} or an
+	 * object {calls, transactioned, parallel}. Returns an array of {status, result} or {status, error, errorClass,
+	 * errorCode} in the order of the calls. The calls are executed sequentially unless parallel is true - see
+	 * executeBatchParallel.
+	 *
+	 * @param request
+	 * @param response
+	 *
+	 * @throws Throwable
+	 */
+	protected void callBatch(HttpServletRequest request, HttpServletResponse response) throws Throwable
+	{
+		assert request != null;
+		assert response != null;
+
+		if (!"POST".equals(request.getMethod())) {
+			response.setHeader("Allow", "POST");
+			throw new MethodNotAllowed("Batch calls are only allowed as POST");
+		}
+
+		Object body;
+		try {
+			body = new JSONTokener(request.getReader()).nextValue();
+		} catch (JSONException ex) {
+			throw new InvalidParameter("Batch request is not valid JSON - " + ex.getMessage(), ex);
+		}
+
+		JSONArray entries;
+		boolean transactioned = false;
+		boolean parallel = false;
+
+		if (body instanceof JSONArray array) {
+			entries = array;
+		} else if (body instanceof JSONObject json && json.optJSONArray("calls") != null) {
+			entries = json.getJSONArray("calls");
+			transactioned = json.optBoolean("transactioned", false);
+			parallel = json.optBoolean("parallel", false);
+		} else {
+			throw new InvalidParameter("Batch request has to be an array of calls or an object with calls");
+		}
+
+		if (entries.length() > maxBatchSize) {
+			throw new InvalidParameter("Batch request has a max size of " + maxBatchSize + " but is " + entries.length());
+		}
+
+		BatchCall[] calls = new BatchCall[entries.length()];
+		long[] bytes = new long[calls.length];
+		Throwable batchError = null;
+
+		try {
+			for (int i = 0; i < calls.length; ++i) {
+				calls[i] = prepareBatchCall(request, response, entries.get(i));
+			}
+
+			if (transactioned && databaseService != null) {
+				executeBatchTransactioned(calls);
+			} else if (parallel && calls.length > 1) {
+				executeBatchParallel(calls);
+			} else {
+				for (BatchCall call : calls) {
+					if (!call.isError()) {
+						executeBatchCall(call);
+					}
+				}
+			}
+
+			setTTL(response, 0);
+			response.setContentType("application/json");
+			response.setCharacterEncoding("UTF-8");
+
+			OutputStream stream = getStreamingOutputStream(request, response);
+
+			try (Utf8Writer out = new Utf8Writer(stream)) {
+
+				out.write('[');
+
+				for (int i = 0; i < calls.length; ++i) {
+
+					if (i > 0) {
+						out.write(',');
+					}
+
+					long encoded = out.getBytesEncoded();
+					writeBatchResult(out, request, calls[i]);
+					bytes[i] = out.getBytesEncoded() - encoded;
+				}
+
+				out.write(']');
+				out.flush();
+				stream.close();
+			}
+		} catch (Throwable ex) {
+			batchError = ex;
+			throw ex;
+		} finally {
+			logBatch(request, calls, bytes, batchError);
+		}
+	}
+
+	public boolean isValidatePermissions()
+	{
+		return validatePermissions;
+	}
+
+	public void setValidatePermissions(boolean validatePermissions)
+	{
+		this.validatePermissions = validatePermissions;
+	}
+
+	public DLCore getCore()
+	{
+		return core;
+	}
+
+	public void setCore(DLCore core)
+	{
+		this.core = core;
+	}
+
+	public PermissionService getPermissionService()
+	{
+		return permissionService;
+	}
+
+	public void setPermissionService(PermissionService permissionService)
+	{
+		this.permissionService = permissionService;
+	}
+
+	public Set<Service> getServices()
+	{
+		return services.values();
+	}
+
+	public ServiceDescriptor[] getServiceDescriptors()
+	{
+		return serviceDescriptorsArray;
+	}
+
+	public LocalizationService getLocalizationService()
+	{
+		return localizationService;
+	}
+
+	public void setLocalizationService(LocalizationService localizationService)
+	{
+		this.localizationService = localizationService;
+	}
+
+	public DatabaseService getDatabaseService()
+	{
+		return databaseService;
+	}
+
+	public void setDatabaseService(DatabaseService databaseService)
+	{
+		this.databaseService = databaseService;
+	}
+
+	@Override
+	public List<DynamicServletParameter> getChildren()
+	{
+		return Collections.unmodifiableList(new ArrayList<>(dynamicParameters.values()));
+	}
+
+	public ResponseCache getResponseCache()
+	{
+		return responseCache;
+	}
+
+	/**
+	 * Invalidates the cached responses of all methods of the given service
+	 *
+	 * @param service
+	 *
+	 * @return count of removed entries
+	 */
+	public int invalidateResponseCache(String service)
+	{
+		assert service != null;
+
+		if (responseCache == null) {
+			return 0;
+		}
+
+		return responseCache.invalidate(service);
+	}
+
+	/**
+	 * Invalidates the cached responses of the given method
+	 *
+	 * @param service
+	 * @param method
+	 *
+	 * @return count of removed entries
+	 */
+	public int invalidateResponseCache(String service, String method)
+	{
+		assert service != null;
+		assert method != null;
+
+		if (responseCache == null) {
+			return 0;
+		}
+
+		return responseCache.invalidate(service, method);
+	}
+
+	public void invalidateResponseCache()
+	{
+		if (responseCache != null) {
+			responseCache.invalidateAll();
+		}
+	}
+
+	public int getResponseCacheMaxEntries()
+	{
+		return responseCacheMaxEntries;
+	}
+
+	public void setResponseCacheMaxEntries(int responseCacheMaxEntries)
+	{
+		this.responseCacheMaxEntries = responseCacheMaxEntries;
+	}
+
+	public int getResponseCacheMaxBytes()
+	{
+		return responseCacheMaxBytes;
+	}
+
+	public void setResponseCacheMaxBytes(int responseCacheMaxBytes)
+	{
+		this.responseCacheMaxBytes = responseCacheMaxBytes;
+	}
+
+	public int getResponseCacheMaxEntrySize()
+	{
+		return responseCacheMaxEntrySize;
+	}
+
+	public void setResponseCacheMaxEntrySize(int responseCacheMaxEntrySize)
+	{
+		this.responseCacheMaxEntrySize = responseCacheMaxEntrySize;
+	}
+
+	public int getEtagMaxBufferSize()
+	{
+		return etagMaxBufferSize;
+	}
+
+	public void setEtagMaxBufferSize(int etagMaxBufferSize)
+	{
+		this.etagMaxBufferSize = etagMaxBufferSize;
+	}
+
+	public ResponseCompressor getCompressor()
+	{
+		return compressor;
+	}
+
+	public boolean isCompression()
+	{
+		return compression;
+	}
+
+	public void setCompression(boolean compression)
+	{
+		this.compression = compression;
+	}
+
+	public boolean isCompressionDeflate()
+	{
+		return compressionDeflate;
+	}
+
+	public void setCompressionDeflate(boolean compressionDeflate)
+	{
+		this.compressionDeflate = compressionDeflate;
+	}
+
+	public int getCompressionLevel()
+	{
+		return compressionLevel;
+	}
+
+	public void setCompressionLevel(int compressionLevel)
+	{
+		this.compressionLevel = compressionLevel;
+	}
+
+	public int getCompressionMinSize()
+	{
+		return compressionMinSize;
+	}
+
+	public void setCompressionMinSize(int compressionMinSize)
+	{
+		this.compressionMinSize = compressionMinSize;
+	}
+
+	public int getCompressionCacheMaxBytes()
+	{
+		return compressionCacheMaxBytes;
+	}
+
+	public void setCompressionCacheMaxBytes(int compressionCacheMaxBytes)
+	{
+		this.compressionCacheMaxBytes = compressionCacheMaxBytes;
+	}
+
+	public int getCompressionCacheMaxEntrySize()
+	{
+		return compressionCacheMaxEntrySize;
+	}
+
+	public void setCompressionCacheMaxEntrySize(int compressionCacheMaxEntrySize)
+	{
+		this.compressionCacheMaxEntrySize = compressionCacheMaxEntrySize;
+	}
+
+	public int getMaxRanges()
+	{
+		return maxRanges;
+	}
+
+	public void setMaxRanges(int maxRanges)
+	{
+		this.maxRanges = maxRanges;
+	}
+
+	public int getConcurrencyLimit()
+	{
+		return concurrencyLimit;
+	}
+
+	public void setConcurrencyLimit(int concurrencyLimit)
+	{
+		this.concurrencyLimit = concurrencyLimit;
+	}
+
+	public int getConcurrencyMinLimit()
+	{
+		return concurrencyMinLimit;
+	}
+
+	public void setConcurrencyMinLimit(int concurrencyMinLimit)
+	{
+		this.concurrencyMinLimit = concurrencyMinLimit;
+	}
+
+	public int getConcurrencyMaxLimit()
+	{
+		return concurrencyMaxLimit;
+	}
+
+	public void setConcurrencyMaxLimit(int concurrencyMaxLimit)
+	{
+		this.concurrencyMaxLimit = concurrencyMaxLimit;
+	}
+
+	public int getConcurrencyQueueSize()
+	{
+		return concurrencyQueueSize;
+	}
+
+	public void setConcurrencyQueueSize(int concurrencyQueueSize)
+	{
+		this.concurrencyQueueSize = concurrencyQueueSize;
+	}
+
+	public int getConcurrencyQueueTimeout()
+	{
+		return concurrencyQueueTimeout;
+	}
+
+	public void setConcurrencyQueueTimeout(int concurrencyQueueTimeout)
+	{
+		this.concurrencyQueueTimeout = concurrencyQueueTimeout;
+	}
+
+	public int getCoalesceMaxWait()
+	{
+		return coalesceMaxWait;
+	}
+
+	public void setCoalesceMaxWait(int coalesceMaxWait)
+	{
+		this.coalesceMaxWait = coalesceMaxWait;
+	}
+
+	public int getStreamFlushInterval()
+	{
+		return streamFlushInterval;
+	}
+
+	public void setStreamFlushInterval(int streamFlushInterval)
+	{
+		this.streamFlushInterval = streamFlushInterval;
+	}
+
+	public String getAccessLogFile()
+	{
+		return accessLogFile;
+	}
+
+	public void setAccessLogFile(String accessLogFile)
+	{
+		this.accessLogFile = accessLogFile;
+	}
+
+	public int getAccessLogSampleRate()
+	{
+		return accessLogSampleRate;
+	}
+
+	public void setAccessLogSampleRate(int accessLogSampleRate)
+	{
+		this.accessLogSampleRate = accessLogSampleRate;
+	}
+
+	public int getAccessLogSlowThreshold()
+	{
+		return accessLogSlowThreshold;
+	}
+
+	public void setAccessLogSlowThreshold(int accessLogSlowThreshold)
+	{
+		this.accessLogSlowThreshold = accessLogSlowThreshold;
+	}
+
+	public int getAccessLogBufferSize()
+	{
+		return accessLogBufferSize;
+	}
+
+	public void setAccessLogBufferSize(int accessLogBufferSize)
+	{
+		this.accessLogBufferSize = accessLogBufferSize;
+	}
+
+	public int getAccessLogMaxFileSizeMB()
+	{
+		return accessLogMaxFileSizeMB;
+	}
+
+	public void setAccessLogMaxFileSizeMB(int accessLogMaxFileSizeMB)
+	{
+		this.accessLogMaxFileSizeMB = accessLogMaxFileSizeMB;
+	}
+
+	public int getAccessLogMaxFiles()
+	{
+		return accessLogMaxFiles;
+	}
+
+	public void setAccessLogMaxFiles(int accessLogMaxFiles)
+	{
+		this.accessLogMaxFiles = accessLogMaxFiles;
+	}
+
+	public AccessLog getAccessLog()
+	{
+		return accessLog;
+	}
+
+	public boolean isGeneratedDispatchers()
+	{
+		return generatedDispatchers;
+	}
+
+	public void setGeneratedDispatchers(boolean generatedDispatchers)
+	{
+		this.generatedDispatchers = generatedDispatchers;
+	}
+
+	public boolean isCbor()
+	{
+		return cbor;
+	}
+
+	public void setCbor(boolean cbor)
+	{
+		this.cbor = cbor;
+	}
+
+	public int getTimeout()
+	{
+		return timeout;
+	}
+
+	public void setTimeout(int timeout)
+	{
+		this.timeout = timeout;
+	}
+
+	public int getSendfileMinSize()
+	{
+		return sendfileMinSize;
+	}
+
+	public void setSendfileMinSize(int sendfileMinSize)
+	{
+		this.sendfileMinSize = sendfileMinSize;
+	}
+
+	public int getMaxUploadSizeMB()
+	{
+		return maxUploadSizeMB;
+	}
+
+	public void setMaxUploadSizeMB(int maxUploadSizeMB)
+	{
+		this.maxUploadSizeMB = maxUploadSizeMB;
+	}
+
+	public String getUploadHashAlgorithm()
+	{
+		return uploadHashAlgorithm;
+	}
+
+	public void setUploadHashAlgorithm(String uploadHashAlgorithm)
+	{
+		this.uploadHashAlgorithm = uploadHashAlgorithm;
+	}
+
+	public int getRateLimit()
+	{
+		return rateLimit;
+	}
+
+	public void setRateLimit(int rateLimit)
+	{
+		this.rateLimit = rateLimit;
+	}
+
+	public int getRateLimitBurst()
+	{
+		return rateLimitBurst;
+	}
+
+	public void setRateLimitBurst(int rateLimitBurst)
+	{
+		this.rateLimitBurst = rateLimitBurst;
+	}
+
+	public String getRateLimitKey()
+	{
+		return rateLimitKey;
+	}
+
+	public void setRateLimitKey(String rateLimitKey)
+	{
+		this.rateLimitKey = rateLimitKey;
+	}
+
+	public int getTrustedProxies()
+	{
+		return trustedProxies;
+	}
+
+	public void setTrustedProxies(int trustedProxies)
+	{
+		this.trustedProxies = trustedProxies;
+	}
+
+	public String getClientIpHeader()
+	{
+		return clientIpHeader;
+	}
+
+	public void setClientIpHeader(String clientIpHeader)
+	{
+		this.clientIpHeader = clientIpHeader;
+	}
+
+	public int getRateLimitSweepInterval()
+	{
+		return rateLimitSweepInterval;
+	}
+
+	public void setRateLimitSweepInterval(int rateLimitSweepInterval)
+	{
+		this.rateLimitSweepInterval = rateLimitSweepInterval;
+	}
+
+	public String getBatchPath()
+	{
+		return batchPath;
+	}
+
+	public void setBatchPath(String batchPath)
+	{
+		this.batchPath = batchPath;
+	}
+
+	public int getMaxBatchSize()
+	{
+		return maxBatchSize;
+	}
+
+	public void setMaxBatchSize(int maxBatchSize)
+	{
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	public int getBatchParallelism()
+	{
+		return batchParallelism;
+	}
+
+	public void setBatchParallelism(int batchParallelism)
+	{
+		this.batchParallelism = batchParallelism;
 	}
 
 	public boolean isShortTypeNames()
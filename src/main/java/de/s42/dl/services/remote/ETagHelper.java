@@ -0,0 +1,154 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public final class ETagHelper
+{
+
+	private ETagHelper()
+	{
+		// never instantiated
+	}
+
+	/**
+	 * Creates a strong ETag (including quotes) from the hash of the given data.
+	 *
+	 * @param data
+	 * @param offset
+	 * @param length
+	 *
+	 * @return
+	 */
+	public static String createETag(byte[] data, int offset, int length)
+	{
+		assert data != null;
+		assert offset >= 0;
+		assert length >= 0;
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("MD5");
+			digest.update(data, offset, length);
+			return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+		} catch (NoSuchAlgorithmException ex) {
+			throw new RuntimeException("MD5 is not supported - " + ex.getMessage(), ex);
+		}
+	}
+
+	public static String createETag(byte[] data)
+	{
+		assert data != null;
+
+		return createETag(data, 0, data.length);
+	}
+
+	/**
+	 * Creates a strong ETag (including quotes) from file metadata.
+	 *
+	 * @param size
+	 * @param lastModified
+	 *
+	 * @return
+	 */
+	public static String createETag(long size, long lastModified)
+	{
+		return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+	}
+
+	/**
+	 * Matches the ETag against an If-None-Match header value using weak comparison.
+	 *
+	 * @param header list of ETags separated by ',' or '*'
+	 * @param etag
+	 *
+	 * @return true if one of the given ETags matches
+	 */
+	public static boolean matches(String header, String etag)
+	{
+		assert header != null;
+		assert etag != null;
+
+		String opaqueETag = etag.startsWith("W/") ? etag.substring(2) : etag;
+
+		int length = header.length();
+		int start = 0;
+
+		while (start < length) {
+
+			int end = header.indexOf(',', start);
+
+			if (end == -1) {
+				end = length;
+			}
+
+			String candidate = header.substring(start, end).trim();
+
+			if (candidate.equals("*")) {
+				return true;
+			}
+
+			if (candidate.startsWith("W/")) {
+				candidate = candidate.substring(2);
+			}
+
+			if (candidate.equals(opaqueETag)) {
+				return true;
+			}
+
+			start = end + 1;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Matches the ETag against an If-Range header value using strong comparison - weak ETags never match.
+	 *
+	 * @param header a single ETag
+	 * @param etag
+	 *
+	 * @return true if both ETags are strong and equal
+	 */
+	public static boolean matchesStrong(String header, String etag)
+	{
+		assert header != null;
+
+		if (etag == null) {
+			return false;
+		}
+
+		String candidate = header.trim();
+
+		return !candidate.startsWith("W/") && !etag.startsWith("W/") && candidate.equals(etag);
+	}
+}
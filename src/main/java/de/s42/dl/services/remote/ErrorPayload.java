@@ -0,0 +1,178 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes the JSON body of error responses {"error":..., "errorClass":..., "errorCode":...}. Strings are escaped in a
+ * single pass using a precompiled table. The encoded bytes are cached per error class and code together with the last
+ * message as most errors (i.e. of rejected credentials) are sent with the same constant message over and over. Varying
+ * messages just replace the entry of their class and code, so request data in messages can not grow the cache.
+ *
+ * @author Benjamin Schiller
+ */
+public final class ErrorPayload
+{
+
+	public final static int MAX_CACHED_PAYLOADS = 256;
+	public final static int MAX_CACHED_MESSAGE_LENGTH = 256;
+
+	/**
+	 * Escape sequences for all ASCII chars - null if the char is written as is
+	 */
+	protected final static String[] ESCAPES = new String[128];
+
+	static {
+		for (int c = 0; c < 0x20; ++c) {
+			ESCAPES[c] = String.format("\\u%04x", c);
+		}
+		ESCAPES['"'] = "\\\"";
+		ESCAPES['\\'] = "\\\\";
+		ESCAPES['\t'] = "\\t";
+		ESCAPES['\b'] = "\\b";
+		ESCAPES['\f'] = "\\f";
+		// Line breaks are dropped from messages
+		ESCAPES['\n'] = "";
+		ESCAPES['\r'] = "";
+	}
+
+	protected final static class Entry
+	{
+
+		protected final String message;
+		protected final byte[] payload;
+
+		protected Entry(String message, byte[] payload)
+		{
+			this.message = message;
+			this.payload = payload;
+		}
+	}
+
+	protected final static Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+	private ErrorPayload()
+	{
+		// never instantiated
+	}
+
+	/**
+	 * Returns the encoded error body - cached if the message is short enough.
+	 *
+	 * @param message might be null
+	 * @param errorClass
+	 * @param errorCode
+	 *
+	 * @return UTF-8 encoded JSON body - must not be modified
+	 */
+	public static byte[] get(String message, String errorClass, String errorCode)
+	{
+		assert errorClass != null;
+		assert errorCode != null;
+
+		if (message != null && message.length() > MAX_CACHED_MESSAGE_LENGTH) {
+			return encode(message, errorClass, errorCode);
+		}
+
+		String key = errorClass + '/' + errorCode;
+
+		Entry entry = cache.get(key);
+
+		if (entry != null && Objects.equals(entry.message, message)) {
+			return entry.payload;
+		}
+
+		byte[] result = encode(message, errorClass, errorCode);
+
+		// Error codes are constant per class in general - bounded anyway as ErrorCode implementations might vary them
+		if (entry != null || cache.size() < MAX_CACHED_PAYLOADS) {
+			cache.put(key, new Entry(message, result));
+		}
+
+		return result;
+	}
+
+	public static byte[] encode(String message, String errorClass, String errorCode)
+	{
+		assert errorClass != null;
+		assert errorCode != null;
+
+		StringBuilder out = new StringBuilder(64 + (message != null ? message.length() : 0) + errorClass.length() + errorCode.length());
+
+		out.append("{\"error\":\"");
+		if (message != null) {
+			escape(message, out);
+		}
+		out.append("\", \"errorClass\":\"");
+		escape(errorClass, out);
+		out.append("\", \"errorCode\":\"");
+		escape(errorCode, out);
+		out.append("\"}");
+
+		return out.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Appends the JSON escaped value to out - copies unescaped runs of chars at once.
+	 *
+	 * @param value
+	 * @param out
+	 */
+	public static void escape(String value, StringBuilder out)
+	{
+		assert value != null;
+		assert out != null;
+
+		int length = value.length();
+		int start = 0;
+
+		for (int i = 0; i < length; ++i) {
+
+			char c = value.charAt(i);
+
+			if (c < 128 && ESCAPES[c] != null) {
+				out.append(value, start, i).append(ESCAPES[c]);
+				start = i + 1;
+			}
+		}
+
+		out.append(value, start, length);
+	}
+
+	public static int getCachedPayloads()
+	{
+		return cache.size();
+	}
+
+	public static void clearCache()
+	{
+		cache.clear();
+	}
+}
@@ -43,6 +43,9 @@ public class FileRef
 	private String mimeType;
 	private final Map<String, Object> attributes = Collections.synchronizedMap(new HashMap());
 	protected boolean moveFile;
+	protected long size = -1;
+	protected String hash;
+	protected String hashAlgorithm;
 
 	public FileRef()
 	{
@@ -160,4 +163,41 @@ public class FileRef
 	{
 		this.moveFile = moveFile;
 	}
+
+	/**
+	 * @return size in bytes or -1 if unknown
+	 */
+	public long getSize()
+	{
+		return size;
+	}
+
+	public void setSize(long size)
+	{
+		this.size = size;
+	}
+
+	/**
+	 * @return hex encoded hash of the content computed while copying it into the temp file or null if hashing is
+	 * disabled
+	 */
+	public String getHash()
+	{
+		return hash;
+	}
+
+	public void setHash(String hash)
+	{
+		this.hash = hash;
+	}
+
+	public String getHashAlgorithm()
+	{
+		return hashAlgorithm;
+	}
+
+	public void setHashAlgorithm(String hashAlgorithm)
+	{
+		this.hashAlgorithm = hashAlgorithm;
+	}
 }
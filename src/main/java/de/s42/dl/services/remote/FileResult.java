@@ -28,14 +28,18 @@ package de.s42.dl.services.remote;
 import de.s42.base.files.FilesHelper;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  *
  * @author Benjamin Schiller
  */
-public class FileResult implements StreamResult
+public class FileResult implements SeekableStreamResult
 {
 
 	protected final boolean inline;
@@ -45,6 +49,7 @@ public class FileResult implements StreamResult
 	protected final String fileEnding;
 	protected final String encoding;
 	protected final Path file;
+	protected BasicFileAttributes attributes;
 
 	public FileResult(Path file) throws IOException
 	{
@@ -185,6 +190,69 @@ public class FileResult implements StreamResult
 		return inline;
 	}
 
+	/**
+	 * Reads the file attributes once per result
+	 *
+	 * @return the attributes or null if they can not be read
+	 */
+	protected BasicFileAttributes getAttributes()
+	{
+		if (attributes == null) {
+			try {
+				attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			} catch (IOException ex) {
+				return null;
+			}
+		}
+
+		return attributes;
+	}
+
+	@Override
+	public String getETag()
+	{
+		BasicFileAttributes attrs = getAttributes();
+
+		if (attrs == null) {
+			return null;
+		}
+
+		return ETagHelper.createETag(attrs.size(), attrs.lastModifiedTime().toMillis());
+	}
+
+	/**
+	 * The ETag is just built from size and modification, so the path identifies the content.
+	 *
+	 * @return
+	 */
+	@Override
+	public String getCacheKey()
+	{
+		return file.toAbsolutePath().normalize().toString();
+	}
+
+	@Override
+	public long getLastModified()
+	{
+		BasicFileAttributes attrs = getAttributes();
+
+		return (attrs != null) ? attrs.lastModifiedTime().toMillis() : -1;
+	}
+
+	@Override
+	public long getContentLength()
+	{
+		BasicFileAttributes attrs = getAttributes();
+
+		return (attrs != null) ? attrs.size() : -1;
+	}
+
+	@Override
+	public Path getFile()
+	{
+		return file;
+	}
+
 	@Override
 	public long stream(OutputStream out) throws IOException
 	{
@@ -193,4 +261,43 @@ public class FileResult implements StreamResult
 		
 		return Files.copy(file, out);
 	}
+
+	@Override
+	public boolean isSeekable()
+	{
+		return getAttributes() != null;
+	}
+
+	@Override
+	public long stream(OutputStream out, long offset, long length) throws IOException
+	{
+		assert out != null;
+		assert offset >= 0;
+		assert length >= 0;
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(65536, Math.max(1, length)));
+			long position = offset;
+			long end = offset + length;
+
+			while (position < end) {
+
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), end - position));
+
+				// Positional read does not depend on the channel position
+				int read = channel.read(buffer, position);
+
+				if (read < 0) {
+					break;
+				}
+
+				out.write(buffer.array(), 0, read);
+				position += read;
+			}
+
+			return position - offset;
+		}
+	}
 }
@@ -0,0 +1,449 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binds the values of a JSON object request body to the static parameters of a method in a single pass. Only
+ * declared keys are materialized - scalar values as their text, nested objects and arrays as their raw JSON. Unknown
+ * keys are skipped without being materialized and the max length of parameters is enforced while reading.
+ *
+ * @author Benjamin Schiller
+ */
+public class JsonParameterBinder
+{
+
+	protected final static int BUFFER_SIZE = 8192;
+
+	protected final Map<String, ParameterDescriptor> parameters = new HashMap<>();
+
+	protected final int maxKeyLength;
+
+	public JsonParameterBinder(ParameterDescriptor... parameters)
+	{
+		assert parameters != null;
+
+		int maxKey = 0;
+		for (ParameterDescriptor parameter : parameters) {
+			if (parameter.isStatic()) {
+				this.parameters.put(parameter.getName(), parameter);
+				maxKey = Math.max(maxKey, parameter.getName().length());
+			}
+		}
+
+		maxKeyLength = maxKey;
+	}
+
+	/**
+	 * Reads the given JSON object and returns the values of the declared parameters. JSON null values are not
+	 * contained in the result.
+	 *
+	 * @param reader
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 * @throws InvalidParameter if the body is not a valid JSON object
+	 * @throws ParameterTooLong if a declared value exceeds the max length of its parameter
+	 */
+	public Map<String, String> bind(Reader reader) throws IOException, InvalidParameter, ParameterTooLong
+	{
+		assert reader != null;
+
+		Scanner scanner = new Scanner(reader);
+		Map<String, String> result = new HashMap<>();
+
+		int c = scanner.nextNonWhitespace();
+
+		// An empty body does not contain any parameters
+		if (c == -1) {
+			return result;
+		}
+
+		if (c != '{') {
+			throw scanner.error("Request body has to be a JSON object");
+		}
+
+		StringBuilder keyBuilder = new StringBuilder();
+
+		c = scanner.nextNonWhitespace();
+
+		if (c == '}') {
+			return result;
+		}
+
+		while (true) {
+
+			if (c != '"') {
+				throw scanner.error("Expected key");
+			}
+
+			// Keys longer than any declared key are never materialized completely
+			keyBuilder.setLength(0);
+			ParameterDescriptor parameter;
+			if (scanner.readString(keyBuilder, maxKeyLength)) {
+				parameter = parameters.get(keyBuilder.toString());
+			} else {
+				scanner.countRemainingString();
+				parameter = null;
+			}
+
+			if (scanner.nextNonWhitespace() != ':') {
+				throw scanner.error("Expected ':'");
+			}
+
+			c = scanner.nextNonWhitespace();
+
+			if (parameter != null) {
+				String value = readValue(scanner, c, parameter);
+				if (value != null) {
+					result.put(parameter.getName(), value);
+				} else {
+					result.remove(parameter.getName());
+				}
+			} else {
+				scanner.skipValue(c);
+			}
+
+			c = scanner.nextNonWhitespace();
+
+			if (c == '}') {
+				return result;
+			}
+
+			if (c != ',') {
+				throw scanner.error("Expected ',' or '}'");
+			}
+
+			c = scanner.nextNonWhitespace();
+		}
+	}
+
+	protected String readValue(Scanner scanner, int c, ParameterDescriptor parameter) throws IOException, InvalidParameter, ParameterTooLong
+	{
+		long maxLength = parameter.getMaxLength();
+		StringBuilder value = new StringBuilder();
+		long length;
+
+		if (c == '"') {
+			length = scanner.readString(value, maxLength) ? value.length() : value.length() + scanner.countRemainingString();
+		} else if (c == '{' || c == '[') {
+			length = scanner.readRaw(value, c, maxLength);
+		} else {
+			length = scanner.readLiteral(value, c, maxLength);
+
+			if ("null".contentEquals(value)) {
+				return null;
+			}
+		}
+
+		if (length > maxLength) {
+			throw new ParameterTooLong("Parameter '" + parameter.getName() + "' has a max length of " + maxLength + " but is " + length);
+		}
+
+		return value.toString();
+	}
+
+	/**
+	 * Buffered character scanner on the request reader.
+	 */
+	protected static class Scanner
+	{
+
+		protected final Reader reader;
+		protected final char[] buffer = new char[BUFFER_SIZE];
+		protected int position;
+		protected int limit;
+		protected long offset;
+
+		protected Scanner(Reader reader)
+		{
+			this.reader = reader;
+		}
+
+		protected int next() throws IOException
+		{
+			if (position == limit) {
+
+				offset += limit;
+				limit = reader.read(buffer, 0, buffer.length);
+				position = 0;
+
+				if (limit <= 0) {
+					limit = 0;
+					return -1;
+				}
+			}
+
+			return buffer[position++];
+		}
+
+		protected void back()
+		{
+			position--;
+		}
+
+		protected int nextNonWhitespace() throws IOException
+		{
+			int c;
+			do {
+				c = next();
+			} while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+
+			return c;
+		}
+
+		protected InvalidParameter error(String message)
+		{
+			return new InvalidParameter("Invalid JSON request body at " + (offset + position) + " - " + message);
+		}
+
+		protected int nextInString() throws IOException, InvalidParameter
+		{
+			int c = next();
+
+			if (c == -1) {
+				throw error("Unterminated string");
+			}
+
+			return c;
+		}
+
+		/**
+		 * Reads and unescapes the string following an opening quote into the target.
+		 *
+		 * @return false if the string had more than maxLength chars - the target then contains the first maxLength
+		 * chars and the rest of the string is not consumed yet
+		 */
+		protected boolean readString(StringBuilder target, long maxLength) throws IOException, InvalidParameter
+		{
+			while (true) {
+
+				int c = nextInString();
+
+				if (c == '"') {
+					return true;
+				}
+
+				if (target.length() >= maxLength) {
+					back();
+					return false;
+				}
+
+				if (c == '\\') {
+					c = readEscape();
+				}
+
+				target.append((char) c);
+			}
+		}
+
+		/**
+		 * Consumes the rest of a string counting its unescaped chars.
+		 */
+		protected long countRemainingString() throws IOException, InvalidParameter
+		{
+			long count = 0;
+
+			while (true) {
+
+				int c = nextInString();
+
+				if (c == '"') {
+					return count;
+				}
+
+				if (c == '\\') {
+					readEscape();
+				}
+
+				count++;
+			}
+		}
+
+		protected int readEscape() throws IOException, InvalidParameter
+		{
+			int c = nextInString();
+
+			switch (c) {
+				case 'b':
+					return '\b';
+				case 't':
+					return '\t';
+				case 'n':
+					return '\n';
+				case 'f':
+					return '\f';
+				case 'r':
+					return '\r';
+				case 'u':
+					int code = 0;
+					for (int i = 0; i < 4; ++i) {
+						int digit = Character.digit(nextInString(), 16);
+						if (digit == -1) {
+							throw error("Invalid unicode escape");
+						}
+						code = (code << 4) | digit;
+					}
+					return code;
+				case '"':
+				case '\\':
+				case '/':
+					return c;
+				default:
+					throw error("Invalid escape '" + (char) c + "'");
+			}
+		}
+
+		/**
+		 * Reads a literal (number, true, false, null) starting with c.
+		 *
+		 * @return the length of the literal
+		 */
+		protected long readLiteral(StringBuilder target, int c, long maxLength) throws IOException, InvalidParameter
+		{
+			long length = 0;
+
+			while (c != -1 && c != ',' && c != '}' && c != ']' && c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+
+				if (c == '"' || c == '{' || c == '[' || c == ':') {
+					throw error("Unexpected '" + (char) c + "'");
+				}
+
+				if (length < maxLength) {
+					target.append((char) c);
+				}
+
+				length++;
+				c = next();
+			}
+
+			if (length == 0) {
+				throw error("Expected value");
+			}
+
+			if (c != -1) {
+				back();
+			}
+
+			return length;
+		}
+
+		/**
+		 * Reads a nested object or array starting with c as raw JSON.
+		 *
+		 * @return the length of the raw JSON
+		 */
+		protected long readRaw(StringBuilder target, int c, long maxLength) throws IOException, InvalidParameter
+		{
+			long length = 0;
+			int depth = 0;
+			boolean inString = false;
+
+			while (true) {
+
+				if (c == -1) {
+					throw error("Unterminated value");
+				}
+
+				if (length < maxLength) {
+					target.append((char) c);
+				}
+
+				length++;
+
+				if (inString) {
+					if (c == '\\') {
+						c = nextInString();
+						if (length < maxLength) {
+							target.append((char) c);
+						}
+						length++;
+					} else if (c == '"') {
+						inString = false;
+					}
+				} else if (c == '"') {
+					inString = true;
+				} else if (c == '{' || c == '[') {
+					depth++;
+				} else if (c == '}' || c == ']') {
+					depth--;
+					if (depth == 0) {
+						return length;
+					}
+				}
+
+				c = next();
+			}
+		}
+
+		/**
+		 * Skips the value starting with c without materializing it.
+		 */
+		protected void skipValue(int c) throws IOException, InvalidParameter
+		{
+			if (c == '"') {
+				countRemainingString();
+			} else if (c == '{' || c == '[') {
+
+				int depth = 0;
+				boolean inString = false;
+
+				while (true) {
+
+					if (c == -1) {
+						throw error("Unterminated value");
+					}
+
+					if (inString) {
+						if (c == '\\') {
+							nextInString();
+						} else if (c == '"') {
+							inString = false;
+						}
+					} else if (c == '"') {
+						inString = true;
+					} else if (c == '{' || c == '[') {
+						depth++;
+					} else if (c == '}' || c == ']') {
+						depth--;
+						if (depth == 0) {
+							return;
+						}
+					}
+
+					c = next();
+				}
+			} else {
+				readLiteral(new StringBuilder(0), c, 0);
+			}
+		}
+	}
+}
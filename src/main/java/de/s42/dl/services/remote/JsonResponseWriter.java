@@ -0,0 +1,192 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.dl.DLCore;
+import de.s42.dl.DLInstance;
+import de.s42.dl.exceptions.DLException;
+import de.s42.dl.io.json.JsonWriter;
+import de.s42.dl.services.database.query.DefaultQueryResult;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Serializes service results as JSON directly into an output stream. Collections and the result list of a
+ * DefaultQueryResult are written element by element, so just the JSON tree of the current element is held in memory
+ * instead of the tree and string of the whole result.
+ *
+ * @author Benjamin Schiller
+ */
+public class JsonResponseWriter implements ResponseWriter
+{
+
+	public final static String CONTENT_TYPE = "application/json";
+
+	protected final DLCore core;
+	protected final boolean fullTypeNames;
+
+	public JsonResponseWriter(DLCore core, boolean fullTypeNames)
+	{
+		assert core != null;
+
+		this.core = core;
+		this.fullTypeNames = fullTypeNames;
+	}
+
+	@Override
+	public String getContentType()
+	{
+		return CONTENT_TYPE;
+	}
+
+	/**
+	 * Writes the given result as JSON into out and flushes it - see ResponseWriter.write.
+	 *
+	 * @param result
+	 * @param out
+	 *
+	 * @return the number of bytes written
+	 *
+	 * @throws IOException
+	 * @throws DLException
+	 */
+	@Override
+	public long write(Object result, OutputStream out) throws IOException, DLException
+	{
+		assert out != null;
+
+		try (Utf8Writer writer = new Utf8Writer(out)) {
+			writeValue(result, writer);
+			writer.flush();
+			return writer.getBytesWritten();
+		}
+	}
+
+	public void writeValue(Object value, Writer writer) throws IOException, DLException
+	{
+		assert writer != null;
+
+		if (value == null) {
+			writer.write("null");
+		} else if (value instanceof JSONObject json) {
+			json.write(writer);
+		} else if (value instanceof JSONArray json) {
+			json.write(writer);
+		} else if (value instanceof String str) {
+			JSONObject.quote(str, writer);
+		} else if (value instanceof Number number) {
+			writer.write(JSONObject.numberToString(number));
+		} else if (value instanceof Boolean bool) {
+			writer.write(bool.toString());
+		} else if (value instanceof UUID || value instanceof Enum) {
+			JSONObject.quote(value.toString(), writer);
+		} else if (value instanceof DLInstance instance) {
+			JsonWriter.toJSON(core, instance, fullTypeNames).write(writer);
+		} else if (value instanceof Iterable iterable) {
+			writeArray(iterable, writer);
+		} else if (value instanceof Object[] array) {
+			writeArray(Arrays.asList(array), writer);
+		} else if (value.getClass().equals(DefaultQueryResult.class)) {
+			writeQueryResult((DefaultQueryResult<?>) value, writer);
+		} else {
+			JsonWriter.toJSON(core, core.convertFromJavaObject(value), fullTypeNames).write(writer);
+		}
+	}
+
+	protected void writeArray(Iterable<?> values, Writer writer) throws IOException, DLException
+	{
+		writer.write('[');
+
+		boolean first = true;
+		for (Object value : values) {
+
+			if (!first) {
+				writer.write(',');
+			}
+
+			writeValue(value, writer);
+			first = false;
+		}
+
+		writer.write(']');
+	}
+
+	/**
+	 * Converts the query result without its entries to keep the DL representation of the result and streams the
+	 * entries into its result attribute.
+	 *
+	 * @param queryResult
+	 * @param writer
+	 *
+	 * @throws IOException
+	 * @throws DLException
+	 */
+	protected void writeQueryResult(DefaultQueryResult<?> queryResult, Writer writer) throws IOException, DLException
+	{
+		DefaultQueryResult<Object> shell = new DefaultQueryResult<>();
+		shell.setTotalCount(queryResult.getTotalCount());
+		shell.setLimit(queryResult.getLimit());
+		shell.setOffset(queryResult.getOffset());
+		shell.setResult(Collections.emptyList());
+
+		JSONObject json = JsonWriter.toJSON(core, core.convertFromJavaObject(shell), fullTypeNames);
+
+		// Unknown representation -> convert the whole result
+		if (!json.has("result") || queryResult.getResult() == null) {
+			JsonWriter.toJSON(core, core.convertFromJavaObject(queryResult), fullTypeNames).write(writer);
+			return;
+		}
+
+		writer.write('{');
+
+		boolean first = true;
+		for (String key : json.keySet()) {
+
+			if (!first) {
+				writer.write(',');
+			}
+
+			JSONObject.quote(key, writer);
+			writer.write(':');
+
+			if ("result".equals(key)) {
+				writeArray(queryResult.getResult(), writer);
+			} else {
+				writer.write(JSONObject.valueToString(json.get(key)));
+			}
+
+			first = false;
+		}
+
+		writer.write('}');
+	}
+}
@@ -29,11 +29,18 @@ import de.s42.dl.services.DLMethod;
 import de.s42.dl.services.DLMethod.MethodType;
 import de.s42.dl.services.DLParameter;
 import de.s42.dl.services.l10n.LocalizationService;
+import de.s42.dl.services.metrics.MethodMetrics;
+import de.s42.dl.services.permission.PermissionSet;
+import de.s42.log.LogManager;
+import de.s42.log.Logger;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -43,6 +50,8 @@ import java.util.List;
 public class MethodDescriptor implements Comparable<MethodDescriptor>
 {
 
+	private final static Logger log = LogManager.getLogger(MethodDescriptor.class.getName());
+
 	protected final ServiceDescriptor service;
 
 	protected final Method method;
@@ -59,7 +68,43 @@ public class MethodDescriptor implements Comparable<MethodDescriptor>
 
 	protected final ParameterDescriptor[] staticParameters;
 
+	protected final String[] pathParameters;
+
+	protected final MethodInvoker invoker;
+
+	protected final boolean requiresUserLoggedIn;
+
+	protected final PermissionSet requiredPermissions;
+
+	protected final JsonParameterBinder jsonParameterBinder;
+
+	protected final CborParameterBinder cborParameterBinder;
+
+	protected final boolean cacheable;
+
+	protected final SingleFlight singleFlight;
+
+	protected final MethodMetrics metrics = new MethodMetrics();
+
+	protected RateLimiter rateLimiter;
+
+	protected ConcurrencyLimiter concurrencyLimiter;
+
+	protected final ConcurrencyLimiter.LatencyBaseline latencyBaseline = new ConcurrencyLimiter.LatencyBaseline();
+
 	public MethodDescriptor(ServiceDescriptor service, Method method, LocalizationService localizationService)
+	{
+		this(service, method, localizationService, null);
+	}
+
+	/**
+	 * @param service
+	 * @param method
+	 * @param localizationService
+	 * @param invoker invoker of the method (i.e. of a generated ServiceDispatcher) - null creates one based on a method
+	 * handle
+	 */
+	public MethodDescriptor(ServiceDescriptor service, Method method, LocalizationService localizationService, MethodInvoker invoker)
 	{
 		assert service != null;
 		assert method != null;
@@ -97,6 +142,93 @@ public class MethodDescriptor implements Comparable<MethodDescriptor>
 
 		parameters = params.toArray(ParameterDescriptor[]::new);
 		staticParameters = staticParams.toArray(ParameterDescriptor[]::new);
+
+		// Path parameters have to refer to static parameters
+		pathParameters = dlMethod.pathParameters();
+
+		for (String pathParameter : pathParameters) {
+
+			boolean found = false;
+			for (ParameterDescriptor staticParam : staticParameters) {
+				if (staticParam.getName().equals(pathParameter)) {
+					found = true;
+					break;
+				}
+			}
+
+			if (!found) {
+				throw new RuntimeException("Path parameter '" + pathParameter + "' in method " + method + " has to be a static parameter");
+			}
+		}
+
+		this.invoker = (invoker != null) ? invoker : createInvoker();
+
+		// Combine the permission requirements of service and method once
+		requiresUserLoggedIn = service.isUserLoggedIn() || dlMethod.userLoggedIn();
+
+		List<String> permissions = new ArrayList<>();
+		permissions.addAll(Arrays.asList(service.getPermissions()));
+		permissions.addAll(Arrays.asList(dlMethod.permissions()));
+		requiredPermissions = PermissionSet.intern(permissions);
+
+		jsonParameterBinder = new JsonParameterBinder(staticParameters);
+		cborParameterBinder = new CborParameterBinder(staticParameters);
+
+		// Results can just be cached on server side if they are fully defined by the static parameters
+		cacheable = dlMethod.ttl() > 0
+			&& staticParameters.length == parameters.length
+			&& !isNeedsMultiPartUpload();
+
+		// Same for sharing results of concurrent calls
+		singleFlight = (dlMethod.coalesce()
+			&& staticParameters.length == parameters.length
+			&& !isNeedsMultiPartUpload()) ? new SingleFlight() : null;
+	}
+
+	/**
+	 * Creates an invoker based on a spread method handle. It avoids the access checks and the exception wrapping of
+	 * Method.invoke - the handle is no JIT constant though, so the method is not inlined into the caller. Services
+	 * compiled with the DLServiceProcessor get dispatchers calling their methods directly instead (see
+	 * MethodInvokerBenchmark in the tests). Falls back to a reflective invoker if the method is not accessible as public
+	 * method handle (i.e. the service class is not public or its package is not exported).
+	 *
+	 * @return
+	 */
+	protected MethodInvoker createInvoker()
+	{
+		try {
+			MethodHandle handle = MethodHandles.publicLookup()
+				.unreflect(method)
+				.asSpreader(Object[].class, method.getParameterCount())
+				.asType(java.lang.invoke.MethodType.methodType(Object.class, Object.class, Object[].class));
+
+			return (service, parameters) -> (Object) handle.invokeExact(service, parameters);
+		} catch (IllegalAccessException ex) {
+
+			log.warn("Falling back to reflective invocation for", method, ex.getMessage());
+
+			return (service, parameters) -> {
+				try {
+					return method.invoke(service, parameters);
+				} catch (InvocationTargetException ex2) {
+					throw ex2.getCause();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Invokes the method using its invoker. Exceptions thrown by the method are not wrapped.
+	 *
+	 * @param parameters
+	 *
+	 * @return
+	 *
+	 * @throws Throwable
+	 */
+	public Object invoke(Object... parameters) throws Throwable
+	{
+		return invoker.invoke(getService().getService(), parameters);
 	}
 
 	public Object call(Object... parameters) throws IllegalAccessException, InvocationTargetException
@@ -129,6 +261,36 @@ public class MethodDescriptor implements Comparable<MethodDescriptor>
 		return dlMethod.permissions();
 	}
 
+	/**
+	 * Returns true if the service or the method require a logged in user.
+	 *
+	 * @return
+	 */
+	public boolean isRequiresUserLoggedIn()
+	{
+		return requiresUserLoggedIn;
+	}
+
+	/**
+	 * Returns the combined permissions of the service and the method.
+	 *
+	 * @return
+	 */
+	public PermissionSet getRequiredPermissions()
+	{
+		return requiredPermissions;
+	}
+
+	public JsonParameterBinder getJsonParameterBinder()
+	{
+		return jsonParameterBinder;
+	}
+
+	public CborParameterBinder getCborParameterBinder()
+	{
+		return cborParameterBinder;
+	}
+
 	public ParameterDescriptor[] getParameters()
 	{
 		return parameters;
@@ -144,6 +306,21 @@ public class MethodDescriptor implements Comparable<MethodDescriptor>
 		return staticParameters;
 	}
 
+	public MethodInvoker getInvoker()
+	{
+		return invoker;
+	}
+
+	public String[] getPathParameters()
+	{
+		return pathParameters;
+	}
+
+	public boolean isHasPathParameters()
+	{
+		return pathParameters.length > 0;
+	}
+
 	public boolean hasParameterOfType(Class type)
 	{
 		for (ParameterDescriptor parameter : getStaticParameters()) {
@@ -193,6 +370,79 @@ public class MethodDescriptor implements Comparable<MethodDescriptor>
 		return dlMethod.ttl();
 	}
 
+	/**
+	 * @return deadline of a call in ms - 0 inherits the remote service config
+	 */
+	public int getTimeout()
+	{
+		return dlMethod.timeout();
+	}
+
+	public boolean isCacheable()
+	{
+		return cacheable;
+	}
+
+	public boolean isCoalescing()
+	{
+		return singleFlight != null;
+	}
+
+	/**
+	 * @return the coalescing of concurrent calls or null if the method does not coalesce
+	 */
+	public SingleFlight getSingleFlight()
+	{
+		return singleFlight;
+	}
+
+	public MethodMetrics getMetrics()
+	{
+		return metrics;
+	}
+
+	/**
+	 * @return the rate limiter of the method or null if it is not limited
+	 */
+	public RateLimiter getRateLimiter()
+	{
+		return rateLimiter;
+	}
+
+	public void setRateLimiter(RateLimiter rateLimiter)
+	{
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * @return the bulkhead of the method (its own or the one of its service) or null if it is not limited
+	 */
+	public ConcurrencyLimiter getConcurrencyLimiter()
+	{
+		return concurrencyLimiter;
+	}
+
+	/**
+	 * @return true if the method has its own bulkhead instead of sharing the one of the service
+	 */
+	public boolean isOwnConcurrencyLimiter()
+	{
+		return concurrencyLimiter != null && concurrencyLimiter != service.getConcurrencyLimiter();
+	}
+
+	public void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter)
+	{
+		this.concurrencyLimiter = concurrencyLimiter;
+	}
+
+	/**
+	 * @return the latency baseline of this method within its bulkhead
+	 */
+	public ConcurrencyLimiter.LatencyBaseline getLatencyBaseline()
+	{
+		return latencyBaseline;
+	}
+
 	@Override
 	public int compareTo(MethodDescriptor o)
 	{
@@ -238,6 +488,11 @@ public class MethodDescriptor implements Comparable<MethodDescriptor>
 			}
 		}
 
+		// HEAD is allowed wherever GET is
+		if ("HEAD".equalsIgnoreCase(method)) {
+			return isAllowedMethod("GET");
+		}
+
 		return false;
 	}
 }
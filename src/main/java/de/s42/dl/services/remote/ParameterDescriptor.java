@@ -25,10 +25,16 @@
 //</editor-fold>
 package de.s42.dl.services.remote;
 
+import de.s42.base.conversion.ConversionHelper;
+import de.s42.base.validation.ValidationHelper;
 import de.s42.dl.services.DLParameter;
 import de.s42.dl.services.DLParameter.Validation;
 import de.s42.dl.services.l10n.LocalizationService;
 import java.lang.reflect.Parameter;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 /**
  *
@@ -37,6 +43,13 @@ import java.lang.reflect.Parameter;
 public class ParameterDescriptor
 {
 
+	@FunctionalInterface
+	protected interface Converter
+	{
+
+		public Object convert(Object value) throws Exception;
+	}
+
 	protected final ServiceDescriptor service;
 
 	protected final MethodDescriptor method;
@@ -53,6 +66,14 @@ public class ParameterDescriptor
 
 	protected final boolean isStatic;
 
+	protected final Pattern pattern;
+
+	protected final Predicate<String> validator;
+
+	protected final String validationMessage;
+
+	protected final Converter converter;
+
 	public ParameterDescriptor(ServiceDescriptor service, MethodDescriptor method, Parameter parameter, LocalizationService localizationService)
 	{
 		assert service != null;
@@ -74,6 +95,118 @@ public class ParameterDescriptor
 		description = dlParameter.description();
 
 		isStatic = !name.startsWith("$");
+
+		// Compile pattern, validator and converter once
+		if (dlParameter.validation().equals(Validation.Pattern)) {
+			pattern = Pattern.compile(dlParameter.pattern());
+		} else {
+			pattern = null;
+		}
+
+		validator = createValidator();
+		validationMessage = createValidationMessage();
+		converter = createConverter();
+	}
+
+	protected Predicate<String> createValidator()
+	{
+		Validation validation = dlParameter.validation();
+
+		if (validation.equals(Validation.UUID)) {
+			return ValidationHelper::isUUID;
+		} else if (validation.equals(Validation.Email)) {
+			return ValidationHelper::isEmailAddress;
+		} else if (validation.equals(Validation.Pattern)) {
+			return value -> pattern.matcher(value).matches();
+		}
+
+		return null;
+	}
+
+	protected String createValidationMessage()
+	{
+		Validation validation = dlParameter.validation();
+
+		if (validation.equals(Validation.UUID)) {
+			return "Parameter " + getName() + " is not a UUID ";
+		} else if (validation.equals(Validation.Email)) {
+			return "Parameter " + getName() + " is not a Email ";
+		} else if (validation.equals(Validation.Pattern)) {
+			return "Parameter " + getName() + " is not of pattern " + dlParameter.pattern();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Resolves a specialized parser for string values of common types. Other values and types are converted using
+	 * ConversionHelper.
+	 *
+	 * @return
+	 */
+	protected Converter createConverter()
+	{
+		Class type = getType();
+		Function<String, Object> parser;
+
+		if (String.class.equals(type)) {
+			parser = value -> value;
+		} else if (UUID.class.equals(type)) {
+			parser = UUID::fromString;
+		} else if (Integer.class.equals(type) || int.class.equals(type)) {
+			parser = Integer::valueOf;
+		} else if (Long.class.equals(type) || long.class.equals(type)) {
+			parser = Long::valueOf;
+		} else if (Double.class.equals(type) || double.class.equals(type)) {
+			parser = Double::valueOf;
+		} else if (Float.class.equals(type) || float.class.equals(type)) {
+			parser = Float::valueOf;
+		} else {
+			return value -> ConversionHelper.convert(value, type);
+		}
+
+		return value -> {
+			if (value instanceof String str) {
+				return parser.apply(str);
+			}
+
+			return ConversionHelper.convert(value, type);
+		};
+	}
+
+	/**
+	 * Validates the given value with the validation of the parameter.
+	 *
+	 * @param value not null
+	 *
+	 * @throws InvalidParameter if the value does not validate
+	 */
+	public void validate(String value) throws InvalidParameter
+	{
+		assert value != null;
+
+		if (validator != null && !validator.test(value)) {
+			throw new InvalidParameter(validationMessage);
+		}
+	}
+
+	/**
+	 * Converts the given value into the type of the parameter.
+	 *
+	 * @param value
+	 *
+	 * @return
+	 *
+	 * @throws InvalidParameter if the value can not be converted
+	 */
+	@SuppressWarnings("UseSpecificCatch")
+	public Object convert(Object value) throws InvalidParameter
+	{
+		try {
+			return converter.convert(value);
+		} catch (Exception ex) {
+			throw new InvalidParameter("Error converting '" + getName() + "' - " + ex.getMessage(), ex);
+		}
 	}
 
 	public boolean isStatic()
@@ -121,6 +254,11 @@ public class ParameterDescriptor
 		return dlParameter.pattern();
 	}
 
+	public Pattern getCompiledPattern()
+	{
+		return pattern;
+	}
+
 	public Class getType()
 	{
 		return parameter.getType();
@@ -0,0 +1,158 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.dl.services.RateLimitKey;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket per key implemented as generic cell rate algorithm - each bucket is a single theoretical
+ * arrival time updated by CAS. A bucket whose arrival time has passed is full and can be evicted without changing the
+ * limit.
+ *
+ * @author Benjamin Schiller
+ */
+public class RateLimiter
+{
+
+	protected final int rate;
+
+	protected final int burst;
+
+	protected final RateLimitKey key;
+
+	/**
+	 * Nanos per permit
+	 */
+	protected final long emissionInterval;
+
+	/**
+	 * Nanos the arrival time may be ahead of now
+	 */
+	protected final long burstTolerance;
+
+	protected final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+	/**
+	 * @param rate permits per minute
+	 * @param burst max permits at once
+	 * @param key
+	 */
+	public RateLimiter(int rate, int burst, RateLimitKey key)
+	{
+		assert rate > 0;
+		assert burst > 0;
+		assert key != null;
+
+		this.rate = rate;
+		this.burst = burst;
+		this.key = key;
+
+		emissionInterval = TimeUnit.MINUTES.toNanos(1) / rate;
+		burstTolerance = emissionInterval * (burst - 1);
+	}
+
+	/**
+	 * Tries to take a permit for the given key.
+	 *
+	 * @param bucketKey
+	 *
+	 * @return 0 if permitted or the nanos until the next permit is available
+	 */
+	public long acquire(String bucketKey)
+	{
+		assert bucketKey != null;
+
+		AtomicLong bucket = buckets.get(bucketKey);
+
+		if (bucket == null) {
+			bucket = buckets.computeIfAbsent(bucketKey, (k) -> new AtomicLong(System.nanoTime()));
+		}
+
+		long now = System.nanoTime();
+
+		while (true) {
+
+			long arrival = bucket.get();
+			long base = (arrival - now > 0) ? arrival : now;
+
+			if (base - now > burstTolerance) {
+				return base - now - burstTolerance;
+			}
+
+			if (bucket.compareAndSet(arrival, base + emissionInterval)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * @param waitNanos nanos until the next permit is available
+	 *
+	 * @return the wait rounded up to full seconds as used in Retry-After - at least 1
+	 */
+	public static long getRetryAfterSeconds(long waitNanos)
+	{
+		return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+	}
+
+	/**
+	 * Removes all buckets which are full again.
+	 *
+	 * @return count of removed buckets
+	 */
+	public int sweep()
+	{
+		long now = System.nanoTime();
+		int before = buckets.size();
+
+		buckets.values().removeIf((bucket) -> bucket.get() - now <= 0);
+
+		return before - buckets.size();
+	}
+
+	public int getBucketCount()
+	{
+		return buckets.size();
+	}
+
+	public int getRate()
+	{
+		return rate;
+	}
+
+	public int getBurst()
+	{
+		return burst;
+	}
+
+	public RateLimitKey getKey()
+	{
+		return key;
+	}
+}
@@ -0,0 +1,232 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.log.LogManager;
+import de.s42.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import javax.servlet.http.Part;
+
+/**
+ * Receives the uploaded parts of one request. Each part is moved into a temp file while enforcing the limits - or
+ * copied and hashed in a single pass if a hash algorithm is set. All temp files which still exist at the end of the request get deleted in cleanup.
+ *
+ * @author Benjamin Schiller
+ */
+public class RequestUploads
+{
+
+	private final static Logger log = LogManager.getLogger(RequestUploads.class.getName());
+
+	public final static String REQUEST_ATTRIBUTE = "_uploads";
+
+	protected final File tempFolder;
+
+	protected final long maxTotalSize;
+
+	protected final String hashAlgorithm;
+
+	protected final List<Path> tempFiles = new ArrayList<>();
+
+	protected long totalSize;
+
+	/**
+	 * @param tempFolder folder for the temp files - null uses the default temp folder
+	 * @param maxTotalSize max bytes of all parts of the request - 0 is unlimited
+	 * @param hashAlgorithm MessageDigest algorithm - null or empty disables hashing
+	 */
+	public RequestUploads(File tempFolder, long maxTotalSize, String hashAlgorithm)
+	{
+		assert maxTotalSize >= 0;
+
+		this.tempFolder = tempFolder;
+		this.maxTotalSize = maxTotalSize;
+		this.hashAlgorithm = (hashAlgorithm != null && !hashAlgorithm.isBlank()) ? hashAlgorithm : null;
+	}
+
+	protected void addSize(long size) throws UploadTooLarge
+	{
+		totalSize += size;
+
+		if (maxTotalSize > 0 && totalSize > maxTotalSize) {
+			throw new UploadTooLarge("Uploads of a request have a max size of " + maxTotalSize);
+		}
+	}
+
+	protected Path createTempFile() throws IOException
+	{
+		Path tempFile = File.createTempFile("dl-", "", tempFolder).toPath();
+
+		tempFiles.add(tempFile);
+
+		return tempFile;
+	}
+
+	/**
+	 * Moves the part into a new temp file - if a hash algorithm is set the part gets copied and hashed in one pass.
+	 *
+	 * @param part
+	 * @param name
+	 * @param maxLength
+	 *
+	 * @return the reference to the temp file
+	 *
+	 * @throws IOException
+	 * @throws ParameterTooLong if the part exceeds maxLength
+	 * @throws UploadTooLarge if the parts of the request exceed the total size
+	 */
+	public synchronized FileRef receive(Part part, String name, long maxLength) throws IOException, ParameterTooLong, UploadTooLarge
+	{
+		assert part != null;
+		assert name != null;
+
+		// The container knows the size up front - fail before touching the disk
+		long size = part.getSize();
+
+		if (size > maxLength) {
+			throw new ParameterTooLong("Parameter '" + name + "' has a max length of " + maxLength + " but is " + size);
+		}
+
+		if (maxTotalSize > 0 && totalSize + size > maxTotalSize) {
+			throw new UploadTooLarge("Uploads of a request have a max size of " + maxTotalSize);
+		}
+
+		Path tempFile = createTempFile();
+
+		FileRef ref = new FileRef(tempFile, part.getContentType(), part.getSubmittedFileName(), null, true);
+
+		if (hashAlgorithm != null) {
+			ref.setSize(copy(part, tempFile, name, maxLength, ref));
+			return ref;
+		}
+
+		// The container moves its own copy of the part if it spooled it to disk
+		part.write(tempFile.toAbsolutePath().toString());
+		addSize(size);
+		ref.setSize(size);
+
+		return ref;
+	}
+
+	/**
+	 * Copies the part into the file and hashes it on the way - the limits are enforced on the bytes actually read.
+	 *
+	 * @param part
+	 * @param file
+	 * @param name
+	 * @param maxLength
+	 * @param ref receives the hash
+	 *
+	 * @return the bytes copied
+	 *
+	 * @throws IOException
+	 * @throws ParameterTooLong
+	 * @throws UploadTooLarge
+	 */
+	protected long copy(Part part, Path file, String name, long maxLength, FileRef ref) throws IOException, ParameterTooLong, UploadTooLarge
+	{
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(hashAlgorithm);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IOException("Hash algorithm '" + hashAlgorithm + "' is not supported", ex);
+		}
+
+		long copied = 0;
+
+		try (InputStream in = new DigestInputStream(part.getInputStream(), digest); OutputStream out = Files.newOutputStream(file)) {
+
+			byte[] buffer = new byte[65536];
+			int read;
+
+			while ((read = in.read(buffer)) != -1) {
+
+				copied += read;
+
+				if (copied > maxLength) {
+					throw new ParameterTooLong("Parameter '" + name + "' has a max length of " + maxLength);
+				}
+
+				if (maxTotalSize > 0 && totalSize + copied > maxTotalSize) {
+					throw new UploadTooLarge("Uploads of a request have a max size of " + maxTotalSize);
+				}
+
+				out.write(buffer, 0, read);
+			}
+		}
+
+		addSize(copied);
+
+		ref.setHash(HexFormat.of().formatHex(digest.digest()));
+		ref.setHashAlgorithm(hashAlgorithm);
+
+		return copied;
+	}
+
+	/**
+	 * Deletes all temp files of the request which have not been moved
+	 */
+	public synchronized void cleanup()
+	{
+		for (Path tempFile : tempFiles) {
+			try {
+				if (Files.deleteIfExists(tempFile)) {
+					log.debug("Deleted orphaned upload", tempFile);
+				}
+			} catch (IOException ex) {
+				log.warn("Could not delete upload", tempFile, ex.getMessage());
+			}
+		}
+
+		tempFiles.clear();
+	}
+
+	public synchronized long getTotalSize()
+	{
+		return totalSize;
+	}
+
+	public long getMaxTotalSize()
+	{
+		return maxTotalSize;
+	}
+
+	public String getHashAlgorithm()
+	{
+		return hashAlgorithm;
+	}
+}
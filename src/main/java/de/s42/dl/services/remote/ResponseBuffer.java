@@ -0,0 +1,162 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Buffers a response body up to a limit, so headers depending on the whole body (i.e. ETag, Content-Length) can be
+ * set before sending it. If the limit is exceeded the buffered bytes and all following are passed to the stream
+ * returned by the overflow handler.
+ *
+ * @author Benjamin Schiller
+ */
+public class ResponseBuffer extends OutputStream
+{
+
+	@FunctionalInterface
+	public static interface OverflowHandler
+	{
+
+		public OutputStream overflow() throws IOException;
+	}
+
+	protected final int limit;
+
+	protected final OverflowHandler overflowHandler;
+
+	protected byte[] buffer;
+
+	protected int count;
+
+	protected OutputStream target;
+
+	public ResponseBuffer(int limit, OverflowHandler overflowHandler)
+	{
+		assert limit >= 0;
+		assert overflowHandler != null;
+
+		this.limit = limit;
+		this.overflowHandler = overflowHandler;
+
+		buffer = new byte[Math.min(limit, 8192)];
+	}
+
+	protected void overflow() throws IOException
+	{
+		target = overflowHandler.overflow();
+		target.write(buffer, 0, count);
+		buffer = null;
+		count = 0;
+	}
+
+	protected void ensureCapacity(int length) throws IOException
+	{
+		int required = count + length;
+
+		if (required > limit) {
+			overflow();
+			return;
+		}
+
+		if (required > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(required, buffer.length * 2)));
+		}
+	}
+
+	@Override
+	public void write(int b) throws IOException
+	{
+		if (target == null) {
+			ensureCapacity(1);
+		}
+
+		if (target != null) {
+			target.write(b);
+			return;
+		}
+
+		buffer[count++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] data, int offset, int length) throws IOException
+	{
+		if (target == null) {
+			ensureCapacity(length);
+		}
+
+		if (target != null) {
+			target.write(data, offset, length);
+			return;
+		}
+
+		System.arraycopy(data, offset, buffer, count, length);
+		count += length;
+	}
+
+	@Override
+	public void flush() throws IOException
+	{
+		// Flushing a buffered body has no effect
+		if (target != null) {
+			target.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		if (target != null) {
+			target.close();
+		}
+	}
+
+	public boolean isOverflowed()
+	{
+		return target != null;
+	}
+
+	/**
+	 * @return the buffered bytes - just valid up to size() and if not overflowed
+	 */
+	public byte[] getBuffer()
+	{
+		return buffer;
+	}
+
+	public int size()
+	{
+		return count;
+	}
+
+	public int getLimit()
+	{
+		return limit;
+	}
+}
@@ -0,0 +1,317 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of serialized responses of methods with a ttl. Entries expire after the ttl of their method and are
+ * evicted least recently used first if the max number of entries or bytes is exceeded.
+ *
+ * @author Benjamin Schiller
+ */
+public class ResponseCache
+{
+
+	public static class Entry
+	{
+
+		protected final String service;
+		protected final String method;
+		protected final byte[] body;
+		protected final String contentType;
+		protected final long expires;
+		protected final String etag;
+
+		public Entry(String service, String method, byte[] body, String contentType, long expires)
+		{
+			assert service != null;
+			assert method != null;
+			assert body != null;
+			assert contentType != null;
+
+			this.service = service;
+			this.method = method;
+			this.body = body;
+			this.contentType = contentType;
+			this.expires = expires;
+
+			etag = ETagHelper.createETag(body);
+		}
+
+		public boolean isExpired(long now)
+		{
+			return now >= expires;
+		}
+
+		/**
+		 * @param now
+		 *
+		 * @return remaining time to live in seconds
+		 */
+		public int getRemainingTtl(long now)
+		{
+			return (int) Math.max(0, (expires - now) / 1000);
+		}
+
+		public String getService()
+		{
+			return service;
+		}
+
+		public String getMethod()
+		{
+			return method;
+		}
+
+		public byte[] getBody()
+		{
+			return body;
+		}
+
+		public String getContentType()
+		{
+			return contentType;
+		}
+
+		public long getExpires()
+		{
+			return expires;
+		}
+
+		public String getETag()
+		{
+			return etag;
+		}
+	}
+
+	protected final int maxEntries;
+
+	protected final long maxBytes;
+
+	protected final int maxEntrySize;
+
+	protected final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+	protected long bytes;
+
+	protected long hits;
+
+	protected long misses;
+
+	public ResponseCache(int maxEntries, long maxBytes, int maxEntrySize)
+	{
+		assert maxEntries > 0;
+		assert maxBytes > 0;
+		assert maxEntrySize > 0;
+
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		this.maxEntrySize = maxEntrySize;
+	}
+
+	/**
+	 * Creates the cache key of a call - the parameters have to be the resolved static parameters of the method. Each value
+	 * is prefixed by its length so no parameter content can shift into the next one.
+	 *
+	 * @param method
+	 * @param parameters
+	 *
+	 * @return
+	 */
+	public static String createKey(MethodDescriptor method, Object[] parameters)
+	{
+		assert method != null;
+		assert parameters != null;
+
+		StringBuilder key = new StringBuilder(64)
+			.append(method.getService().getName())
+			.append('/')
+			.append(method.getName());
+
+		for (Object parameter : parameters) {
+
+			// Mark null values distinct from ""
+			if (parameter == null) {
+				key.append("/-");
+			} else {
+				String value = parameter.toString();
+				key.append('/').append(value.length()).append(':').append(value);
+			}
+		}
+
+		return key.toString();
+	}
+
+	public synchronized Entry get(String key)
+	{
+		assert key != null;
+
+		Entry entry = entries.get(key);
+
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+
+		if (entry.isExpired(System.currentTimeMillis())) {
+			entries.remove(key);
+			bytes -= entry.body.length;
+			misses++;
+			return null;
+		}
+
+		hits++;
+
+		return entry;
+	}
+
+	/**
+	 * Puts the entry into the cache - too large entries are ignored.
+	 *
+	 * @param key
+	 * @param entry
+	 *
+	 * @return true if the entry got cached
+	 */
+	public synchronized boolean put(String key, Entry entry)
+	{
+		assert key != null;
+		assert entry != null;
+
+		if (entry.body.length > maxEntrySize) {
+			return false;
+		}
+
+		Entry old = entries.put(key, entry);
+
+		if (old != null) {
+			bytes -= old.body.length;
+		}
+
+		bytes += entry.body.length;
+
+		// Evict expired and least recently used entries
+		long now = System.currentTimeMillis();
+		Iterator<Entry> it = entries.values().iterator();
+		while (it.hasNext() && (entries.size() > maxEntries || bytes > maxBytes)) {
+
+			Entry eldest = it.next();
+
+			if (eldest != entry || eldest.isExpired(now)) {
+				it.remove();
+				bytes -= eldest.body.length;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Invalidates all cached responses of the given service
+	 *
+	 * @param service
+	 *
+	 * @return count of removed entries
+	 */
+	public synchronized int invalidate(String service)
+	{
+		assert service != null;
+
+		return invalidate(service, null);
+	}
+
+	/**
+	 * Invalidates all cached responses of the given method
+	 *
+	 * @param service
+	 * @param method null to invalidate all methods of the service
+	 *
+	 * @return count of removed entries
+	 */
+	public synchronized int invalidate(String service, String method)
+	{
+		assert service != null;
+
+		int count = 0;
+		Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+		while (it.hasNext()) {
+
+			Entry entry = it.next().getValue();
+
+			if (entry.service.equals(service) && (method == null || entry.method.equals(method))) {
+				it.remove();
+				bytes -= entry.body.length;
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	public synchronized void invalidateAll()
+	{
+		entries.clear();
+		bytes = 0;
+	}
+
+	public synchronized int getSize()
+	{
+		return entries.size();
+	}
+
+	public synchronized long getBytes()
+	{
+		return bytes;
+	}
+
+	public synchronized long getHits()
+	{
+		return hits;
+	}
+
+	public synchronized long getMisses()
+	{
+		return misses;
+	}
+
+	public int getMaxEntries()
+	{
+		return maxEntries;
+	}
+
+	public long getMaxBytes()
+	{
+		return maxBytes;
+	}
+
+	public int getMaxEntrySize()
+	{
+		return maxEntrySize;
+	}
+}
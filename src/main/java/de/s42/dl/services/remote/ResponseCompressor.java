@@ -0,0 +1,372 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negotiates and applies gzip/deflate content encoding. Compressed bodies of cacheable content are kept by their
+ * encoded ETag in a bounded LRU, so they get compressed just once.
+ *
+ * @author Benjamin Schiller
+ */
+public class ResponseCompressor
+{
+
+	public final static String GZIP = "gzip";
+	public final static String DEFLATE = "deflate";
+
+	protected final int level;
+
+	protected final int minSize;
+
+	protected final boolean deflate;
+
+	protected final long cacheMaxBytes;
+
+	protected final int cacheMaxEntrySize;
+
+	protected final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+	protected long cacheBytes;
+
+	public ResponseCompressor(int level, int minSize, boolean deflate, long cacheMaxBytes, int cacheMaxEntrySize)
+	{
+		assert level >= Deflater.BEST_SPEED && level <= Deflater.BEST_COMPRESSION;
+		assert minSize >= 0;
+		assert cacheMaxBytes >= 0;
+		assert cacheMaxEntrySize >= 0;
+
+		this.level = level;
+		this.minSize = minSize;
+		this.deflate = deflate;
+		this.cacheMaxBytes = cacheMaxBytes;
+		this.cacheMaxEntrySize = cacheMaxEntrySize;
+	}
+
+	/**
+	 * @param mimeType
+	 *
+	 * @return true if content of the mime type is text and benefits from compression
+	 */
+	public static boolean isCompressible(String mimeType)
+	{
+		if (mimeType == null) {
+			return false;
+		}
+
+		return mimeType.startsWith("text/")
+			|| mimeType.startsWith("application/json")
+			|| mimeType.startsWith("application/cbor")
+			|| mimeType.startsWith("application/javascript")
+			|| mimeType.startsWith("application/xml")
+			|| mimeType.startsWith("image/svg+xml")
+			|| mimeType.contains("+json")
+			|| mimeType.contains("+xml");
+	}
+
+	/**
+	 * Selects the content encoding from the Accept-Encoding header - gzip is preferred over deflate.
+	 *
+	 * @param acceptEncoding
+	 *
+	 * @return the encoding or null if no supported encoding is accepted
+	 */
+	public String negotiate(String acceptEncoding)
+	{
+		if (acceptEncoding == null || acceptEncoding.isBlank()) {
+			return null;
+		}
+
+		float gzipQ = -1;
+		float deflateQ = -1;
+		float anyQ = -1;
+
+		int length = acceptEncoding.length();
+		int start = 0;
+
+		while (start < length) {
+
+			int end = acceptEncoding.indexOf(',', start);
+
+			if (end == -1) {
+				end = length;
+			}
+
+			String coding = acceptEncoding.substring(start, end).trim();
+			float q = 1.0f;
+
+			int paramStart = coding.indexOf(';');
+
+			if (paramStart > -1) {
+
+				String param = coding.substring(paramStart + 1).trim();
+
+				if (param.startsWith("q=")) {
+					try {
+						q = Float.parseFloat(param.substring(2).trim());
+					} catch (NumberFormatException ex) {
+						q = 0.0f;
+					}
+				}
+
+				coding = coding.substring(0, paramStart).trim();
+			}
+
+			if (GZIP.equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+				gzipQ = q;
+			} else if (DEFLATE.equalsIgnoreCase(coding)) {
+				deflateQ = q;
+			} else if ("*".equals(coding)) {
+				anyQ = q;
+			}
+
+			start = end + 1;
+		}
+
+		if (gzipQ == -1) {
+			gzipQ = anyQ;
+		}
+
+		if (deflateQ == -1) {
+			deflateQ = anyQ;
+		}
+
+		if (gzipQ > 0 && (!deflate || gzipQ >= deflateQ)) {
+			return GZIP;
+		}
+
+		if (deflate && deflateQ > 0) {
+			return DEFLATE;
+		}
+
+		return null;
+	}
+
+	/**
+	 * @param etag strong ETag including quotes
+	 * @param encoding
+	 *
+	 * @return the ETag of the encoded representation
+	 */
+	public static String getEncodedETag(String etag, String encoding)
+	{
+		assert etag != null;
+		assert encoding != null;
+
+		return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+	}
+
+	/**
+	 * Wraps the stream into a compressing stream - closing it finishes the compression and closes the stream.
+	 *
+	 * @param out
+	 * @param encoding
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 */
+	public OutputStream compress(OutputStream out, String encoding) throws IOException
+	{
+		return compress(out, encoding, false);
+	}
+
+	/**
+	 * Wraps the stream into a compressing stream - closing it finishes the compression and closes the stream.
+	 *
+	 * @param out
+	 * @param encoding
+	 * @param syncFlush if true flush emits all data compressed so far (i.e. for streamed responses)
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 */
+	public OutputStream compress(OutputStream out, String encoding, boolean syncFlush) throws IOException
+	{
+		assert out != null;
+		assert encoding != null;
+
+		if (GZIP.equals(encoding)) {
+			return new GZIPOutputStream(out, 8192, syncFlush)
+			{
+				{
+					def.setLevel(level);
+				}
+			};
+		}
+
+		if (DEFLATE.equals(encoding)) {
+			return new DeflaterOutputStream(out, new Deflater(level), 8192, syncFlush)
+			{
+				@Override
+				public void close() throws IOException
+				{
+					try {
+						super.close();
+					} finally {
+						def.end();
+					}
+				}
+			};
+		}
+
+		throw new IllegalArgumentException("Encoding '" + encoding + "' is not supported");
+	}
+
+	public byte[] compress(byte[] body, int offset, int length, String encoding) throws IOException
+	{
+		assert body != null;
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, length / 4));
+
+		try (OutputStream out = compress(buffer, encoding)) {
+			out.write(body, offset, length);
+		}
+
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Creates the key of compressed bodies of stream results.
+	 *
+	 * @param resourceKey identity of the content source
+	 * @param encodedETag
+	 *
+	 * @return
+	 */
+	public static String createCacheKey(String resourceKey, String encodedETag)
+	{
+		assert resourceKey != null;
+		assert encodedETag != null;
+
+		return resourceKey.length() + ":" + resourceKey + encodedETag;
+	}
+
+	public synchronized byte[] getCached(String key)
+	{
+		assert key != null;
+
+		return cache.get(key);
+	}
+
+	/**
+	 * Keeps the compressed body if it fits into the cache
+	 *
+	 * @param key content hash ETag or a key of createCacheKey
+	 * @param compressed
+	 */
+	public synchronized void putCached(String key, byte[] compressed)
+	{
+		assert key != null;
+		assert compressed != null;
+
+		if (compressed.length > cacheMaxEntrySize) {
+			return;
+		}
+
+		byte[] old = cache.put(key, compressed);
+
+		if (old != null) {
+			cacheBytes -= old.length;
+		}
+
+		cacheBytes += compressed.length;
+
+		Iterator<Map.Entry<String, byte[]>> it = cache.entrySet().iterator();
+		while (it.hasNext() && cacheBytes > cacheMaxBytes) {
+			cacheBytes -= it.next().getValue().length;
+			it.remove();
+		}
+	}
+
+	/**
+	 * Returns the compressed body from the cache or compresses and caches it.
+	 *
+	 * @param encodedETag
+	 * @param body
+	 * @param offset
+	 * @param length
+	 * @param encoding
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 */
+	public byte[] getCompressed(String encodedETag, byte[] body, int offset, int length, String encoding) throws IOException
+	{
+		assert encodedETag != null;
+
+		byte[] compressed = getCached(encodedETag);
+
+		if (compressed == null) {
+			compressed = compress(body, offset, length, encoding);
+			putCached(encodedETag, compressed);
+		}
+
+		return compressed;
+	}
+
+	public synchronized long getCacheBytes()
+	{
+		return cacheBytes;
+	}
+
+	public synchronized void clearCache()
+	{
+		cache.clear();
+		cacheBytes = 0;
+	}
+
+	public int getLevel()
+	{
+		return level;
+	}
+
+	public int getMinSize()
+	{
+		return minSize;
+	}
+
+	public boolean isDeflate()
+	{
+		return deflate;
+	}
+
+	public int getCacheMaxEntrySize()
+	{
+		return cacheMaxEntrySize;
+	}
+}
@@ -0,0 +1,59 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A stream result which can stream parts of its content - allows to answer Range requests.
+ *
+ * @author Benjamin Schiller
+ */
+public interface SeekableStreamResult extends StreamResult
+{
+
+	/**
+	 * @return true if the content can currently be streamed in parts - getContentLength has to be known as well
+	 */
+	public default boolean isSeekable()
+	{
+		return true;
+	}
+
+	/**
+	 * Streams a part of the content.
+	 *
+	 * @param out
+	 * @param offset
+	 * @param length
+	 *
+	 * @return the bytes written
+	 *
+	 * @throws IOException
+	 */
+	public long stream(OutputStream out, long offset, long length) throws IOException;
+}
@@ -27,9 +27,12 @@ package de.s42.dl.services.remote;
 
 import de.s42.base.strings.StringHelper;
 import de.s42.dl.services.DLMethod;
+import de.s42.dl.services.ConfiguredPermissions;
 import de.s42.dl.services.DLService;
 import de.s42.dl.services.Service;
 import de.s42.dl.services.l10n.LocalizationService;
+import de.s42.log.LogManager;
+import de.s42.log.Logger;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -45,6 +48,8 @@ import java.util.Optional;
 public class ServiceDescriptor implements Comparable<ServiceDescriptor>
 {
 
+	private final static Logger log = LogManager.getLogger(ServiceDescriptor.class.getName());
+
 	protected final Service service;
 
 	protected final DLService dlService;
@@ -55,10 +60,25 @@ public class ServiceDescriptor implements Comparable<ServiceDescriptor>
 	protected final String description;
 	protected final String className;
 
+	protected final String[] permissions;
+
 	protected final MethodDescriptor[] methods;
 	protected final Map<String, MethodDescriptor> methodsByName;
 
+	protected ConcurrencyLimiter concurrencyLimiter;
+
 	public ServiceDescriptor(Service service, LocalizationService localizationService)
+	{
+		this(service, localizationService, null);
+	}
+
+	/**
+	 * @param service
+	 * @param localizationService
+	 * @param dispatcher generated dispatcher of the service class - null or a dispatcher not matching the service class
+	 * falls back to reflection
+	 */
+	public ServiceDescriptor(Service service, LocalizationService localizationService, ServiceDispatcher dispatcher)
 	{
 		assert service != null;
 
@@ -71,12 +91,31 @@ public class ServiceDescriptor implements Comparable<ServiceDescriptor>
 		description = dlService.description();
 		className = service.getClass().getSimpleName() + StringHelper.upperCaseFirst(name);
 
-		List<MethodDescriptor> meths = new ArrayList<>();
+		// Combined before the methods are created as they read them
+		if (service instanceof ConfiguredPermissions configured && configured.getConfiguredPermissions().length > 0) {
+			List<String> perms = new ArrayList<>(Arrays.asList(dlService.permissions()));
+			perms.addAll(Arrays.asList(configured.getConfiguredPermissions()));
+			permissions = perms.toArray(String[]::new);
+		} else {
+			permissions = dlService.permissions();
+		}
 
-		for (Method method : service.getClass().getMethods()) {
+		List<MethodDescriptor> meths = null;
+
+		if (dispatcher != null && dispatcher.getServiceClass().equals(service.getClass())) {
+			meths = createMethods(dispatcher);
+		}
+
+		// Scan all methods if there is no matching dispatcher
+		if (meths == null) {
+
+			meths = new ArrayList<>();
 
-			if (method.getAnnotation(DLMethod.class) != null) {
-				meths.add(new MethodDescriptor(this, method, localizationService));
+			for (Method method : service.getClass().getMethods()) {
+
+				if (method.getAnnotation(DLMethod.class) != null) {
+					meths.add(new MethodDescriptor(this, method, localizationService));
+				}
 			}
 		}
 
@@ -99,6 +138,71 @@ public class ServiceDescriptor implements Comparable<ServiceDescriptor>
 
 	}
 
+	/**
+	 * Looks up the methods listed by the dispatcher and binds them to its generated invokers.
+	 *
+	 * @param dispatcher
+	 *
+	 * @return the methods or null if the dispatcher does not match the service class (i.e. it is outdated)
+	 */
+	protected List<MethodDescriptor> createMethods(ServiceDispatcher dispatcher)
+	{
+		assert dispatcher != null;
+
+		// A dispatcher generated for another version of the class might miss methods or call changed ones
+		String signature = getSignature();
+
+		if (!signature.equals(dispatcher.getSignature())) {
+			log.warn("Dispatcher is outdated", service.getClass().getName(), dispatcher.getClass().getName());
+			return null;
+		}
+
+		List<MethodDescriptor> result = new ArrayList<>(dispatcher.getMethodCount());
+
+		for (int i = 0; i < dispatcher.getMethodCount(); ++i) {
+
+			Method method;
+			try {
+				method = service.getClass().getMethod(dispatcher.getMethodName(i), dispatcher.getParameterTypes(i));
+			} catch (NoSuchMethodException ex) {
+				log.warn("Dispatcher does not match service", service.getClass().getName(), ex.getMessage());
+				return null;
+			}
+
+			if (method.getAnnotation(DLMethod.class) == null) {
+				log.warn("Dispatcher does not match service", service.getClass().getName(), method.getName());
+				return null;
+			}
+
+			result.add(new MethodDescriptor(this, method, localizationService, dispatcher.getInvoker(i)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the signature of the DL methods of the service class like the ServiceDispatcher creates it
+	 */
+	public String getSignature()
+	{
+		List<String> signatures = new ArrayList<>();
+
+		for (Method method : service.getClass().getMethods()) {
+
+			if (method.getAnnotation(DLMethod.class) != null && !method.isBridge()) {
+
+				List<String> parameterTypes = new ArrayList<>();
+				for (Class<?> parameterType : method.getParameterTypes()) {
+					parameterTypes.add(parameterType.getCanonicalName());
+				}
+
+				signatures.add(ServiceDispatcher.createMethodSignature(method.getReturnType().getCanonicalName(), method.getName(), parameterTypes));
+			}
+		}
+
+		return ServiceDispatcher.createSignature(signatures);
+	}
+
 	public Service getService()
 	{
 		return service;
@@ -144,9 +248,12 @@ public class ServiceDescriptor implements Comparable<ServiceDescriptor>
 		return dlService.userLoggedIn();
 	}
 
+	/**
+	 * @return the permissions of the DLService annotation and the ones configured for the service
+	 */
 	public String[] getPermissions()
 	{
-		return dlService.permissions();
+		return permissions.clone();
 	}
 
 	public DLService getDlService()
@@ -168,4 +275,17 @@ public class ServiceDescriptor implements Comparable<ServiceDescriptor>
 	{
 		return localizationService;
 	}
+
+	/**
+	 * @return the bulkhead shared by the methods of the service or null if it is not limited
+	 */
+	public ConcurrencyLimiter getConcurrencyLimiter()
+	{
+		return concurrencyLimiter;
+	}
+
+	public void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter)
+	{
+		this.concurrencyLimiter = concurrencyLimiter;
+	}
 }
@@ -0,0 +1,123 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Invokers of the DL methods of a service class generated at build time by the DLServiceProcessor - they call the
+ * methods directly with typed parameters. Just the invocation is generated: the service, method and parameter
+ * descriptors (names, annotations, routing) are still built by reflection when the services are loaded. Dispatchers are
+ * found with the ServiceLoader - services without a dispatcher or with an outdated one (its signature does not match
+ * the DL methods of the loaded service class) use method handle invokers.
+ *
+ * @author Benjamin Schiller
+ */
+public interface ServiceDispatcher
+{
+
+	/**
+	 * Suffix of the generated dispatcher class name appended to the name of the service class
+	 */
+	public final static String CLASS_NAME_SUFFIX = "DLDispatcher";
+
+	/**
+	 * @return the service class this dispatcher was generated for
+	 */
+	public Class<?> getServiceClass();
+
+	/**
+	 * Creates the signature of a DL method.
+	 *
+	 * @param returnType canonical name of the erased return type
+	 * @param name
+	 * @param parameterTypes canonical names of the erased parameter types
+	 *
+	 * @return i.e. "java.lang.String find(java.util.UUID,int)"
+	 */
+	public static String createMethodSignature(String returnType, String name, List<String> parameterTypes)
+	{
+		assert returnType != null;
+		assert name != null;
+		assert parameterTypes != null;
+
+		return returnType + " " + name + "(" + String.join(",", parameterTypes) + ")";
+	}
+
+	/**
+	 * Creates the signature of all DL methods of a service - independent of the order of the methods.
+	 *
+	 * @param methodSignatures
+	 *
+	 * @return
+	 */
+	public static String createSignature(Collection<String> methodSignatures)
+	{
+		assert methodSignatures != null;
+
+		List<String> sorted = new ArrayList<>(methodSignatures);
+		Collections.sort(sorted);
+
+		return String.join(";", sorted);
+	}
+
+	/**
+	 * @return signature of all DL methods of the service class at generation time or null if unknown
+	 */
+	public default String getSignature()
+	{
+		return null;
+	}
+
+	/**
+	 * @return count of DL methods of the service
+	 */
+	public int getMethodCount();
+
+	/**
+	 * @param index
+	 *
+	 * @return the java name of the method
+	 */
+	public String getMethodName(int index);
+
+	/**
+	 * @param index
+	 *
+	 * @return the erased parameter types of the method
+	 */
+	public Class<?>[] getParameterTypes(int index);
+
+	/**
+	 * @param index
+	 *
+	 * @return invoker calling the method directly
+	 */
+	public MethodInvoker getInvoker(int index);
+}
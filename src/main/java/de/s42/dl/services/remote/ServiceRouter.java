@@ -0,0 +1,277 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Routes a path info of the structure /&lt;servicename&gt;/&lt;servicemethod&gt;[/&lt;pathparameter&gt;...] to its
+ * MethodDescriptor. The routing tables are built once from the service descriptors and scanned without allocating
+ * on the success path.
+ *
+ * @author Benjamin Schiller
+ */
+public class ServiceRouter
+{
+
+	public final static String INVALID_STRUCTURE_MESSAGE = "Pathinfo has to be of structure /<servicename>/<servicemethod>";
+
+	/**
+	 * Open addressing hash table which allows to look up a region of a string without creating a substring.
+	 *
+	 * @param <ValueType>
+	 */
+	protected static class RouteTable<ValueType>
+	{
+
+		protected final String[] keys;
+		protected final Object[] values;
+		protected final int mask;
+
+		protected RouteTable(Map<String, ValueType> entries)
+		{
+			assert entries != null;
+
+			// Keep load factor at or below 0.5 to keep probe sequences short
+			int capacity = Integer.highestOneBit(Math.max(2, entries.size()) * 2 - 1) << 1;
+
+			keys = new String[capacity];
+			values = new Object[capacity];
+			mask = capacity - 1;
+
+			for (Map.Entry<String, ValueType> entry : entries.entrySet()) {
+
+				String key = entry.getKey();
+				int index = hash(key, 0, key.length()) & mask;
+
+				while (keys[index] != null) {
+					index = (index + 1) & mask;
+				}
+
+				keys[index] = key;
+				values[index] = entry.getValue();
+			}
+		}
+
+		protected static int hash(String source, int start, int end)
+		{
+			int hash = 0;
+
+			for (int i = start; i < end; ++i) {
+				hash = 31 * hash + source.charAt(i);
+			}
+
+			// Spread higher bits as the table is masked
+			return hash ^ (hash >>> 16);
+		}
+
+		@SuppressWarnings("unchecked")
+		protected ValueType get(String source, int start, int end)
+		{
+			int length = end - start;
+			int index = hash(source, start, end) & mask;
+
+			String key;
+			while ((key = keys[index]) != null) {
+
+				if (key.length() == length && source.regionMatches(start, key, 0, length)) {
+					return (ValueType) values[index];
+				}
+
+				index = (index + 1) & mask;
+			}
+
+			return null;
+		}
+	}
+
+	protected final RouteTable<RouteTable<MethodDescriptor>> services;
+
+	public ServiceRouter(ServiceDescriptor... serviceDescriptors)
+	{
+		assert serviceDescriptors != null;
+
+		Map<String, RouteTable<MethodDescriptor>> serviceRoutes = new HashMap<>();
+
+		for (ServiceDescriptor service : serviceDescriptors) {
+
+			Map<String, MethodDescriptor> methodRoutes = new HashMap<>();
+
+			for (MethodDescriptor method : service.getMethods()) {
+				methodRoutes.put(method.getName(), method);
+			}
+
+			serviceRoutes.put(service.getName(), new RouteTable<>(methodRoutes));
+		}
+
+		services = new RouteTable<>(serviceRoutes);
+	}
+
+	/**
+	 * Resolves the method for the given path info.
+	 *
+	 * @param pathInfo
+	 *
+	 * @return the mapped method - never null
+	 *
+	 * @throws InvalidPath if the path is not of the structure /&lt;servicename&gt;/&lt;servicemethod&gt; or contains path
+	 * parameters for a method not declaring any
+	 * @throws UnknownService if the service is not mapped
+	 * @throws UnknownMethod if the method is not mapped in the service
+	 */
+	public MethodDescriptor route(String pathInfo) throws InvalidPath, UnknownService, UnknownMethod
+	{
+		if (pathInfo == null || pathInfo.length() < 2 || pathInfo.charAt(0) != '/') {
+			throw new InvalidPath(INVALID_STRUCTURE_MESSAGE);
+		}
+
+		int length = pathInfo.length();
+		int serviceEnd = pathInfo.indexOf('/', 1);
+
+		if (serviceEnd == -1) {
+			throw new InvalidPath(INVALID_STRUCTURE_MESSAGE);
+		}
+
+		if (serviceEnd == 1) {
+			throw new InvalidPath("Service is required");
+		}
+
+		RouteTable<MethodDescriptor> methods = services.get(pathInfo, 1, serviceEnd);
+
+		if (methods == null) {
+			throw new UnknownService("Service " + pathInfo.substring(1, serviceEnd) + " is not mapped");
+		}
+
+		int methodStart = serviceEnd + 1;
+		int methodEnd = pathInfo.indexOf('/', methodStart);
+
+		if (methodEnd == -1) {
+			methodEnd = length;
+		}
+
+		if (methodEnd == methodStart) {
+			throw new InvalidPath("Method is required");
+		}
+
+		MethodDescriptor method = methods.get(pathInfo, methodStart, methodEnd);
+
+		if (method == null) {
+			throw new UnknownMethod("Method " + pathInfo.substring(methodStart, methodEnd) + " is not mapped");
+		}
+
+		// Allow a single trailing slash - anything else are path parameters which have to be declared by the method
+		if (methodEnd < length - 1 && !method.isHasPathParameters()) {
+			throw new InvalidPath(INVALID_STRUCTURE_MESSAGE);
+		}
+
+		return method;
+	}
+
+	/**
+	 * Resolves the method for the given service and method name.
+	 *
+	 * @param serviceName
+	 * @param methodName
+	 *
+	 * @return the mapped method - never null
+	 *
+	 * @throws InvalidPath if the service or method name is empty
+	 * @throws UnknownService if the service is not mapped
+	 * @throws UnknownMethod if the method is not mapped in the service
+	 */
+	public MethodDescriptor route(String serviceName, String methodName) throws InvalidPath, UnknownService, UnknownMethod
+	{
+		if (serviceName == null || serviceName.isEmpty()) {
+			throw new InvalidPath("Service is required");
+		}
+
+		if (methodName == null || methodName.isEmpty()) {
+			throw new InvalidPath("Method is required");
+		}
+
+		RouteTable<MethodDescriptor> methods = services.get(serviceName, 0, serviceName.length());
+
+		if (methods == null) {
+			throw new UnknownService("Service " + serviceName + " is not mapped");
+		}
+
+		MethodDescriptor method = methods.get(methodName, 0, methodName.length());
+
+		if (method == null) {
+			throw new UnknownMethod("Method " + methodName + " is not mapped");
+		}
+
+		return method;
+	}
+
+	/**
+	 * Extracts the path parameters following /&lt;servicename&gt;/&lt;servicemethod&gt; in the given path info. Trailing
+	 * path parameters are optional.
+	 *
+	 * @param method the method as returned by route for the given pathInfo
+	 * @param pathInfo
+	 *
+	 * @return map of the given path parameters by name, empty if none are given
+	 *
+	 * @throws InvalidPath if more path parameters are given than declared by the method
+	 */
+	public Map<String, String> getPathParameters(MethodDescriptor method, String pathInfo) throws InvalidPath
+	{
+		assert method != null;
+		assert pathInfo != null;
+
+		String[] names = method.getPathParameters();
+		Map<String, String> result = new HashMap<>();
+
+		int length = pathInfo.length();
+		int start = method.getService().getName().length() + method.getName().length() + 3;
+		int index = 0;
+
+		while (start < length) {
+
+			int end = pathInfo.indexOf('/', start);
+
+			if (end == -1) {
+				end = length;
+			}
+
+			if (index >= names.length) {
+				throw new InvalidPath("Method " + method.getName() + " supports at most " + names.length + " path parameters");
+			}
+
+			// Empty segments just skip the parameter
+			if (end > start) {
+				result.put(names[index], pathInfo.substring(start, end));
+			}
+
+			++index;
+			start = end + 1;
+		}
+
+		return result;
+	}
+}
@@ -36,6 +36,12 @@ import javax.servlet.http.HttpServletResponse;
 public interface ServletRemoteService extends Service
 {
 
+	/**
+	 * Request attribute set by sendErrorResponse if the response was already committed and has to be aborted by the
+	 * container.
+	 */
+	public final static String ABORT_ATTRIBUTE = "_abort";
+
 	public void call(HttpServletRequest request, HttpServletResponse response) throws Throwable;
 
 	public void sendErrorResponse(HttpServletRequest request, HttpServletResponse response, Object error);
@@ -0,0 +1,171 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.dl.services.DeadlineExceeded;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent executions with the same key - the first caller executes, all callers arriving while it is in
+ * flight wait for and share its result or error. Errors caused by the state of the leading call instead of the method
+ * (rejected by the bulkhead, deadline of the leading request) are not shared - waiting callers execute on their own.
+ *
+ * @author Benjamin Schiller
+ */
+public class SingleFlight
+{
+
+	/**
+	 * Executes a call which may throw any Throwable.
+	 *
+	 * @param <ResultType>
+	 */
+	@FunctionalInterface
+	public interface Call<ResultType>
+	{
+
+		public ResultType call() throws Throwable;
+	}
+
+	/**
+	 * Thrown if a waiting caller gave up on the leader - distinct from any TimeoutException of the call itself, so just
+	 * this case may execute the call on its own.
+	 */
+	public static class WaitTimeout extends Exception
+	{
+
+		public WaitTimeout(String message)
+		{
+			super(message, null, false, false);
+		}
+	}
+
+	protected final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	protected final static Object NOT_SHARED = new Object();
+
+	protected final LongAdder coalesced = new LongAdder();
+
+	/**
+	 * Results which can just be consumed once are not shared - waiting callers execute on their own then.
+	 *
+	 * @param result
+	 *
+	 * @return
+	 */
+	protected boolean isShareable(Object result)
+	{
+		return !(result instanceof StreamResult) && !StreamingResult.isStreaming(result);
+	}
+
+	/**
+	 * Errors of the leading call which do not come from the method itself are not shared.
+	 *
+	 * @param error
+	 *
+	 * @return
+	 */
+	protected boolean isShareable(Throwable error)
+	{
+		return !(error instanceof ServiceOverloaded)
+			&& !(error instanceof DeadlineExceeded)
+			&& !(error instanceof InterruptedException);
+	}
+
+	/**
+	 * Executes the call as leader or waits for the leader of the key.
+	 *
+	 * @param key
+	 * @param call
+	 * @param maxWaitNanos max time to wait for a leader
+	 *
+	 * @return the result of the own or the shared call
+	 *
+	 * @throws Throwable the error of the own or the shared call
+	 * @throws WaitTimeout if the leader did not finish in time
+	 */
+	public Object execute(String key, Call<Object> call, long maxWaitNanos) throws Throwable
+	{
+		assert key != null;
+		assert call != null;
+
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+
+		if (leader != null) {
+
+			coalesced.increment();
+
+			Object result;
+			try {
+				result = leader.get(Math.max(0, maxWaitNanos), TimeUnit.NANOSECONDS);
+			} catch (ExecutionException ex) {
+				throw ex.getCause();
+			} catch (TimeoutException ex) {
+				throw new WaitTimeout("Leader did not finish within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms");
+			}
+
+			if (result == NOT_SHARED) {
+				return call.call();
+			}
+
+			return result;
+		}
+
+		try {
+			Object result = call.call();
+			flight.complete(isShareable(result) ? result : NOT_SHARED);
+			return result;
+		} catch (Throwable ex) {
+			if (isShareable(ex)) {
+				flight.completeExceptionally(ex);
+			} else {
+				flight.complete(NOT_SHARED);
+			}
+			throw ex;
+		} finally {
+			inFlight.remove(key, flight);
+		}
+	}
+
+	public int getInFlight()
+	{
+		return inFlight.size();
+	}
+
+	/**
+	 * @return count of calls which waited for a leader
+	 */
+	public long getCoalesced()
+	{
+		return coalesced.sum();
+	}
+}
@@ -27,6 +27,7 @@ package de.s42.dl.services.remote;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Path;
 
 /**
  *
@@ -46,4 +47,49 @@ public interface StreamResult
 	public boolean isInline();
 
 	public long stream(OutputStream out) throws IOException;
+
+	/**
+	 * @return strong ETag of the content including quotes or null if not supported
+	 */
+	public default String getETag()
+	{
+		return null;
+	}
+
+	/**
+	 * Identity of the source of the content (i.e. the absolute path of a file). Compressed bodies are shared between
+	 * requests by this key together with the ETag, so the key has to tell apart all contents which could have the same
+	 * ETag.
+	 *
+	 * @return the key or null if compressed bodies of this result shall not be cached
+	 */
+	public default String getCacheKey()
+	{
+		return null;
+	}
+
+	/**
+	 * @return last modification of the content in ms since epoch or -1 if unknown
+	 */
+	public default long getLastModified()
+	{
+		return -1;
+	}
+
+	/**
+	 * @return length of the content in bytes or -1 if unknown
+	 */
+	public default long getContentLength()
+	{
+		return -1;
+	}
+
+	/**
+	 * @return the file containing exactly the content or null - allows to send the content without copying it
+	 */
+	public default Path getFile()
+	{
+		return null;
+	}
+
 }
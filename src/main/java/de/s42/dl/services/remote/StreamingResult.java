@@ -0,0 +1,354 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.dl.services.database.DatabaseService;
+import de.s42.log.LogManager;
+import de.s42.log.Logger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Result of a method returning a Stream, an Iterator or a Flow.Publisher. The elements are pulled one by one while
+ * sending the response. Closing the result closes the underlying resource (i.e. the DB cursor of a stream) and
+ * completes a transaction which was kept open for the duration of the streaming.
+ *
+ * @author Benjamin Schiller
+ */
+public class StreamingResult implements Iterator<Object>, AutoCloseable
+{
+
+	private final static Logger log = LogManager.getLogger(StreamingResult.class.getName());
+
+	/**
+	 * Count of elements requested from a publisher at once
+	 */
+	public final static int PUBLISHER_BATCH_SIZE = 64;
+
+	protected final Iterator<?> iterator;
+
+	protected final AutoCloseable resource;
+
+	protected DatabaseService transaction;
+
+	protected boolean completed;
+
+	protected boolean closed;
+
+	protected StreamingResult(Iterator<?> iterator, AutoCloseable resource)
+	{
+		assert iterator != null;
+
+		this.iterator = iterator;
+		this.resource = resource;
+	}
+
+	/**
+	 * @param result
+	 *
+	 * @return true if the result is a Stream, an Iterator or a Flow.Publisher
+	 */
+	public static boolean isStreaming(Object result)
+	{
+		return result instanceof StreamingResult
+			|| result instanceof Stream
+			|| result instanceof Iterator
+			|| result instanceof Flow.Publisher;
+	}
+
+	/**
+	 * @param result has to be streaming
+	 *
+	 * @return
+	 */
+	public static StreamingResult of(Object result)
+	{
+		assert isStreaming(result);
+
+		if (result instanceof StreamingResult streamingResult) {
+			return streamingResult;
+		}
+
+		if (result instanceof Stream stream) {
+			return new StreamingResult(stream.iterator(), stream);
+		}
+
+		if (result instanceof Flow.Publisher publisher) {
+			PublisherIterator iterator = new PublisherIterator(PUBLISHER_BATCH_SIZE);
+			publisher.subscribe(iterator);
+			return new StreamingResult(iterator, iterator);
+		}
+
+		Iterator<?> iterator = (Iterator<?>) result;
+
+		return new StreamingResult(iterator, (iterator instanceof AutoCloseable closeable) ? closeable : null);
+	}
+
+	/**
+	 * Keeps the given transaction open until the result is completed - committed on complete, rolled back on close
+	 * without complete.
+	 *
+	 * @param databaseService
+	 */
+	public void deferTransaction(DatabaseService databaseService)
+	{
+		assert databaseService != null;
+
+		this.transaction = databaseService;
+	}
+
+	@Override
+	public boolean hasNext()
+	{
+		return iterator.hasNext();
+	}
+
+	@Override
+	public Object next()
+	{
+		return iterator.next();
+	}
+
+	/**
+	 * Marks all elements as sent successfully - the deferred transaction gets committed on close.
+	 */
+	public void complete()
+	{
+		completed = true;
+	}
+
+	/**
+	 * Reads all remaining elements and closes the result.
+	 *
+	 * @return
+	 *
+	 * @throws Exception
+	 */
+	public List<Object> toList() throws Exception
+	{
+		List<Object> result = new ArrayList<>();
+
+		try (this) {
+			while (hasNext()) {
+				result.add(next());
+			}
+
+			complete();
+		}
+
+		return result;
+	}
+
+	@Override
+	public void close() throws Exception
+	{
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+
+		try {
+			if (resource != null) {
+				resource.close();
+			}
+		} finally {
+			if (transaction != null) {
+				if (completed) {
+					transaction.commitTransaction();
+				} else {
+					log.debug("Rolling back transaction of incomplete streaming result");
+					transaction.rollbackTransaction();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Bridges a Flow.Publisher to a blocking iterator - elements are requested in batches as they are consumed so a
+	 * slow client slows down the publisher.
+	 */
+	protected static class PublisherIterator implements Iterator<Object>, Flow.Subscriber<Object>, AutoCloseable
+	{
+
+		protected final int batchSize;
+
+		protected final ReentrantLock lock = new ReentrantLock();
+
+		protected final Condition available = lock.newCondition();
+
+		protected final Queue<Object> queue = new ArrayDeque<>();
+
+		protected Flow.Subscription subscription;
+
+		protected Throwable error;
+
+		protected boolean done;
+
+		protected int consumed;
+
+		protected PublisherIterator(int batchSize)
+		{
+			assert batchSize > 0;
+
+			this.batchSize = batchSize;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription)
+		{
+			lock.lock();
+			try {
+				if (this.subscription != null || done) {
+					subscription.cancel();
+					return;
+				}
+
+				this.subscription = subscription;
+			} finally {
+				lock.unlock();
+			}
+
+			subscription.request(batchSize);
+		}
+
+		@Override
+		public void onNext(Object item)
+		{
+			lock.lock();
+			try {
+				queue.add(item);
+				available.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable)
+		{
+			lock.lock();
+			try {
+				error = throwable;
+				done = true;
+				available.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void onComplete()
+		{
+			lock.lock();
+			try {
+				done = true;
+				available.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			lock.lock();
+			try {
+				while (queue.isEmpty() && !done) {
+					available.await();
+				}
+
+				if (queue.isEmpty() && error != null) {
+					throw new IllegalStateException("Publisher failed - " + error.getMessage(), error);
+				}
+
+				return !queue.isEmpty();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for the publisher", ex);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public Object next()
+		{
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			Object item;
+			boolean requestMore;
+
+			lock.lock();
+			try {
+				item = queue.poll();
+				requestMore = ++consumed == batchSize;
+
+				if (requestMore) {
+					consumed = 0;
+				}
+			} finally {
+				lock.unlock();
+			}
+
+			// Request the next batch once the current one is consumed
+			if (requestMore) {
+				subscription.request(batchSize);
+			}
+
+			return item;
+		}
+
+		@Override
+		public void close()
+		{
+			Flow.Subscription current;
+
+			lock.lock();
+			try {
+				current = subscription;
+				done = true;
+				queue.clear();
+			} finally {
+				lock.unlock();
+			}
+
+			if (current != null) {
+				current.cancel();
+			}
+		}
+	}
+}
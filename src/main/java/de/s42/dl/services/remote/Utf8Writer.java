@@ -0,0 +1,244 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writer encoding chars as UTF-8 directly into an output stream. Uses pooled byte buffers to prevent allocating
+ * intermediate strings and buffers for large responses. Closing the writer returns its buffer to the pool.
+ *
+ * @author Benjamin Schiller
+ */
+public class Utf8Writer extends Writer
+{
+
+	public final static int BUFFER_SIZE = 16384;
+	public final static int MAX_POOLED_BUFFERS = 64;
+
+	protected final static Queue<byte[]> bufferPool = new ConcurrentLinkedQueue<>();
+	protected final static AtomicInteger pooledBuffers = new AtomicInteger(0);
+
+	protected static byte[] acquireBuffer()
+	{
+		byte[] buffer = bufferPool.poll();
+
+		if (buffer != null) {
+			pooledBuffers.decrementAndGet();
+			return buffer;
+		}
+
+		return new byte[BUFFER_SIZE];
+	}
+
+	protected static void releaseBuffer(byte[] buffer)
+	{
+		if (pooledBuffers.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+			bufferPool.offer(buffer);
+		} else {
+			pooledBuffers.decrementAndGet();
+		}
+	}
+
+	protected final OutputStream out;
+	protected byte[] buffer;
+	protected int position;
+	protected char highSurrogate;
+	protected long bytesWritten;
+
+	public Utf8Writer(OutputStream out)
+	{
+		assert out != null;
+
+		this.out = out;
+		buffer = acquireBuffer();
+	}
+
+	protected void ensureOpen() throws IOException
+	{
+		if (buffer == null) {
+			throw new IOException("Writer is closed");
+		}
+	}
+
+	protected void ensureCapacity(int bytes) throws IOException
+	{
+		if (position + bytes > buffer.length) {
+			flushBuffer();
+		}
+	}
+
+	protected void flushBuffer() throws IOException
+	{
+		if (position > 0) {
+			out.write(buffer, 0, position);
+			bytesWritten += position;
+			position = 0;
+		}
+	}
+
+	protected void encode(char c) throws IOException
+	{
+		// A high surrogate has to be followed by a low surrogate
+		if (highSurrogate != 0 && !Character.isLowSurrogate(c)) {
+			encodeMalformed();
+		}
+
+		if (c < 0x80) {
+			ensureCapacity(1);
+			buffer[position++] = (byte) c;
+		} else if (c < 0x800) {
+			ensureCapacity(2);
+			buffer[position++] = (byte) (0xc0 | (c >> 6));
+			buffer[position++] = (byte) (0x80 | (c & 0x3f));
+		} else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		} else if (Character.isLowSurrogate(c)) {
+			if (highSurrogate == 0) {
+				encodeMalformed();
+				return;
+			}
+			int codePoint = Character.toCodePoint(highSurrogate, c);
+			highSurrogate = 0;
+			ensureCapacity(4);
+			buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+			buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+			buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+			buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+		} else {
+			ensureCapacity(3);
+			buffer[position++] = (byte) (0xe0 | (c >> 12));
+			buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+			buffer[position++] = (byte) (0x80 | (c & 0x3f));
+		}
+	}
+
+	/**
+	 * Unpaired surrogates are replaced with '?' like the JDK encoders do.
+	 */
+	protected void encodeMalformed() throws IOException
+	{
+		highSurrogate = 0;
+		ensureCapacity(1);
+		buffer[position++] = '?';
+	}
+
+	@Override
+	public void write(int c) throws IOException
+	{
+		ensureOpen();
+		encode((char) c);
+	}
+
+	@Override
+	public void write(char[] chars, int offset, int length) throws IOException
+	{
+		ensureOpen();
+
+		for (int i = offset, end = offset + length; i < end; ++i) {
+			encode(chars[i]);
+		}
+	}
+
+	@Override
+	public void write(String str, int offset, int length) throws IOException
+	{
+		ensureOpen();
+
+		for (int i = offset, end = offset + length; i < end; ++i) {
+			encode(str.charAt(i));
+		}
+	}
+
+	@Override
+	public Writer append(CharSequence csq) throws IOException
+	{
+		ensureOpen();
+
+		CharSequence sequence = (csq != null) ? csq : "null";
+		for (int i = 0, end = sequence.length(); i < end; ++i) {
+			encode(sequence.charAt(i));
+		}
+
+		return this;
+	}
+
+	/**
+	 * Flushes the written chars into the underlying stream - a pending high surrogate is written as malformed.
+	 *
+	 * @throws IOException
+	 */
+	@Override
+	public void flush() throws IOException
+	{
+		ensureOpen();
+		if (highSurrogate != 0) {
+			encodeMalformed();
+		}
+		flushBuffer();
+		out.flush();
+	}
+
+	/**
+	 * Releases the buffer. Chars not flushed are dropped and the underlying stream is not closed - so after an error
+	 * nothing of a partially written body reaches the (servlet) stream and an error response can still be sent.
+	 */
+	@Override
+	public void close()
+	{
+		if (buffer == null) {
+			return;
+		}
+
+		releaseBuffer(buffer);
+		buffer = null;
+	}
+
+	/**
+	 * Returns the number of bytes written to the underlying stream so far.
+	 *
+	 * @return
+	 */
+	public long getBytesWritten()
+	{
+		return bytesWritten;
+	}
+
+	/**
+	 * Returns the number of bytes encoded so far including the ones still buffered.
+	 *
+	 * @return
+	 */
+	public long getBytesEncoded()
+	{
+		return bytesWritten + position;
+	}
+}
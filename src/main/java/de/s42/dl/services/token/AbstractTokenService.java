@@ -28,6 +28,7 @@ package de.s42.dl.services.token;
 import de.s42.dl.services.AbstractService;
 import de.s42.dl.services.DLService;
 import de.s42.dl.services.permission.InvalidCredentials;
+import de.s42.dl.services.permission.PermissionSet;
 import de.s42.log.LogManager;
 import de.s42.log.Logger;
 import java.util.Optional;
@@ -44,6 +45,8 @@ public abstract class AbstractTokenService extends AbstractService implements To
 
 	private final static Logger log = LogManager.getLogger(AbstractTokenService.class.getName());
 
+	public final static String TOKEN_ATTRIBUTE = "_token";
+
 	protected abstract Optional<Token> resolveToken(String token);
 
 	protected abstract boolean invalidateToken(String token);
@@ -74,6 +77,28 @@ public abstract class AbstractTokenService extends AbstractService implements To
 		}
 	}
 
+	@Override
+	public void validate(HttpServletRequest request, boolean userLoggedIn, PermissionSet permissions) throws Exception
+	{
+		assert request != null : "request != null";
+		assert permissions != null : "permissions != null";
+
+		// Nothing to validate if not userLoggedIn and permissions are empty
+		if (!userLoggedIn && permissions.isEmpty()) {
+			return;
+		}
+
+		Optional<Token> optToken = getToken(request);
+
+		if (optToken.isEmpty()) {
+			throw new InvalidCredentials("Invalid token");
+		}
+
+		if (!optToken.orElseThrow().permits(permissions)) {
+			throw new InvalidCredentials("Invalid token");
+		}
+	}
+
 	@Override
 	public Optional<Token> getToken(HttpServletRequest request)
 	{
@@ -81,18 +106,27 @@ public abstract class AbstractTokenService extends AbstractService implements To
 
 		log.debug("getToken");
 
+		// Resolve the token just once per request (i.e. for batched calls)
+		Optional<Token> result = (Optional<Token>) request.getAttribute(TOKEN_ATTRIBUTE);
+
+		if (result != null) {
+			return result;
+		}
+
 		// Get auth from header
 		String auth = request.getHeader("Authorization");
 
 		// Missing correct prefix in auth
 		if (auth == null || !auth.startsWith("Bearer ")) {
-			return Optional.empty();
+			result = Optional.empty();
+		} // Remove "Bearer " from auth -> token without prefix
+		else {
+			result = resolveToken(auth.substring(7));
 		}
 
-		// Remove "Bearer " from auth -> token without prefix
-		String tokenId = auth.substring(7);
+		request.setAttribute(TOKEN_ATTRIBUTE, result);
 
-		return resolveToken(tokenId);
+		return result;
 	}
 
 	@Override
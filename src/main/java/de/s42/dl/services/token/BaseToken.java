@@ -25,6 +25,7 @@
 //</editor-fold>
 package de.s42.dl.services.token;
 
+import de.s42.dl.services.permission.PermissionSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
@@ -42,6 +43,8 @@ public class BaseToken implements Token
 
 	protected final Set<String> permissions;
 
+	protected volatile PermissionSet permissionSet;
+
 	public BaseToken()
 	{
 		permissions = new HashSet<>();
@@ -75,6 +78,28 @@ public class BaseToken implements Token
 		return this.permissions.containsAll(permissions);
 	}
 
+	@Override
+	public boolean permits(PermissionSet permissions)
+	{
+		assert permissions != null : "permissions != null";
+
+		return getPermissionSet().containsAll(permissions);
+	}
+
+	@Override
+	public PermissionSet getPermissionSet()
+	{
+		PermissionSet result = permissionSet;
+
+		// Recreate if permissions got interned after the set was created
+		if (result == null || result.isStale()) {
+			result = PermissionSet.of(permissions);
+			permissionSet = result;
+		}
+
+		return result;
+	}
+
 	// <editor-fold desc="Getters/Setters" defaultstate="collapsed">
 	@Override
 	public Set<String> getPermissions()
@@ -88,6 +113,7 @@ public class BaseToken implements Token
 
 		this.permissions.clear();
 		this.permissions.addAll(permissions);
+		permissionSet = null;
 	}
 
 	@Override
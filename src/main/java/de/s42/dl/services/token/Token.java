@@ -25,6 +25,7 @@
 //</editor-fold>
 package de.s42.dl.services.token;
 
+import de.s42.dl.services.permission.PermissionSet;
 import java.util.Set;
 
 /**
@@ -42,4 +43,39 @@ public interface Token
 	boolean permits(Set<String> permissions);
 
 	boolean permits(String permission);
+
+	/**
+	 * @return the subject the token was issued for (i.e. a user id) or null if unknown - never the token itself as it
+	 * is written into the access log
+	 */
+	default String getSubject()
+	{
+		return null;
+	}
+
+	/**
+	 * Creates a new set on each call - implementations should keep it and recreate it once it is stale like BaseToken
+	 * does.
+	 *
+	 * @return
+	 */
+	default PermissionSet getPermissionSet()
+	{
+		return PermissionSet.of(getPermissions());
+	}
+
+	/**
+	 * Checks the names of the required permissions - implementations keeping their PermissionSet should check it
+	 * instead like BaseToken does.
+	 *
+	 * @param permissions
+	 *
+	 * @return
+	 */
+	default boolean permits(PermissionSet permissions)
+	{
+		assert permissions != null : "permissions != null";
+
+		return getPermissions().containsAll(permissions.getPermissions());
+	}
 }
@@ -0,0 +1,732 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.srv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.Part;
+
+/**
+ * Gives a call running on a worker thread guarded access to the request and response of an async context. Once the
+ * context times out the call gets detached - afterwards the call does not start any access to the container objects
+ * anymore, which get recycled as soon as the timeout completes the context. Detaching never waits: an access already
+ * in progress (i.e. a write blocked by a slow client) is reported by isAccessInProgress, so the timeout does not write
+ * into the same response, and gets aborted by the container on completion. After detaching writes to the response are
+ * dropped, reads of the request fail with an IllegalStateException and attributes set by the call stay readable (i.e.
+ * for cleaning up uploads).
+ *
+ * @author Benjamin Schiller
+ */
+public class AsyncCall
+{
+
+	public final static String DETACHED_MESSAGE = "Call got detached from its request as it timed out";
+
+	@FunctionalInterface
+	protected interface IOAction<ResultType>
+	{
+
+		ResultType run() throws IOException;
+	}
+
+	@FunctionalInterface
+	protected interface Action
+	{
+
+		void run() throws IOException;
+	}
+
+	protected final Request request;
+	protected final Response response;
+
+	/**
+	 * Count of accesses in progress - an access registers before it checks detached, detach sets detached before it
+	 * checks the count, so either the access sees detached or detach sees the access
+	 */
+	protected final AtomicInteger accesses = new AtomicInteger();
+	protected final AtomicBoolean detached = new AtomicBoolean();
+	protected volatile int detachedStatus;
+
+	public AsyncCall(HttpServletRequest request, HttpServletResponse response)
+	{
+		assert request != null;
+		assert response != null;
+
+		this.request = new Request(request);
+		this.response = new Response(response);
+	}
+
+	/**
+	 * Detaches the call from the container request and response - does not wait for a read or write of the call in
+	 * progress.
+	 *
+	 * @param status reported as status of the detached response
+	 *
+	 * @return true if the call got detached by this invocation
+	 */
+	public boolean detach(int status)
+	{
+		if (detached.get()) {
+			return false;
+		}
+
+		// Written before the flag is published
+		detachedStatus = status;
+
+		return detached.compareAndSet(false, true);
+	}
+
+	/**
+	 * @return true if the call is reading or writing the container objects right now - after detaching no new access
+	 * starts, so the count just drops
+	 */
+	public boolean isAccessInProgress()
+	{
+		return accesses.get() > 0;
+	}
+
+	/**
+	 * Registers an access - has to be followed by exit if it returns true.
+	 *
+	 * @return false if the call is detached
+	 */
+	protected boolean enter()
+	{
+		accesses.incrementAndGet();
+
+		if (detached.get()) {
+			accesses.decrementAndGet();
+			return false;
+		}
+
+		return true;
+	}
+
+	protected void exit()
+	{
+		accesses.decrementAndGet();
+	}
+
+	protected <ResultType> ResultType read(Supplier<ResultType> action)
+	{
+		if (!enter()) {
+			throw new IllegalStateException(DETACHED_MESSAGE);
+		}
+
+		try {
+			return action.get();
+		} finally {
+			exit();
+		}
+	}
+
+	protected <ResultType> ResultType readIO(IOAction<ResultType> action) throws IOException
+	{
+		if (!enter()) {
+			throw new IOException(DETACHED_MESSAGE);
+		}
+
+		try {
+			return action.run();
+		} finally {
+			exit();
+		}
+	}
+
+	protected <ResultType> ResultType readOrDefault(Supplier<ResultType> action, ResultType detachedValue)
+	{
+		if (!enter()) {
+			return detachedValue;
+		}
+
+		try {
+			return action.get();
+		} finally {
+			exit();
+		}
+	}
+
+	protected void write(Runnable action)
+	{
+		if (!enter()) {
+			return;
+		}
+
+		try {
+			action.run();
+		} finally {
+			exit();
+		}
+	}
+
+	protected void writeIO(Action action) throws IOException
+	{
+		if (!enter()) {
+			return;
+		}
+
+		try {
+			action.run();
+		} finally {
+			exit();
+		}
+	}
+
+	protected class Request extends HttpServletRequestWrapper
+	{
+
+		/**
+		 * Attributes set by the call - readable after detaching
+		 */
+		protected final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+		protected Request(HttpServletRequest request)
+		{
+			super(request);
+		}
+
+		@Override
+		public Object getAttribute(String name)
+		{
+			Object value = attributes.get(name);
+
+			if (value != null) {
+				return value;
+			}
+
+			return readOrDefault(() -> super.getAttribute(name), null);
+		}
+
+		@Override
+		public Enumeration<String> getAttributeNames()
+		{
+			Set<String> names = new LinkedHashSet<>(readOrDefault(() -> Collections.list(super.getAttributeNames()), Collections.emptyList()));
+			names.addAll(attributes.keySet());
+
+			return Collections.enumeration(names);
+		}
+
+		@Override
+		public void setAttribute(String name, Object value)
+		{
+			if (value == null) {
+				removeAttribute(name);
+				return;
+			}
+
+			attributes.put(name, value);
+
+			// Container attributes (i.e. sendfile) have to reach the container
+			write(() -> super.setAttribute(name, value));
+		}
+
+		@Override
+		public void removeAttribute(String name)
+		{
+			attributes.remove(name);
+
+			write(() -> super.removeAttribute(name));
+		}
+
+		@Override
+		public String getMethod()
+		{
+			return read(super::getMethod);
+		}
+
+		@Override
+		public String getPathInfo()
+		{
+			return read(super::getPathInfo);
+		}
+
+		@Override
+		public String getRequestURI()
+		{
+			return read(super::getRequestURI);
+		}
+
+		@Override
+		public StringBuffer getRequestURL()
+		{
+			return read(super::getRequestURL);
+		}
+
+		@Override
+		public String getQueryString()
+		{
+			return read(super::getQueryString);
+		}
+
+		@Override
+		public String getHeader(String name)
+		{
+			return read(() -> super.getHeader(name));
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name)
+		{
+			return read(() -> Collections.enumeration(Collections.list(super.getHeaders(name))));
+		}
+
+		@Override
+		public Enumeration<String> getHeaderNames()
+		{
+			return read(() -> Collections.enumeration(Collections.list(super.getHeaderNames())));
+		}
+
+		@Override
+		public long getDateHeader(String name)
+		{
+			return read(() -> super.getDateHeader(name));
+		}
+
+		@Override
+		public int getIntHeader(String name)
+		{
+			return read(() -> super.getIntHeader(name));
+		}
+
+		@Override
+		public String getParameter(String name)
+		{
+			return read(() -> super.getParameter(name));
+		}
+
+		@Override
+		public Map<String, String[]> getParameterMap()
+		{
+			return read(super::getParameterMap);
+		}
+
+		@Override
+		public Enumeration<String> getParameterNames()
+		{
+			return read(() -> Collections.enumeration(Collections.list(super.getParameterNames())));
+		}
+
+		@Override
+		public String[] getParameterValues(String name)
+		{
+			return read(() -> super.getParameterValues(name));
+		}
+
+		@Override
+		public String getContentType()
+		{
+			return read(super::getContentType);
+		}
+
+		@Override
+		public int getContentLength()
+		{
+			return read(super::getContentLength);
+		}
+
+		@Override
+		public long getContentLengthLong()
+		{
+			return read(super::getContentLengthLong);
+		}
+
+		@Override
+		public String getCharacterEncoding()
+		{
+			return read(super::getCharacterEncoding);
+		}
+
+		@Override
+		public String getRemoteAddr()
+		{
+			return read(super::getRemoteAddr);
+		}
+
+		@Override
+		public Cookie[] getCookies()
+		{
+			return read(super::getCookies);
+		}
+
+		@Override
+		public HttpSession getSession()
+		{
+			return read(() -> super.getSession());
+		}
+
+		@Override
+		public HttpSession getSession(boolean create)
+		{
+			return read(() -> super.getSession(create));
+		}
+
+		@Override
+		public Collection<Part> getParts() throws IOException, ServletException
+		{
+			if (!enter()) {
+				throw new IOException(DETACHED_MESSAGE);
+			}
+
+			try {
+				return super.getParts();
+			} finally {
+				exit();
+			}
+		}
+
+		@Override
+		public Part getPart(String name) throws IOException, ServletException
+		{
+			if (!enter()) {
+				throw new IOException(DETACHED_MESSAGE);
+			}
+
+			try {
+				return super.getPart(name);
+			} finally {
+				exit();
+			}
+		}
+
+		@Override
+		public BufferedReader getReader() throws IOException
+		{
+			return new BufferedReader(new InputStreamReader(getInputStream(), getCharacterEncoding() != null ? getCharacterEncoding() : "UTF-8"));
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException
+		{
+			ServletInputStream in = readIO(super::getInputStream);
+
+			return new ServletInputStream()
+			{
+				@Override
+				public int read() throws IOException
+				{
+					return readIO(in::read);
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) throws IOException
+				{
+					return readIO(() -> in.read(buffer, offset, length));
+				}
+
+				@Override
+				public boolean isFinished()
+				{
+					return readOrDefault(in::isFinished, true);
+				}
+
+				@Override
+				public boolean isReady()
+				{
+					return readOrDefault(in::isReady, false);
+				}
+
+				@Override
+				public void setReadListener(ReadListener readListener)
+				{
+					write(() -> in.setReadListener(readListener));
+				}
+			};
+		}
+	}
+
+	protected class Response extends HttpServletResponseWrapper
+	{
+
+		protected Response(HttpServletResponse response)
+		{
+			super(response);
+		}
+
+		@Override
+		public void setStatus(int status)
+		{
+			write(() -> super.setStatus(status));
+		}
+
+		@Override
+		public int getStatus()
+		{
+			return readOrDefault(super::getStatus, detachedStatus);
+		}
+
+		@Override
+		public void sendError(int status, String message) throws IOException
+		{
+			writeIO(() -> super.sendError(status, message));
+		}
+
+		@Override
+		public void sendError(int status) throws IOException
+		{
+			writeIO(() -> super.sendError(status));
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException
+		{
+			writeIO(() -> super.sendRedirect(location));
+		}
+
+		@Override
+		public void setHeader(String name, String value)
+		{
+			write(() -> super.setHeader(name, value));
+		}
+
+		@Override
+		public void addHeader(String name, String value)
+		{
+			write(() -> super.addHeader(name, value));
+		}
+
+		@Override
+		public void setDateHeader(String name, long date)
+		{
+			write(() -> super.setDateHeader(name, date));
+		}
+
+		@Override
+		public void addDateHeader(String name, long date)
+		{
+			write(() -> super.addDateHeader(name, date));
+		}
+
+		@Override
+		public void setIntHeader(String name, int value)
+		{
+			write(() -> super.setIntHeader(name, value));
+		}
+
+		@Override
+		public void addIntHeader(String name, int value)
+		{
+			write(() -> super.addIntHeader(name, value));
+		}
+
+		@Override
+		public void addCookie(Cookie cookie)
+		{
+			write(() -> super.addCookie(cookie));
+		}
+
+		@Override
+		public String getHeader(String name)
+		{
+			return readOrDefault(() -> super.getHeader(name), null);
+		}
+
+		@Override
+		public boolean containsHeader(String name)
+		{
+			return readOrDefault(() -> super.containsHeader(name), false);
+		}
+
+		@Override
+		public void setContentType(String type)
+		{
+			write(() -> super.setContentType(type));
+		}
+
+		@Override
+		public String getContentType()
+		{
+			return readOrDefault(super::getContentType, null);
+		}
+
+		@Override
+		public void setCharacterEncoding(String charset)
+		{
+			write(() -> super.setCharacterEncoding(charset));
+		}
+
+		@Override
+		public void setContentLength(int length)
+		{
+			write(() -> super.setContentLength(length));
+		}
+
+		@Override
+		public void setContentLengthLong(long length)
+		{
+			write(() -> super.setContentLengthLong(length));
+		}
+
+		@Override
+		public void setBufferSize(int size)
+		{
+			write(() -> super.setBufferSize(size));
+		}
+
+		@Override
+		public void resetBuffer()
+		{
+			write(super::resetBuffer);
+		}
+
+		@Override
+		public void reset()
+		{
+			write(super::reset);
+		}
+
+		@Override
+		public void flushBuffer() throws IOException
+		{
+			writeIO(super::flushBuffer);
+		}
+
+		/**
+		 * @return true once detached so the call does not try to send an error response
+		 */
+		@Override
+		public boolean isCommitted()
+		{
+			return readOrDefault(super::isCommitted, true);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException
+		{
+			ServletOutputStream out = readIO(super::getOutputStream);
+
+			return new ServletOutputStream()
+			{
+				@Override
+				public void write(int b) throws IOException
+				{
+					writeIO(() -> out.write(b));
+				}
+
+				@Override
+				public void write(byte[] data, int offset, int length) throws IOException
+				{
+					writeIO(() -> out.write(data, offset, length));
+				}
+
+				@Override
+				public void flush() throws IOException
+				{
+					writeIO(out::flush);
+				}
+
+				@Override
+				public void close() throws IOException
+				{
+					writeIO(out::close);
+				}
+
+				@Override
+				public boolean isReady()
+				{
+					return readOrDefault(out::isReady, true);
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener)
+				{
+					AsyncCall.this.write(() -> out.setWriteListener(writeListener));
+				}
+			};
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException
+		{
+			PrintWriter out = readIO(super::getWriter);
+
+			return new PrintWriter(new Writer()
+			{
+				@Override
+				public void write(char[] chars, int offset, int length) throws IOException
+				{
+					writeIO(() -> out.write(chars, offset, length));
+				}
+
+				@Override
+				public void write(String str, int offset, int length) throws IOException
+				{
+					writeIO(() -> out.write(str, offset, length));
+				}
+
+				@Override
+				public void flush() throws IOException
+				{
+					writeIO(out::flush);
+				}
+
+				@Override
+				public void close() throws IOException
+				{
+					writeIO(out::close);
+				}
+			});
+		}
+	}
+
+	public HttpServletRequest getRequest()
+	{
+		return request;
+	}
+
+	public HttpServletResponse getResponse()
+	{
+		return response;
+	}
+
+	public boolean isDetached()
+	{
+		return detached.get();
+	}
+}
@@ -27,10 +27,20 @@ package de.s42.dl.srv;
 
 import de.s42.base.collections.MappedList;
 import de.s42.dl.services.Service;
+import de.s42.dl.services.remote.ServiceOverloaded;
 import de.s42.dl.services.remote.ServletRemoteService;
 import de.s42.log.LogManager;
 import de.s42.log.Logger;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.MultipartConfig;
 import javax.servlet.http.HttpServlet;
@@ -38,17 +48,30 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 /**
+ * Bridges servlet requests to the ServletRemoteService. Setting the init parameter de.s42.dl.srv.DLServlet.async to
+ * true runs the calls on virtual threads using async servlet processing (the servlet has to be async-supported).
+ * de.s42.dl.srv.DLServlet.asyncTimeout sets the timeout of async requests in ms. Parts up to 1MB stay in memory, larger
+ * ones are spooled to disk and moved on receive - max-file-size and max-request-size of the multipart-config in the
+ * web.xml should match the maxUploadSizeMB of the remote service.
  *
  * @author Benjamin Schiller
  */
-@MultipartConfig
+@MultipartConfig(fileSizeThreshold = 1024 * 1024)
 public class DLServlet extends HttpServlet
 {
 
 	private final static Logger log = LogManager.getLogger(DLServlet.class.getName());
 
+	public final static long DEFAULT_ASYNC_TIMEOUT = 30000L;
+
 	protected ServletRemoteService remoteService;
 
+	protected boolean async;
+
+	protected long asyncTimeout = DEFAULT_ASYNC_TIMEOUT;
+
+	protected ExecutorService executor;
+
 	protected void processRequest(HttpServletRequest request, HttpServletResponse response)
 		throws ServletException, IOException
 	{
@@ -56,12 +79,159 @@ public class DLServlet extends HttpServlet
 		assert response != null : "response != null";
 		assert remoteService != null : "remoteService != null";
 
+		// An async call failed after its response got committed - throwing lets the container abort the response
+		if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute(ServletRemoteService.ABORT_ATTRIBUTE) != null) {
+			abortResponse(request);
+			return;
+		}
+
+		// Hand the call over to a virtual thread if possible
+		if (async && request.isAsyncSupported()) {
+			processRequestAsync(request, response);
+			return;
+		}
+
 		//log.debug("processRequest");
 		try {
 			remoteService.call(request, response);
 		} catch (Throwable ex) {
 			remoteService.sendErrorResponse(request, response, ex);
 		}
+
+		if (request.getAttribute(ServletRemoteService.ABORT_ATTRIBUTE) != null) {
+			abortResponse(request);
+		}
+	}
+
+	/**
+	 * Aborts a committed response the error could not be sent with - the container closes the connection instead of
+	 * finishing the body, so clients can not mistake a partial (possibly compressed) body for a complete one.
+	 *
+	 * @param request
+	 *
+	 * @throws ServletException always
+	 */
+	protected void abortResponse(HttpServletRequest request) throws ServletException
+	{
+		assert request != null : "request != null";
+
+		Object error = request.getAttribute(ServletRemoteService.ABORT_ATTRIBUTE);
+
+		request.removeAttribute(ServletRemoteService.ABORT_ATTRIBUTE);
+
+		if (error instanceof Throwable throwable) {
+			throw new ServletException("Aborted committed response", throwable);
+		}
+
+		throw new ServletException("Aborted committed response");
+	}
+
+	/**
+	 * Runs the call on a virtual thread. The call owns the response through an AsyncCall - if the timeout wins the call
+	 * gets detached before the timeout response is sent and the context completes, so the still running call can not
+	 * touch the recycled request and response anymore.
+	 *
+	 * @param request
+	 * @param response
+	 */
+	protected void processRequestAsync(HttpServletRequest request, HttpServletResponse response)
+	{
+		assert request != null : "request != null";
+		assert response != null : "response != null";
+
+		AsyncContext context = request.startAsync(request, response);
+		AsyncCall asyncCall = new AsyncCall(request, response);
+
+		// Make sure just one of the call or the timeout handling finishes the response
+		AtomicBoolean completed = new AtomicBoolean(false);
+
+		// Created before the listener is registered so a timeout can always cancel it
+		FutureTask<Void> call = new FutureTask<>(() -> {
+
+			HttpServletRequest callRequest = asyncCall.getRequest();
+			HttpServletResponse callResponse = asyncCall.getResponse();
+
+			try {
+				remoteService.call(callRequest, callResponse);
+			} catch (Throwable ex) {
+				// Dropped if the call got detached meanwhile
+				remoteService.sendErrorResponse(callRequest, callResponse, ex);
+			} finally {
+				if (completed.compareAndSet(false, true)) {
+					// Dispatching back lets processRequest abort a committed response on a container thread
+					if (request.getAttribute(ServletRemoteService.ABORT_ATTRIBUTE) != null) {
+						context.dispatch();
+					} else {
+						context.complete();
+					}
+				}
+			}
+
+			return null;
+		});
+
+		context.addListener(new AsyncListener()
+		{
+			@Override
+			public void onComplete(AsyncEvent event)
+			{
+				// Nothing to do
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent event)
+			{
+				if (completed.compareAndSet(false, true)) {
+
+					// The call does not start another access - a write still in progress owns the output stream
+					asyncCall.detach(RequestTimeout.HTTP_STATUS);
+					call.cancel(true);
+
+					if (!asyncCall.isAccessInProgress()) {
+						remoteService.sendErrorResponse(request, response, new RequestTimeout("Request timed out after " + asyncTimeout + "ms"));
+					} else {
+						log.warn("Request timed out while writing", asyncTimeout, request.getRequestURI());
+					}
+
+					context.complete();
+				}
+			}
+
+			@Override
+			public void onError(AsyncEvent event)
+			{
+				if (completed.compareAndSet(false, true)) {
+
+					asyncCall.detach(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+					call.cancel(true);
+
+					log.debug("Async error", event.getThrowable());
+					context.complete();
+				}
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event)
+			{
+				// Nothing to do
+			}
+		});
+
+		context.setTimeout(asyncTimeout);
+
+		try {
+			executor.execute(call);
+		} catch (RejectedExecutionException ex) {
+
+			// I.e. the executor got shut down while undeploying
+			if (completed.compareAndSet(false, true)) {
+
+				asyncCall.detach(ServiceOverloaded.HTTP_STATUS);
+
+				remoteService.sendErrorResponse(request, response, new ServiceOverloaded("Request could not be scheduled", ex));
+				context.complete();
+			}
+		}
 	}
 
 	@Override
@@ -88,6 +258,20 @@ public class DLServlet extends HttpServlet
 		if (remoteService == null) {
 			throw new ServletException("Missing valid remote service of type ServletRemoteService in services (defined in configuration DL)");
 		}
+
+		// Optional async processing on virtual threads
+		async = Boolean.parseBoolean(getInitParameter(DLServlet.class.getName() + ".async"));
+
+		String asyncTimeoutParameter = getInitParameter(DLServlet.class.getName() + ".asyncTimeout");
+
+		if (asyncTimeoutParameter != null && !asyncTimeoutParameter.isBlank()) {
+			asyncTimeout = Long.parseLong(asyncTimeoutParameter.trim());
+		}
+
+		if (async) {
+			log.info("Async processing on virtual threads with timeout", asyncTimeout);
+			executor = Executors.newVirtualThreadPerTaskExecutor();
+		}
 	}
 
 	@Override
@@ -97,6 +281,11 @@ public class DLServlet extends HttpServlet
 
 		super.destroy();
 
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+
 		remoteService = null;
 	}
 
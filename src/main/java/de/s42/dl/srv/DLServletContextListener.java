@@ -33,6 +33,8 @@ import de.s42.dl.DLType;
 import de.s42.dl.services.Service;
 import de.s42.log.LogManager;
 import de.s42.log.Logger;
+import java.util.ArrayList;
+import java.util.List;
 import javax.naming.InitialContext;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
@@ -68,16 +70,30 @@ public class DLServletContextListener implements ServletContextListener
 
 			DLModule module = core.parse(dlConfiguration);
 
-			// Init all services
+			List<Service> moduleServices = new ArrayList<>();
+
 			for (DLInstance child : module.getChildren()) {
 
 				if (serviceType.isAssignableFrom(child.getType())) {
-
-					Service service = (Service) child.toJavaObject();
-					service.init();
+					moduleServices.add((Service) child.toJavaObject());
 				}
 			}
 
+			// Init all services sequentially in declaration order - independent services in parallel just if enabled, as
+			// dependencies are only known from the @AttributeDL service fields
+			boolean parallelInit = "true".equalsIgnoreCase(sce.getServletContext().getInitParameter(getClass().getName() + ".parallelInit"));
+			String initThreads = sce.getServletContext().getInitParameter(getClass().getName() + ".initThreads");
+
+			int threads = 1;
+
+			if (parallelInit) {
+				threads = (initThreads != null && !initThreads.isBlank())
+					? Math.max(1, Integer.parseInt(initThreads.trim()))
+					: Math.max(2, Runtime.getRuntime().availableProcessors());
+			}
+
+			new ServiceInitializer(threads).init(moduleServices);
+
 			// Map services that were @export in the DL config
 			for (DLInstance exported : core.getExported()) {
 
@@ -33,7 +33,14 @@ import javax.servlet.ServletException;
  */
 public class DLServletException extends ServletException implements ErrorCode
 {
-	
+
+	/**
+	 * Exceptions with a http status below 500 are client errors (i.e. invalid credentials, unknown services) which are
+	 * thrown at high rates under scanner traffic and never logged with their stack trace - their stack trace is not
+	 * captured unless the system property de.s42.dl.srv.DLServletException.clientErrorStackTraces is true.
+	 */
+	protected static volatile boolean stacklessClientErrors = !Boolean.getBoolean(DLServletException.class.getName() + ".clientErrorStackTraces");
+
 	protected final String errorCode;
 	protected final int httpStatus;
 
@@ -41,6 +48,8 @@ public class DLServletException extends ServletException implements ErrorCode
 	{
 		errorCode = getClass().getSimpleName().toUpperCase();
 		httpStatus = 500;
+
+		fillInStackTrace();
 	}
 
 	public DLServletException(String msg)
@@ -49,6 +58,8 @@ public class DLServletException extends ServletException implements ErrorCode
 		
 		errorCode = getClass().getSimpleName().toUpperCase();
 		httpStatus = 500;
+
+		fillInStackTrace();
 	}
 	
 	public DLServletException(String msg, String errorCode)
@@ -57,6 +68,8 @@ public class DLServletException extends ServletException implements ErrorCode
 		
 		this.errorCode = errorCode;
 		httpStatus = 500;
+
+		fillInStackTrace();
 	}
 	
 	public DLServletException(String msg, String errorCode, int httpStatus)
@@ -65,6 +78,8 @@ public class DLServletException extends ServletException implements ErrorCode
 		
 		this.errorCode = errorCode;
 		this.httpStatus = httpStatus;
+
+		fillInStackTrace();
 	}
 	
 	public DLServletException(String msg, Throwable cause)
@@ -73,6 +88,8 @@ public class DLServletException extends ServletException implements ErrorCode
 		
 		errorCode = getClass().getSimpleName().toUpperCase();
 		httpStatus = 500;
+
+		fillInStackTrace();
 	}
 
 	public DLServletException(String msg, Throwable cause, String errorCode)
@@ -81,6 +98,8 @@ public class DLServletException extends ServletException implements ErrorCode
 		
 		this.errorCode = errorCode;
 		httpStatus = 500;
+
+		fillInStackTrace();
 	}
 
 	public DLServletException(String msg, Throwable cause, String errorCode, int httpStatus)
@@ -89,8 +108,45 @@ public class DLServletException extends ServletException implements ErrorCode
 		
 		this.errorCode = errorCode;
 		this.httpStatus = httpStatus;
+
+		fillInStackTrace();
 	}
 	
+	/**
+	 * Throwable calls fillInStackTrace before the http status is set - so the constructors call it again once the http
+	 * status is known.
+	 *
+	 * @return this
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace()
+	{
+		// Called from the Throwable constructor or for a stackless exception
+		if (httpStatus == 0 || isStackless()) {
+			return this;
+		}
+
+		return super.fillInStackTrace();
+	}
+
+	/**
+	 * @return true if no stack trace gets captured for this exception
+	 */
+	protected boolean isStackless()
+	{
+		return stacklessClientErrors && httpStatus < 500;
+	}
+
+	public static boolean isStacklessClientErrors()
+	{
+		return stacklessClientErrors;
+	}
+
+	public static void setStacklessClientErrors(boolean stacklessClientErrors)
+	{
+		DLServletException.stacklessClientErrors = stacklessClientErrors;
+	}
+
 	@Override
 	public String getErrorCode()
 	{
@@ -0,0 +1,270 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.srv;
+
+import de.s42.base.beans.BeanHelper;
+import de.s42.base.beans.BeanInfo;
+import de.s42.base.beans.BeanProperty;
+import de.s42.dl.DLAttribute.AttributeDL;
+import de.s42.dl.services.Service;
+import de.s42.log.LogManager;
+import de.s42.log.Logger;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inits services in the order of their dependencies. A service depends on all services referenced in its
+ * &#64;AttributeDL fields. Services without pending dependencies are inited in parallel on a bounded pool. The first
+ * failing init cancels all pending inits and is rethrown. Dependencies not held in such fields (i.e. services looked
+ * up by name in init) are not known - parallel init is therefore opt-in with the context parameter
+ * DLServletContextListener.parallelInit.
+ *
+ * @author Benjamin Schiller
+ */
+public class ServiceInitializer
+{
+
+	private final static Logger log = LogManager.getLogger(ServiceInitializer.class.getName());
+
+	protected final int threads;
+
+	/**
+	 * @param threads max amount of services inited in parallel - 1 inits all services sequentially in declaration order
+	 */
+	public ServiceInitializer(int threads)
+	{
+		assert threads > 0;
+
+		this.threads = threads;
+	}
+
+	/**
+	 * Inits the given services and logs the time each init took.
+	 *
+	 * @param services services in declaration order
+	 *
+	 * @throws Exception the first exception thrown by an init
+	 */
+	public void init(List<Service> services) throws Exception
+	{
+		assert services != null;
+
+		long start = System.nanoTime();
+
+		if (threads == 1 || services.size() < 2) {
+			for (Service service : services) {
+				initService(service);
+			}
+		} else {
+			initParallel(services);
+		}
+
+		log.info("Inited services", services.size(), (System.nanoTime() - start) / 1_000_000L + "ms");
+	}
+
+	protected void initParallel(List<Service> services) throws Exception
+	{
+		Map<Service, List<Service>> dependents = new IdentityHashMap<>();
+		Map<Service, AtomicInteger> pending = new IdentityHashMap<>();
+
+		for (Service service : services) {
+			dependents.put(service, new ArrayList<>());
+		}
+
+		for (Service service : services) {
+
+			Set<Service> dependencies = getDependencies(service);
+
+			// Dependencies which are not part of the given services are not inited here
+			dependencies.retainAll(dependents.keySet());
+			dependencies.remove(service);
+
+			for (Service dependency : dependencies) {
+				dependents.get(dependency).add(service);
+			}
+
+			pending.put(service, new AtomicInteger(dependencies.size()));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, services.size()));
+		CompletionService<Service> completion = new ExecutorCompletionService<>(executor);
+		Set<Service> remaining = Collections.newSetFromMap(new IdentityHashMap<>());
+		remaining.addAll(services);
+		int running = 0;
+
+		try {
+
+			for (Service service : services) {
+				if (pending.get(service).get() == 0) {
+					submit(completion, service);
+					++running;
+				}
+			}
+
+			while (running > 0) {
+
+				Service inited;
+				try {
+					inited = completion.take().get();
+				} catch (ExecutionException ex) {
+					// Fail fast - the finally cancels all other inits
+					if (ex.getCause() instanceof Exception cause) {
+						throw cause;
+					}
+					throw ex;
+				}
+
+				--running;
+				remaining.remove(inited);
+
+				for (Service dependent : dependents.get(inited)) {
+					if (pending.get(dependent).decrementAndGet() == 0) {
+						submit(completion, dependent);
+						++running;
+					}
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// Services left are part of a dependency cycle - init them in declaration order as before
+		if (!remaining.isEmpty()) {
+
+			log.warn("Cyclic service dependencies - initing sequentially", getNames(remaining));
+
+			for (Service service : services) {
+				if (remaining.contains(service)) {
+					initService(service);
+				}
+			}
+		}
+	}
+
+	protected void submit(CompletionService<Service> completion, Service service)
+	{
+		completion.submit(() -> {
+			initService(service);
+			return service;
+		});
+	}
+
+	protected void initService(Service service) throws Exception
+	{
+		long start = System.nanoTime();
+
+		service.init();
+
+		log.info("Inited service", service.getName(), (System.nanoTime() - start) / 1_000_000L + "ms");
+	}
+
+	/**
+	 * Collects the services referenced in the &#64;AttributeDL fields of the given service.
+	 *
+	 * @param service
+	 *
+	 * @return the referenced services
+	 */
+	protected Set<Service> getDependencies(Service service)
+	{
+		Set<Service> result = Collections.newSetFromMap(new IdentityHashMap<>());
+		Map<String, Field> fields = new LinkedHashMap<>();
+
+		for (Class<?> type = service.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+			for (Field field : type.getDeclaredFields()) {
+				if (field.getAnnotation(AttributeDL.class) != null && Service.class.isAssignableFrom(field.getType())) {
+					fields.putIfAbsent(field.getName(), field);
+				}
+			}
+		}
+
+		if (fields.isEmpty()) {
+			return result;
+		}
+
+		// Prefer the getters as the fields might not be accessible in the module of the service
+		BeanInfo<Service> info = BeanHelper.getBeanInfo((Class<Service>) service.getClass());
+		Set<String> read = new HashSet<>();
+
+		for (BeanProperty<Service, ?> property : info.getReadProperties()) {
+
+			if (fields.containsKey(property.getName())) {
+				try {
+					if (property.read(service) instanceof Service dependency) {
+						result.add(dependency);
+					}
+					read.add(property.getName());
+				} catch (ReflectiveOperationException ex) {
+					log.debug("Could not read dependency", service.getName(), property.getName(), ex.getMessage());
+				}
+			}
+		}
+
+		for (Field field : fields.values()) {
+
+			if (!read.contains(field.getName()) && field.trySetAccessible()) {
+				try {
+					if (field.get(service) instanceof Service dependency) {
+						result.add(dependency);
+					}
+				} catch (IllegalAccessException ex) {
+					log.debug("Could not read dependency", service.getName(), field.getName(), ex.getMessage());
+				}
+			}
+		}
+
+		return result;
+	}
+
+	protected static List<String> getNames(Set<Service> services)
+	{
+		List<String> result = new ArrayList<>();
+
+		for (Service service : services) {
+			result.add(service.getName());
+		}
+
+		return result;
+	}
+
+	public int getThreads()
+	{
+		return threads;
+	}
+}
@@ -45,9 +45,12 @@ module de.sft.dls
 	exports de.s42.dl.services.database.postgres; 
 	exports de.s42.dl.services.email; 
 	exports de.s42.dl.services.l10n; 
+	exports de.s42.dl.services.metrics; 
 	exports de.s42.dl.services.permission; 
 	exports de.s42.dl.services.remote; 
 	exports de.s42.dl.services.remote.parameters; 
 	exports de.s42.dl.services.token; 
 	exports de.s42.dl.srv;
+
+	uses de.s42.dl.services.remote.ServiceDispatcher;
 }
@@ -0,0 +1,76 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.metrics;
+
+import de.s42.dl.services.remote.MethodDescriptor;
+import de.s42.dl.services.remote.ServiceDescriptor;
+import java.util.Set;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class DefaultMetricsServiceTest
+{
+
+	protected static Set<String> getRequiredPermissions(DefaultMetricsService service, String methodName)
+	{
+		service.setName("metrics");
+
+		MethodDescriptor method = new ServiceDescriptor(service, null).getMethod(methodName).orElseThrow();
+
+		return method.getRequiredPermissions().getPermissions();
+	}
+
+	@Test
+	public void requirePermissionByDefault()
+	{
+		DefaultMetricsService service = new DefaultMetricsService();
+
+		assertEquals(getRequiredPermissions(service, "metrics"), Set.of(DefaultMetricsService.DEFAULT_PERMISSION));
+		assertEquals(getRequiredPermissions(service, "prometheus"), Set.of(DefaultMetricsService.DEFAULT_PERMISSION));
+	}
+
+	@Test
+	public void requireConfiguredPermission()
+	{
+		DefaultMetricsService service = new DefaultMetricsService();
+		service.setPermission("ops.metrics");
+
+		assertEquals(getRequiredPermissions(service, "prometheus"), Set.of("ops.metrics"));
+	}
+
+	@Test
+	public void emptyPermissionExposesMetrics()
+	{
+		DefaultMetricsService service = new DefaultMetricsService();
+		service.setPermission("");
+
+		assertTrue(getRequiredPermissions(service, "metrics").isEmpty());
+	}
+}
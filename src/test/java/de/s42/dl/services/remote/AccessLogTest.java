@@ -0,0 +1,237 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.json.JSONObject;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class AccessLogTest
+{
+
+	protected static void deleteRecursive(Path directory) throws IOException
+	{
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	protected static boolean log(AccessLog accessLog, int index)
+	{
+		return accessLog.log("service", "method" + index, 200, 1000000L, 0, 10, null, null);
+	}
+
+	@Test
+	public void fullRingDropsRecords() throws Exception
+	{
+		Path directory = Files.createTempDirectory("accesslog");
+		try {
+			AccessLog accessLog = new AccessLog(directory.resolve("access.log"), 4, 1 << 20, 0, 1, 0);
+
+			// Runs without writer thread to fill the ring
+			accessLog.open();
+			accessLog.running = true;
+
+			for (int i = 0; i < 4; ++i) {
+				assertTrue(log(accessLog, i));
+			}
+
+			assertFalse(log(accessLog, 4));
+			assertFalse(log(accessLog, 5));
+			assertEquals(accessLog.getDropped(), 2);
+
+			assertEquals(accessLog.drain(), 4);
+
+			// The drained slots are writable again
+			assertTrue(log(accessLog, 6));
+			assertEquals(accessLog.drain(), 1);
+
+			accessLog.running = false;
+			accessLog.out.close();
+
+			List<String> lines = Files.readAllLines(accessLog.getFile());
+
+			assertEquals(lines.size(), 5);
+			assertEquals(new JSONObject(lines.get(0)).getString("method"), "method0");
+			assertEquals(new JSONObject(lines.get(3)).getString("method"), "method3");
+			assertEquals(new JSONObject(lines.get(4)).getString("method"), "method6");
+			assertEquals(accessLog.getWritten(), 5);
+		} finally {
+			deleteRecursive(directory);
+		}
+	}
+
+	@Test
+	public void stopDrainsPendingRecords() throws Exception
+	{
+		Path directory = Files.createTempDirectory("accesslog");
+		try {
+			AccessLog accessLog = new AccessLog(directory.resolve("access.log"), 1024, 1 << 20, 0, 1, 0);
+
+			accessLog.start();
+
+			for (int i = 0; i < 500; ++i) {
+				assertTrue(log(accessLog, i));
+			}
+
+			accessLog.stop();
+
+			assertFalse(accessLog.isRunning());
+			assertFalse(log(accessLog, 500));
+
+			List<String> lines = Files.readAllLines(accessLog.getFile());
+
+			assertEquals(lines.size(), 500);
+			assertEquals(accessLog.getWritten(), 500);
+			assertEquals(accessLog.getDropped(), 0);
+
+			for (int i = 0; i < 500; ++i) {
+				assertEquals(new JSONObject(lines.get(i)).getString("method"), "method" + i);
+			}
+		} finally {
+			deleteRecursive(directory);
+		}
+	}
+
+	@Test
+	public void recordHasFields() throws Exception
+	{
+		Path directory = Files.createTempDirectory("accesslog");
+		try {
+			AccessLog accessLog = new AccessLog(directory.resolve("access.log"), 16, 1 << 20, 0, 1, 0);
+
+			accessLog.start();
+			assertTrue(accessLog.log("service", "method", 500, 2500000L, 3, 42, "user \"1\"", "INTERNAL"));
+			accessLog.stop();
+
+			JSONObject record = new JSONObject(Files.readString(accessLog.getFile()));
+
+			assertTrue(record.has("time"));
+			assertEquals(record.getString("service"), "service");
+			assertEquals(record.getString("method"), "method");
+			assertEquals(record.getInt("status"), 500);
+			assertEquals(record.getDouble("latencyMs"), 2.5);
+			assertEquals(record.getInt("dbCalls"), 3);
+			assertEquals(record.getLong("bytes"), 42);
+			assertEquals(record.getString("subject"), "user \"1\"");
+			assertEquals(record.getString("errorCode"), "INTERNAL");
+		} finally {
+			deleteRecursive(directory);
+		}
+	}
+
+	@Test
+	public void filesRollOver() throws Exception
+	{
+		Path directory = Files.createTempDirectory("accesslog");
+		try {
+			Path file = directory.resolve("access.log");
+
+			// Each record is about 120 bytes - 2 records per file
+			AccessLog accessLog = new AccessLog(file, 64, 300, 2, 1, 0);
+
+			accessLog.start();
+			for (int i = 0; i < 10; ++i) {
+				assertTrue(log(accessLog, i));
+			}
+			accessLog.stop();
+
+			Path first = directory.resolve("access.log.1");
+			Path second = directory.resolve("access.log.2");
+
+			assertTrue(Files.size(file) <= 300);
+			assertTrue(Files.size(first) <= 300);
+			assertTrue(Files.size(second) <= 300);
+			assertFalse(Files.exists(directory.resolve("access.log.3")));
+
+			// The oldest records got dropped
+			List<String> current = Files.readAllLines(file);
+			List<String> previous = Files.readAllLines(first);
+
+			assertEquals(new JSONObject(current.get(current.size() - 1)).getString("method"), "method9");
+			assertEquals(new JSONObject(previous.get(previous.size() - 1)).getString("method"), "method" + (9 - current.size()));
+			assertEquals(current.size() + previous.size() + Files.readAllLines(second).size(), 6);
+		} finally {
+			deleteRecursive(directory);
+		}
+	}
+
+	@Test
+	public void rollingWithoutBackupsTruncates() throws Exception
+	{
+		Path directory = Files.createTempDirectory("accesslog");
+		try {
+			Path file = directory.resolve("access.log");
+			AccessLog accessLog = new AccessLog(file, 64, 300, 0, 1, 0);
+
+			accessLog.start();
+			for (int i = 0; i < 10; ++i) {
+				assertTrue(log(accessLog, i));
+			}
+			accessLog.stop();
+
+			List<String> lines = Files.readAllLines(file);
+
+			assertEquals(lines.size(), 2);
+			assertEquals(new JSONObject(lines.get(1)).getString("method"), "method9");
+			assertFalse(Files.exists(directory.resolve("access.log.1")));
+		} finally {
+			deleteRecursive(directory);
+		}
+	}
+
+	@Test
+	public void sampling()
+	{
+		AccessLog accessLog = new AccessLog(Path.of("access.log"), 16, 1 << 20, 0, 3, 100);
+
+		int logged = 0;
+		for (int i = 0; i < 30; ++i) {
+			if (accessLog.isLogged(1000000L, 200, null)) {
+				++logged;
+			}
+		}
+
+		assertEquals(logged, 10);
+
+		// Errors and slow calls are always logged
+		assertTrue(accessLog.isLogged(1000000L, 404, null));
+		assertTrue(accessLog.isLogged(1000000L, 200, "ERROR"));
+		assertTrue(accessLog.isLogged(100000000L, 200, null));
+	}
+}
@@ -0,0 +1,323 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.dl.services.AbstractService;
+import de.s42.dl.services.DLMethod;
+import de.s42.dl.services.DLParameter;
+import de.s42.dl.services.DLService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import org.json.JSONArray;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class CborParameterBinderTest
+{
+
+	@DLService
+	public static class BinderService extends AbstractService
+	{
+
+		@DLMethod
+		public void bind(
+			@DLParameter(value = "text", maxLength = 16) String text,
+			@DLParameter(value = "number", maxLength = 24) String number,
+			@DLParameter(value = "id", maxLength = 36) UUID id,
+			@DLParameter(value = "data", maxLength = 32) String data)
+		{
+			// just declares the parameters
+		}
+
+		@DLMethod
+		public void unlimited(@DLParameter(value = "data", maxLength = Long.MAX_VALUE) String data)
+		{
+			// just declares the parameter
+		}
+	}
+
+	@FunctionalInterface
+	protected interface Body
+	{
+
+		public void write(CborWriter writer) throws IOException;
+	}
+
+	protected static byte[] encode(Body body) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		CborWriter writer = new CborWriter(out);
+		body.write(writer);
+		writer.flush();
+		writer.close();
+
+		return out.toByteArray();
+	}
+
+	protected static Map<String, String> bind(String method, byte[] body) throws Exception
+	{
+		BinderService service = new BinderService();
+		service.setName("binder");
+
+		CborParameterBinder binder = new ServiceDescriptor(service, null).getMethod(method).orElseThrow().getCborParameterBinder();
+
+		return binder.bind(new ByteArrayInputStream(body));
+	}
+
+	protected static Map<String, String> bind(byte[] body) throws Exception
+	{
+		return bind("bind", body);
+	}
+
+	protected static Map<String, String> bind(Body body) throws Exception
+	{
+		return bind(encode(body));
+	}
+
+	@Test
+	public void bindRoundTrip() throws Exception
+	{
+		UUID id = UUID.randomUUID();
+
+		Map<String, String> result = bind(writer -> {
+			writer.writeMapStart(4);
+			writer.writeString("text");
+			writer.writeString("ä \"😀\"");
+			writer.writeString("number");
+			writer.writeLong(-1234567890123L);
+			writer.writeString("id");
+			writer.writeUUID(id);
+			writer.writeString("data");
+			writer.writeArrayStart(3);
+			writer.writeLong(1);
+			writer.writeBoolean(true);
+			writer.writeString("x");
+		});
+
+		assertEquals(result.size(), 4);
+		assertEquals(result.get("text"), "ä \"😀\"");
+		assertEquals(result.get("number"), "-1234567890123");
+		assertEquals(result.get("id"), id.toString());
+		assertTrue(new JSONArray(result.get("data")).similar(new JSONArray().put(1L).put(true).put("x")));
+	}
+
+	@Test
+	public void bindScalars() throws Exception
+	{
+		assertEquals(bind(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("number");
+			writer.writeDouble(1.5);
+		}).get("number"), "1.5");
+
+		assertEquals(bind(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("number");
+			writer.writeBoolean(false);
+		}).get("number"), "false");
+
+		byte[] bytes = {1, 2, 3, (byte) 0xff};
+		assertEquals(bind(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("data");
+			writer.writeBytes(bytes);
+		}).get("data"), Base64.getEncoder().encodeToString(bytes));
+	}
+
+	@Test
+	public void bindSkipsUnknownKeysAndNullValues() throws Exception
+	{
+		Map<String, String> result = bind(writer -> {
+			writer.writeMapStart(4);
+			writer.writeString("unknown");
+			writer.writeArrayStart(2);
+			writer.writeMapStart(1);
+			writer.writeString("a");
+			writer.writeBytes(new byte[100]);
+			writer.writeString("b");
+			writer.writeString("aVeryLongKeyNotDeclared");
+			writer.writeString("v");
+			writer.writeString("text");
+			writer.writeNull();
+			writer.writeString("number");
+			writer.writeLong(7);
+		});
+
+		assertEquals(result, Map.of("number", "7"));
+	}
+
+	@Test
+	public void bindIndefiniteLengthMap() throws Exception
+	{
+		Map<String, String> result = bind(writer -> {
+			writer.writeHead(CborWriter.MAJOR_MAP, 0);
+		});
+
+		assertTrue(result.isEmpty());
+
+		byte[] body = encode(writer -> {
+			writer.writeString("text");
+			writer.writeString("x");
+		});
+		byte[] indefinite = new byte[body.length + 2];
+		indefinite[0] = (byte) ((CborWriter.MAJOR_MAP << 5) | CborWriter.INDEFINITE_LENGTH);
+		System.arraycopy(body, 0, indefinite, 1, body.length);
+		indefinite[indefinite.length - 1] = (byte) CborWriter.BREAK;
+
+		assertEquals(bind(indefinite), Map.of("text", "x"));
+	}
+
+	@Test
+	public void bindEmptyBody() throws Exception
+	{
+		assertTrue(bind(new byte[0]).isEmpty());
+	}
+
+	@Test
+	public void bindStringOfMaxLength() throws Exception
+	{
+		assertEquals(bind(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("text");
+			writer.writeString("😀".repeat(8));
+		}).get("text"), "😀".repeat(8));
+	}
+
+	@Test(expectedExceptions = ParameterTooLong.class)
+	public void bindStringTooLong() throws Exception
+	{
+		bind(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("text");
+			writer.writeString("x".repeat(17));
+		});
+	}
+
+	@Test(expectedExceptions = ParameterTooLong.class)
+	public void bindStringTooLongIsNotRead() throws Exception
+	{
+		// Just the head announcing a large string is sent
+		bind(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("text");
+			writer.writeHead(CborWriter.MAJOR_TEXT, 1L << 40);
+		});
+	}
+
+	@Test(expectedExceptions = ParameterTooLong.class)
+	public void bindNestedValueTooLong() throws Exception
+	{
+		bind(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("data");
+			writer.writeArrayStart(4);
+			for (int i = 0; i < 4; ++i) {
+				writer.writeString("x".repeat(8));
+			}
+		});
+	}
+
+	@Test(expectedExceptions = ParameterTooLong.class)
+	public void bindEncodedValueTooLongIsNotDecoded() throws Exception
+	{
+		// Many small items exceed the encoded limit long before their text form would be built
+		bind(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("data");
+			writer.writeArrayStart(1000);
+			for (int i = 0; i < 1000; ++i) {
+				writer.writeNull();
+			}
+		});
+	}
+
+	@Test
+	public void bindUnlimitedNestedValue() throws Exception
+	{
+		// The limit of the decoder saturates instead of overflowing
+		Map<String, String> result = bind("unlimited", encode(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("data");
+			writer.writeArrayStart(2);
+			writer.writeLong(1);
+			writer.writeString("x");
+		}));
+
+		assertTrue(new JSONArray(result.get("data")).similar(new JSONArray().put(1L).put("x")));
+	}
+
+	@Test(expectedExceptions = InvalidParameter.class, expectedExceptionsMessageRegExp = ".*Length exceeds supported range")
+	public void bindUnlimitedStringBeyondArraySizeIsRejected() throws Exception
+	{
+		bind("unlimited", encode(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("data");
+			writer.writeHead(CborWriter.MAJOR_TEXT, 1L << 40);
+		}));
+	}
+
+	@Test
+	public void saturatedArithmetic()
+	{
+		assertEquals(CborParameterBinder.saturatedMultiply(1024, 3), 3072);
+		assertEquals(CborParameterBinder.saturatedMultiply(Long.MAX_VALUE, 3), Long.MAX_VALUE);
+		assertEquals(CborParameterBinder.saturatedMultiply(Long.MAX_VALUE / 3 + 1, 3), Long.MAX_VALUE);
+		assertEquals(CborParameterBinder.saturatedMultiply(Long.MAX_VALUE / 3, 3), Long.MAX_VALUE / 3 * 3);
+		assertEquals(CborParameterBinder.saturatedAdd(Long.MAX_VALUE - 1, 9), Long.MAX_VALUE);
+		assertEquals(CborParameterBinder.saturatedAdd(1, 9), 10);
+	}
+
+	@Test(expectedExceptions = InvalidParameter.class)
+	public void bindRejectsArrayBody() throws Exception
+	{
+		bind(writer -> {
+			writer.writeArrayStart(1);
+			writer.writeLong(1);
+		});
+	}
+
+	@Test(expectedExceptions = InvalidParameter.class)
+	public void bindRejectsTruncatedBody() throws Exception
+	{
+		byte[] body = encode(writer -> {
+			writer.writeMapStart(1);
+			writer.writeString("text");
+			writer.writeString("value");
+		});
+
+		bind(Arrays.copyOf(body, body.length - 2));
+	}
+}
@@ -0,0 +1,177 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.HexFormat;
+import java.util.UUID;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Encodings from the examples of RFC 8949 Appendix A.
+ *
+ * @author Benjamin Schiller
+ */
+public class CborWriterTest
+{
+
+	@FunctionalInterface
+	protected interface Body
+	{
+
+		public void write(CborWriter writer) throws IOException;
+	}
+
+	protected static void assertEncodes(String expectedHex, Body body) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		CborWriter writer = new CborWriter(out);
+		body.write(writer);
+		writer.flush();
+		assertEquals(writer.getBytesWritten(), out.size());
+		writer.close();
+
+		assertEquals(HexFormat.of().formatHex(out.toByteArray()), expectedHex);
+	}
+
+	@Test
+	public void encodeIntegers() throws IOException
+	{
+		assertEncodes("00", writer -> writer.writeLong(0));
+		assertEncodes("17", writer -> writer.writeLong(23));
+		assertEncodes("1818", writer -> writer.writeLong(24));
+		assertEncodes("1903e8", writer -> writer.writeLong(1000));
+		assertEncodes("1a000f4240", writer -> writer.writeLong(1000000));
+		assertEncodes("1b000000e8d4a51000", writer -> writer.writeLong(1000000000000L));
+		assertEncodes("20", writer -> writer.writeLong(-1));
+		assertEncodes("3903e7", writer -> writer.writeLong(-1000));
+	}
+
+	@Test
+	public void encodeBigIntegers() throws IOException
+	{
+		assertEncodes("c249010000000000000000", writer -> writer.writeBigInteger(BigInteger.ONE.shiftLeft(64)));
+		assertEncodes("c349010000000000000000", writer -> writer.writeBigInteger(BigInteger.ONE.shiftLeft(64).negate().subtract(BigInteger.ONE)));
+		assertEncodes("1864", writer -> writer.writeBigInteger(BigInteger.valueOf(100)));
+	}
+
+	@Test
+	public void encodeFloats() throws IOException
+	{
+		assertEncodes("fb3ff199999999999a", writer -> writer.writeDouble(1.1));
+		assertEncodes("fa47c35000", writer -> writer.writeDouble(100000.0));
+		assertEncodes("fa7f800000", writer -> writer.writeDouble(Double.POSITIVE_INFINITY));
+	}
+
+	@Test
+	public void encodeSimpleValues() throws IOException
+	{
+		assertEncodes("f4", writer -> writer.writeBoolean(false));
+		assertEncodes("f5", writer -> writer.writeBoolean(true));
+		assertEncodes("f6", writer -> writer.writeNull());
+	}
+
+	@Test
+	public void encodeStrings() throws IOException
+	{
+		assertEncodes("60", writer -> writer.writeString(""));
+		assertEncodes("6449455446", writer -> writer.writeString("IETF"));
+		assertEncodes("62225c", writer -> writer.writeString("\"\\"));
+		assertEncodes("62c3bc", writer -> writer.writeString("ü"));
+		assertEncodes("63e6b0b4", writer -> writer.writeString("水"));
+		assertEncodes("64f0908591", writer -> writer.writeString("𐅑"));
+		assertEncodes("4401020304", writer -> writer.writeBytes(new byte[]{1, 2, 3, 4}));
+	}
+
+	@Test
+	public void encodeLongString() throws IOException
+	{
+		String value = "ä".repeat(Utf8Writer.BUFFER_SIZE);
+
+		// 32768 bytes exceed the buffer and need a 2 byte length
+		assertEncodes("798000" + "c3a4".repeat(value.length()), writer -> writer.writeString(value));
+	}
+
+	@Test
+	public void encodeContainers() throws IOException
+	{
+		assertEncodes("80", writer -> writer.writeArrayStart(0));
+		assertEncodes("83010203", writer -> {
+			writer.writeArrayStart(3);
+			writer.writeLong(1);
+			writer.writeLong(2);
+			writer.writeLong(3);
+		});
+		assertEncodes("a201020304", writer -> {
+			writer.writeMapStart(2);
+			writer.writeLong(1);
+			writer.writeLong(2);
+			writer.writeLong(3);
+			writer.writeLong(4);
+		});
+		assertEncodes("9f0102ff", writer -> {
+			writer.writeIndefiniteArrayStart();
+			writer.writeLong(1);
+			writer.writeLong(2);
+			writer.writeBreak();
+		});
+	}
+
+	@Test
+	public void encodeUUID() throws IOException
+	{
+		UUID id = UUID.fromString("00112233-4455-6677-8899-aabbccddeeff");
+
+		assertEncodes("d825500011223344556677" + "8899aabbccddeeff", writer -> writer.writeUUID(id));
+	}
+
+	@Test
+	public void closeDoesNotCloseStream() throws IOException
+	{
+		boolean[] closed = {false};
+		ByteArrayOutputStream out = new ByteArrayOutputStream()
+		{
+			@Override
+			public void close()
+			{
+				closed[0] = true;
+			}
+		};
+
+		CborWriter writer = new CborWriter(out);
+		writer.writeLong(1);
+		writer.flush();
+		writer.writeLong(2);
+		writer.close();
+
+		assertFalse(closed[0]);
+		assertEquals(out.toByteArray(), new byte[]{1});
+	}
+}
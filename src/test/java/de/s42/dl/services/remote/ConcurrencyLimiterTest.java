@@ -0,0 +1,253 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class ConcurrencyLimiterTest
+{
+
+	protected final static long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	/**
+	 * Starts a call waiting in the queue of the limiter and waits until it is queued.
+	 */
+	protected static Future<Boolean> startQueued(ExecutorService executor, ConcurrencyLimiter limiter)
+	{
+		int queued = limiter.getQueued();
+
+		Future<Boolean> waiting = executor.submit(limiter::acquire);
+
+		long end = System.nanoTime() + 5 * SECOND;
+		while (limiter.getQueued() == queued && System.nanoTime() < end) {
+			Thread.onSpinWait();
+		}
+
+		assertEquals(limiter.getQueued(), queued + 1);
+
+		return waiting;
+	}
+
+	@Test
+	public void tryAcquireStopsAtLimit()
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10, 0, 0);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		assertEquals(limiter.getInFlight(), 2);
+
+		limiter.release(1000);
+
+		assertEquals(limiter.getInFlight(), 1);
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	public void acquireWithoutQueueRejectsFast() throws Exception
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0, 5000);
+
+		assertTrue(limiter.acquire());
+
+		long start = System.nanoTime();
+		assertFalse(limiter.acquire());
+		assertTrue(System.nanoTime() - start < SECOND);
+
+		assertEquals(limiter.getRejections(), 1);
+		assertEquals(limiter.getQueued(), 0);
+		assertEquals(limiter.getInFlight(), 1);
+	}
+
+	@Test
+	public void acquireRejectsAfterQueueTimeout() throws Exception
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 1, 50);
+
+		assertTrue(limiter.acquire());
+
+		long start = System.nanoTime();
+		assertFalse(limiter.acquire());
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+		assertEquals(limiter.getRejections(), 1);
+		assertEquals(limiter.getQueued(), 0);
+		assertEquals(limiter.getInFlight(), 1);
+	}
+
+	@Test
+	public void queuedCallGetsReleasedSlot() throws Exception
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 1, 5000);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			assertTrue(limiter.acquire());
+
+			Future<Boolean> waiting = startQueued(executor, limiter);
+
+			limiter.release(1000);
+
+			assertTrue(waiting.get(5, TimeUnit.SECONDS));
+			assertEquals(limiter.getInFlight(), 1);
+			assertEquals(limiter.getQueued(), 0);
+			assertEquals(limiter.getRejections(), 0);
+		}
+	}
+
+	@Test
+	public void fullQueueRejectsFast() throws Exception
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 1, 5000);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			assertTrue(limiter.acquire());
+
+			Future<Boolean> waiting = startQueued(executor, limiter);
+
+			long start = System.nanoTime();
+			assertFalse(limiter.acquire());
+			assertTrue(System.nanoTime() - start < SECOND);
+			assertEquals(limiter.getRejections(), 1);
+
+			limiter.release(1000);
+
+			assertTrue(waiting.get(5, TimeUnit.SECONDS));
+			assertEquals(limiter.getQueued(), 0);
+		}
+	}
+
+	@Test
+	public void limitGrowsWhileUsedAndFast() throws Exception
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10, 0, 0);
+
+		// Keeps 2 calls in flight - the limit grows while it is at most twice the concurrency
+		assertTrue(limiter.acquire());
+
+		for (int i = 0; i < 100; ++i) {
+			assertTrue(limiter.acquire());
+			limiter.release(1000);
+		}
+
+		assertEquals(limiter.getLimit(), 4);
+	}
+
+	@Test
+	public void limitGrowsUpToMax() throws Exception
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 3, 0, 0);
+
+		assertTrue(limiter.acquire());
+
+		for (int i = 0; i < 100; ++i) {
+			assertTrue(limiter.acquire());
+			limiter.release(1000);
+		}
+
+		assertEquals(limiter.getLimit(), 3);
+	}
+
+	@Test
+	public void limitBacksOffOnSlowCalls() throws Exception
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 2, 10, 0, 0);
+
+		assertTrue(limiter.acquire());
+		limiter.release(1000);
+
+		// Not slower than the tolerated deviation
+		assertTrue(limiter.acquire());
+		limiter.release(2000);
+		assertEquals(limiter.getLimit(), 10);
+
+		assertTrue(limiter.acquire());
+		limiter.release(5000);
+		assertEquals(limiter.getLimit(), 9);
+
+		for (int i = 0; i < 100; ++i) {
+			assertTrue(limiter.acquire());
+			limiter.release(5000);
+		}
+
+		assertEquals(limiter.getLimit(), 2);
+	}
+
+	@Test
+	public void methodsKeepOwnBaseline() throws Exception
+	{
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 2, 10, 0, 0);
+		ConcurrencyLimiter.LatencyBaseline fast = new ConcurrencyLimiter.LatencyBaseline();
+		ConcurrencyLimiter.LatencyBaseline slow = new ConcurrencyLimiter.LatencyBaseline();
+
+		assertTrue(limiter.acquire());
+		limiter.release(1000, fast);
+
+		for (int i = 0; i < 10; ++i) {
+			assertTrue(limiter.acquire());
+			limiter.release(100000, slow);
+		}
+
+		assertEquals(limiter.getLimit(), 10);
+
+		assertTrue(limiter.acquire());
+		limiter.release(100000, fast);
+
+		assertEquals(limiter.getLimit(), 9);
+	}
+
+	@Test
+	public void baselineUsesMinimumOfLastTwoWindows()
+	{
+		ConcurrencyLimiter.LatencyBaseline baseline = new ConcurrencyLimiter.LatencyBaseline();
+
+		assertEquals(baseline.update(1000, 0), Long.MAX_VALUE);
+		assertEquals(baseline.update(5000, SECOND), 1000);
+
+		// The previous window still counts
+		assertEquals(baseline.update(5000, 11 * SECOND), 1000);
+		assertEquals(baseline.getBaselineNanos(), 1000);
+
+		// The window with the old minimum has expired
+		assertEquals(baseline.update(4000, 22 * SECOND), 5000);
+		assertEquals(baseline.getBaselineNanos(), 4000);
+
+		// Without a sample in the previous window there is no baseline
+		assertEquals(baseline.update(3000, 60 * SECOND), Long.MAX_VALUE);
+		assertEquals(baseline.getBaselineNanos(), 3000);
+	}
+}
@@ -0,0 +1,187 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.json.JSONObject;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class ErrorResponseTest
+{
+
+	/**
+	 * Minimal response state behind a proxied HttpServletResponse - reset drops headers and body like a container
+	 */
+	protected static class ResponseState
+	{
+
+		protected final Map<String, String> headers = new HashMap<>();
+		protected final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		protected int status = 200;
+		protected String contentType;
+		protected boolean committed;
+
+		protected HttpServletResponse createResponse()
+		{
+			ServletOutputStream out = new ServletOutputStream()
+			{
+				@Override
+				public boolean isReady()
+				{
+					return true;
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener)
+				{
+					// Nothing to do
+				}
+
+				@Override
+				public void write(int b) throws IOException
+				{
+					body.write(b);
+				}
+			};
+
+			return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{HttpServletResponse.class}, (proxy, method, args) -> {
+
+				String name = method.getName();
+
+				if (name.equals("setHeader") || name.equals("addHeader")) {
+					headers.put((String) args[0], (String) args[1]);
+				} else if (name.equals("getHeader")) {
+					return headers.get((String) args[0]);
+				} else if (name.equals("containsHeader")) {
+					return headers.containsKey((String) args[0]);
+				} else if (name.equals("setStatus")) {
+					status = (Integer) args[0];
+				} else if (name.equals("getStatus")) {
+					return status;
+				} else if (name.equals("setContentType")) {
+					contentType = (String) args[0];
+				} else if (name.equals("isCommitted")) {
+					return committed;
+				} else if (name.equals("reset")) {
+					if (committed) {
+						throw new IllegalStateException("Response is committed");
+					}
+					headers.clear();
+					body.reset();
+					status = 200;
+					contentType = null;
+				} else if (name.equals("getOutputStream")) {
+					return out;
+				} else if (name.equals("getWriter")) {
+					return new PrintWriter(out);
+				}
+
+				return null;
+			});
+		}
+	}
+
+	protected static HttpServletRequest createRequest()
+	{
+		Map<String, Object> attributes = new HashMap<>();
+
+		return (HttpServletRequest) Proxy.newProxyInstance(ErrorResponseTest.class.getClassLoader(), new Class[]{HttpServletRequest.class}, (proxy, method, args) -> {
+
+			String name = method.getName();
+
+			if (name.equals("setAttribute")) {
+				attributes.put((String) args[0], args[1]);
+			} else if (name.equals("getAttribute")) {
+				return attributes.get((String) args[0]);
+			} else if (name.equals("getRequestURL")) {
+				return new StringBuffer("http://localhost/test");
+			}
+
+			return null;
+		});
+	}
+
+	@Test
+	public void errorAfterCompressionIsSentUncompressed() throws IOException
+	{
+		ResponseState state = new ResponseState();
+		HttpServletResponse response = state.createResponse();
+		HttpServletRequest request = createRequest();
+
+		// A compressed body was started but not committed yet
+		response.setHeader("Content-Encoding", "gzip");
+		response.setHeader("ETag", "\"abc-gzip\"");
+		response.getOutputStream().write(new byte[]{0x1f, (byte) 0x8b, 8});
+
+		new DefaultServletRemoteService().sendErrorResponse(request, response, new IllegalStateException("Failed while compressing"));
+
+		assertNull(state.headers.get("Content-Encoding"));
+		assertNull(state.headers.get("ETag"));
+		assertEquals(state.status, 500);
+		assertEquals(state.contentType, "application/json");
+		assertNull(request.getAttribute(ServletRemoteService.ABORT_ATTRIBUTE));
+
+		JSONObject error = new JSONObject(state.body.toString(StandardCharsets.UTF_8));
+		assertEquals(error.getString("error"), "Failed while compressing");
+		assertEquals(error.getString("errorCode"), "ILLEGALSTATEEXCEPTION");
+	}
+
+	@Test
+	public void errorAfterCommitAbortsResponse() throws IOException
+	{
+		ResponseState state = new ResponseState();
+		HttpServletResponse response = state.createResponse();
+		HttpServletRequest request = createRequest();
+
+		response.setHeader("Content-Encoding", "gzip");
+		response.getOutputStream().write(new byte[]{0x1f, (byte) 0x8b, 8});
+		state.committed = true;
+
+		IllegalStateException failure = new IllegalStateException("Failed while compressing");
+
+		new DefaultServletRemoteService().sendErrorResponse(request, response, failure);
+
+		// Nothing is appended to the compressed body - the servlet aborts the response instead
+		assertEquals(state.headers.get("Content-Encoding"), "gzip");
+		assertEquals(state.body.size(), 3);
+		assertSame(request.getAttribute(ServletRemoteService.ABORT_ATTRIBUTE), failure);
+	}
+}
@@ -0,0 +1,160 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.dl.services.AbstractService;
+import de.s42.dl.services.DLMethod;
+import de.s42.dl.services.DLParameter;
+import de.s42.dl.services.DLService;
+import java.io.StringReader;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class JsonParameterBinderTest
+{
+
+	@DLService
+	public static class BinderService extends AbstractService
+	{
+
+		@DLMethod
+		public void bind(
+			@DLParameter(value = "text", maxLength = 16) String text,
+			@DLParameter(value = "count", maxLength = 8) long count,
+			@DLParameter(value = "data", maxLength = 32) String data,
+			@DLParameter(value = "$request") Object request)
+		{
+			// just declares the parameters
+		}
+	}
+
+	protected static JsonParameterBinder createBinder()
+	{
+		BinderService service = new BinderService();
+		service.setName("binder");
+
+		return new ServiceDescriptor(service, null).getMethod("bind").orElseThrow().getJsonParameterBinder();
+	}
+
+	protected static Map<String, String> bind(String body) throws Exception
+	{
+		return createBinder().bind(new StringReader(body));
+	}
+
+	@Test
+	public void bindRoundTrip() throws Exception
+	{
+		JSONObject body = new JSONObject()
+			.put("text", "a \"b\"\\\nä😀")
+			.put("count", -42)
+			.put("data", new JSONObject().put("list", new JSONArray().put(1).put("x")));
+
+		Map<String, String> result = bind(body.toString());
+
+		assertEquals(result.size(), 3);
+		assertEquals(result.get("text"), "a \"b\"\\\nä😀");
+		assertEquals(result.get("count"), "-42");
+		assertEquals(new JSONObject(result.get("data")).similar(body.getJSONObject("data")), true);
+	}
+
+	@Test
+	public void bindSkipsUnknownAndDynamicKeys() throws Exception
+	{
+		Map<String, String> result = bind("{\"unknown\":{\"a\":[1,{\"b\":\"}\"}]},\"$request\":\"x\",\"aVeryLongKeyNotDeclared\":\"v\",\"count\":1}");
+
+		assertEquals(result, Map.of("count", "1"));
+	}
+
+	@Test
+	public void bindIgnoresNullValues() throws Exception
+	{
+		Map<String, String> result = bind("{\"text\":\"x\", \"text\":null, \"count\" : 2 }");
+
+		assertEquals(result, Map.of("count", "2"));
+	}
+
+	@Test
+	public void bindEmptyBody() throws Exception
+	{
+		assertTrue(bind("").isEmpty());
+		assertTrue(bind(" {} ").isEmpty());
+	}
+
+	@Test
+	public void bindUnicodeEscapes() throws Exception
+	{
+		assertEquals(bind("{\"text\":\"\\u00e4\\ud83d\\ude00\\t\"}").get("text"), "ä😀\t");
+	}
+
+	@Test(expectedExceptions = ParameterTooLong.class)
+	public void bindStringTooLong() throws Exception
+	{
+		bind("{\"text\":\"" + "x".repeat(17) + "\"}");
+	}
+
+	@Test
+	public void bindStringOfMaxLength() throws Exception
+	{
+		assertEquals(bind("{\"text\":\"" + "x".repeat(16) + "\"}").get("text"), "x".repeat(16));
+	}
+
+	@Test(expectedExceptions = ParameterTooLong.class)
+	public void bindLiteralTooLong() throws Exception
+	{
+		bind("{\"count\":1234567890}");
+	}
+
+	@Test(expectedExceptions = ParameterTooLong.class)
+	public void bindRawTooLong() throws Exception
+	{
+		bind("{\"data\":[" + "1,".repeat(20) + "1]}");
+	}
+
+	@Test(expectedExceptions = InvalidParameter.class)
+	public void bindRejectsArrayBody() throws Exception
+	{
+		bind("[1,2]");
+	}
+
+	@Test(expectedExceptions = InvalidParameter.class)
+	public void bindRejectsMissingColon() throws Exception
+	{
+		bind("{\"text\" \"x\"}");
+	}
+
+	@Test(expectedExceptions = InvalidParameter.class)
+	public void bindRejectsUnterminatedBody() throws Exception
+	{
+		bind("{\"text\":\"x\"");
+	}
+}
@@ -0,0 +1,119 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.dl.services.AbstractService;
+import de.s42.dl.services.DLMethod;
+import de.s42.dl.services.DLParameter;
+import de.s42.dl.services.DLService;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the invocation of a service method using reflection, the method handle invoker of the MethodDescriptor and
+ * a direct invoker like the ones of the dispatchers generated by the DLServiceProcessor. Run the main method with the
+ * test classpath after mvn test-compile.
+ *
+ * @author Benjamin Schiller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInvokerBenchmark
+{
+
+	@DLService
+	public static class BenchmarkService extends AbstractService
+	{
+
+		@DLMethod
+		public String concat(@DLParameter("text") String text, @DLParameter("count") int count)
+		{
+			return text + count;
+		}
+	}
+
+	protected BenchmarkService service;
+	protected Method method;
+	protected MethodInvoker handleInvoker;
+	protected MethodInvoker directInvoker;
+	protected Object[] parameters;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		service = new BenchmarkService();
+		service.setName("benchmark");
+
+		MethodDescriptor descriptor = new ServiceDescriptor(service, null).getMethod("concat").orElseThrow();
+
+		method = descriptor.getMethod();
+		handleInvoker = descriptor.createInvoker();
+		directInvoker = (target, params) -> ((BenchmarkService) target).concat((String) params[0], (Integer) params[1]);
+		parameters = new Object[]{"value", 42};
+	}
+
+	@Benchmark
+	public Object reflection() throws Exception
+	{
+		return method.invoke(service, parameters);
+	}
+
+	@Benchmark
+	public Object methodHandle() throws Throwable
+	{
+		return handleInvoker.invoke(service, parameters);
+	}
+
+	@Benchmark
+	public Object direct() throws Throwable
+	{
+		return directInvoker.invoke(service, parameters);
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+			.include(MethodInvokerBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+}
@@ -0,0 +1,135 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import de.s42.dl.services.RateLimitKey;
+import java.util.concurrent.TimeUnit;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class RateLimiterTest
+{
+
+	protected final static long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	public void burstIsPermittedAtOnce()
+	{
+		// 1 permit per second with a burst of 3
+		RateLimiter limiter = new RateLimiter(60, 3, RateLimitKey.IP);
+
+		assertEquals(limiter.acquire("a"), 0);
+		assertEquals(limiter.acquire("a"), 0);
+		assertEquals(limiter.acquire("a"), 0);
+
+		long wait = limiter.acquire("a");
+
+		assertTrue(wait > 0 && wait <= SECOND, "wait " + wait);
+	}
+
+	@Test
+	public void rejectedCallsDoNotTakePermits()
+	{
+		RateLimiter limiter = new RateLimiter(60, 1, RateLimitKey.IP);
+
+		assertEquals(limiter.acquire("a"), 0);
+
+		long first = limiter.acquire("a");
+		long second = limiter.acquire("a");
+
+		assertTrue(first > 0 && first <= SECOND, "wait " + first);
+		assertTrue(second > 0 && second <= first, "wait " + second);
+	}
+
+	@Test
+	public void bucketsArePerKey()
+	{
+		RateLimiter limiter = new RateLimiter(60, 1, RateLimitKey.IP);
+
+		assertEquals(limiter.acquire("a"), 0);
+		assertTrue(limiter.acquire("a") > 0);
+		assertEquals(limiter.acquire("b"), 0);
+		assertEquals(limiter.getBucketCount(), 2);
+	}
+
+	@Test
+	public void permitsRefillAtRate() throws Exception
+	{
+		// 1 permit per 10ms
+		RateLimiter limiter = new RateLimiter(6000, 1, RateLimitKey.IP);
+
+		assertEquals(limiter.acquire("a"), 0);
+		assertTrue(limiter.acquire("a") > 0);
+
+		Thread.sleep(20);
+
+		assertEquals(limiter.acquire("a"), 0);
+	}
+
+	@Test
+	public void retryAfterRoundsUpToSeconds()
+	{
+		assertEquals(RateLimiter.getRetryAfterSeconds(0), 1);
+		assertEquals(RateLimiter.getRetryAfterSeconds(1), 1);
+		assertEquals(RateLimiter.getRetryAfterSeconds(SECOND), 1);
+		assertEquals(RateLimiter.getRetryAfterSeconds(SECOND + 1), 2);
+		assertEquals(RateLimiter.getRetryAfterSeconds(59 * SECOND + SECOND / 2), 60);
+	}
+
+	@Test
+	public void sweepRemovesFullBuckets() throws Exception
+	{
+		// 1 permit per ms
+		RateLimiter limiter = new RateLimiter(60000, 1, RateLimitKey.IP);
+
+		assertEquals(limiter.acquire("a"), 0);
+		assertEquals(limiter.acquire("b"), 0);
+
+		Thread.sleep(10);
+
+		assertEquals(limiter.sweep(), 2);
+		assertEquals(limiter.getBucketCount(), 0);
+
+		// An evicted bucket starts full again
+		assertEquals(limiter.acquire("a"), 0);
+	}
+
+	@Test
+	public void sweepKeepsDrainedBuckets()
+	{
+		RateLimiter limiter = new RateLimiter(1, 1, RateLimitKey.GLOBAL);
+
+		assertEquals(limiter.acquire(""), 0);
+
+		assertEquals(limiter.sweep(), 0);
+		assertEquals(limiter.getBucketCount(), 1);
+		assertTrue(limiter.acquire("") > 0);
+	}
+}
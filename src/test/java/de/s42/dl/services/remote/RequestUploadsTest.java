@@ -0,0 +1,118 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import javax.servlet.http.Part;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class RequestUploadsTest
+{
+
+	/**
+	 * Part which just provides its content as stream - writing it is not supported
+	 */
+	protected static Part createPart(byte[] content, long reportedSize)
+	{
+		return (Part) Proxy.newProxyInstance(RequestUploadsTest.class.getClassLoader(), new Class[]{Part.class}, (proxy, method, args) -> {
+
+			String name = method.getName();
+
+			if (name.equals("getInputStream")) {
+				return new ByteArrayInputStream(content);
+			} else if (name.equals("getSize")) {
+				return reportedSize;
+			} else if (name.equals("getContentType")) {
+				return "text/plain";
+			} else if (name.equals("getSubmittedFileName")) {
+				return "test.txt";
+			} else if (name.equals("write")) {
+				throw new UnsupportedOperationException("Parts are copied when hashing");
+			}
+
+			return null;
+		});
+	}
+
+	@Test
+	public void copyAndHashInOnePass() throws IOException, ParameterTooLong, UploadTooLarge, NoSuchAlgorithmException
+	{
+		byte[] content = "content of the upload".repeat(10000).getBytes(StandardCharsets.UTF_8);
+		RequestUploads uploads = new RequestUploads(null, 0, "SHA-256");
+
+		try {
+			FileRef ref = uploads.receive(createPart(content, content.length), "file", content.length);
+
+			assertEquals(ref.getSize(), content.length);
+			assertEquals(uploads.getTotalSize(), content.length);
+			assertEquals(ref.getHashAlgorithm(), "SHA-256");
+			assertEquals(ref.getHash(), HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+			assertEquals(Files.readAllBytes(ref.toPath()), content);
+		} finally {
+			uploads.cleanup();
+		}
+	}
+
+	@Test(expectedExceptions = ParameterTooLong.class)
+	public void enforceMaxLengthWhileCopying() throws IOException, ParameterTooLong, UploadTooLarge
+	{
+		byte[] content = new byte[100000];
+		RequestUploads uploads = new RequestUploads(null, 0, "SHA-256");
+
+		try {
+			// The size reported up front is wrong - the limit still applies to the bytes read
+			uploads.receive(createPart(content, 10), "file", 1000);
+		} finally {
+			uploads.cleanup();
+		}
+	}
+
+	@Test(expectedExceptions = UploadTooLarge.class)
+	public void enforceMaxTotalSizeWhileCopying() throws IOException, ParameterTooLong, UploadTooLarge
+	{
+		byte[] content = new byte[1000];
+		RequestUploads uploads = new RequestUploads(null, 1500, "SHA-256");
+
+		try {
+			uploads.receive(createPart(content, -1), "first", 1000);
+			uploads.receive(createPart(content, -1), "second", 1000);
+		} finally {
+			uploads.cleanup();
+		}
+	}
+}
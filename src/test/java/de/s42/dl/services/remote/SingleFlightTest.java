@@ -0,0 +1,256 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class SingleFlightTest
+{
+
+	protected final static long WAIT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+	/**
+	 * Starts a leader which blocks until released and waits until it is in flight.
+	 */
+	protected static Future<Object> startLeader(ExecutorService executor, SingleFlight flight, CountDownLatch release, SingleFlight.Call<Object> call) throws InterruptedException
+	{
+		CountDownLatch started = new CountDownLatch(1);
+
+		Future<Object> leader = executor.submit(() -> {
+			try {
+				return flight.execute("key", () -> {
+					started.countDown();
+					release.await();
+					return call.call();
+				}, WAIT_NANOS);
+			} catch (Exception ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new AssertionError(ex);
+			}
+		});
+
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		return leader;
+	}
+
+	/**
+	 * Starts a follower and waits until it joined the flight.
+	 */
+	protected static Future<Object> startFollower(ExecutorService executor, SingleFlight flight, long maxWaitNanos, SingleFlight.Call<Object> call) throws InterruptedException
+	{
+		long coalesced = flight.getCoalesced();
+
+		Future<Object> follower = executor.submit(() -> {
+			try {
+				return flight.execute("key", call, maxWaitNanos);
+			} catch (Exception ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new AssertionError(ex);
+			}
+		});
+
+		long end = System.nanoTime() + WAIT_NANOS;
+		while (flight.getCoalesced() == coalesced && System.nanoTime() < end) {
+			Thread.onSpinWait();
+		}
+
+		return follower;
+	}
+
+	protected static Throwable getError(Future<Object> future) throws InterruptedException, TimeoutException
+	{
+		try {
+			future.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException ex) {
+			return ex.getCause();
+		}
+
+		fail("Expected an error");
+		return null;
+	}
+
+	@Test
+	public void followerSharesResult() throws Exception
+	{
+		SingleFlight flight = new SingleFlight();
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			Future<Object> leader = startLeader(executor, flight, release, () -> "result" + calls.incrementAndGet());
+			Future<Object> follower = startFollower(executor, flight, WAIT_NANOS, () -> "own" + calls.incrementAndGet());
+
+			release.countDown();
+
+			assertEquals(leader.get(5, TimeUnit.SECONDS), "result1");
+			assertEquals(follower.get(5, TimeUnit.SECONDS), "result1");
+			assertEquals(calls.get(), 1);
+			assertEquals(flight.getInFlight(), 0);
+		}
+	}
+
+	@Test
+	public void followerSharesMethodError() throws Exception
+	{
+		SingleFlight flight = new SingleFlight();
+		CountDownLatch release = new CountDownLatch(1);
+		IllegalArgumentException error = new IllegalArgumentException("Invalid");
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			Future<Object> leader = startLeader(executor, flight, release, () -> {
+				throw error;
+			});
+			Future<Object> follower = startFollower(executor, flight, WAIT_NANOS, () -> "own");
+
+			release.countDown();
+
+			assertSame(getError(leader), error);
+			assertSame(getError(follower), error);
+		}
+	}
+
+	@Test
+	public void followerExecutesOnOverloadOfLeader() throws Exception
+	{
+		SingleFlight flight = new SingleFlight();
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			Future<Object> leader = startLeader(executor, flight, release, () -> {
+				throw new ServiceOverloaded("Overloaded");
+			});
+			Future<Object> follower = startFollower(executor, flight, WAIT_NANOS, () -> "own");
+
+			release.countDown();
+
+			assertTrue(getError(leader) instanceof ServiceOverloaded);
+			assertEquals(follower.get(5, TimeUnit.SECONDS), "own");
+		}
+	}
+
+	@Test
+	public void followerExecutesOnInterruptOfLeader() throws Exception
+	{
+		SingleFlight flight = new SingleFlight();
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			Future<Object> leader = startLeader(executor, flight, release, () -> {
+				throw new InterruptedException();
+			});
+			Future<Object> follower = startFollower(executor, flight, WAIT_NANOS, () -> "own");
+
+			release.countDown();
+
+			assertTrue(getError(leader) instanceof InterruptedException);
+			assertEquals(follower.get(5, TimeUnit.SECONDS), "own");
+		}
+	}
+
+	@Test
+	public void followerGetsWaitTimeout() throws Exception
+	{
+		SingleFlight flight = new SingleFlight();
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			Future<Object> leader = startLeader(executor, flight, release, () -> "result");
+			Future<Object> follower = startFollower(executor, flight, TimeUnit.MILLISECONDS.toNanos(10), () -> "own");
+
+			assertTrue(getError(follower) instanceof SingleFlight.WaitTimeout);
+
+			release.countDown();
+
+			assertEquals(leader.get(5, TimeUnit.SECONDS), "result");
+		}
+	}
+
+	@Test
+	public void timeoutOfMethodIsNoWaitTimeout() throws Exception
+	{
+		SingleFlight flight = new SingleFlight();
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			Future<Object> leader = startLeader(executor, flight, release, () -> {
+				throw new TimeoutException("Backend timed out");
+			});
+			Future<Object> follower = startFollower(executor, flight, WAIT_NANOS, () -> "own");
+
+			release.countDown();
+
+			Throwable leaderError = getError(leader);
+			Throwable followerError = getError(follower);
+
+			assertTrue(leaderError instanceof TimeoutException);
+			assertSame(followerError, leaderError);
+			assertFalse(followerError instanceof SingleFlight.WaitTimeout);
+		}
+	}
+
+	@Test
+	public void streamResultIsNotShared() throws Exception
+	{
+		SingleFlight flight = new SingleFlight();
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			StreamResult stream = (StreamResult) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{StreamResult.class}, (proxy, method, args) -> null);
+
+			Future<Object> leader = startLeader(executor, flight, release, () -> stream);
+			Future<Object> follower = startFollower(executor, flight, WAIT_NANOS, () -> "own");
+
+			release.countDown();
+
+			assertSame(leader.get(5, TimeUnit.SECONDS), stream);
+			assertEquals(follower.get(5, TimeUnit.SECONDS), "own");
+		}
+	}
+}
@@ -0,0 +1,135 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.services.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class Utf8WriterTest
+{
+
+	protected static class TrackingOutputStream extends ByteArrayOutputStream
+	{
+
+		protected boolean closed;
+
+		@Override
+		public void close() throws IOException
+		{
+			closed = true;
+		}
+	}
+
+	protected static byte[] encode(String... parts) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (Utf8Writer writer = new Utf8Writer(out)) {
+			for (String part : parts) {
+				writer.write(part);
+			}
+			writer.flush();
+			assertEquals(writer.getBytesWritten(), out.size());
+		}
+
+		return out.toByteArray();
+	}
+
+	protected static void assertEncodesLikeString(String... parts) throws IOException
+	{
+		assertEquals(encode(parts), String.join("", parts).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void encodeAllLengths() throws IOException
+	{
+		assertEncodesLikeString("ascii äß €ࠀ￿ 😀 􏿿");
+	}
+
+	@Test
+	public void encodeLargerThanBuffer() throws IOException
+	{
+		assertEncodesLikeString("€".repeat(Utf8Writer.BUFFER_SIZE) + "x".repeat(Utf8Writer.BUFFER_SIZE + 3) + "😀".repeat(Utf8Writer.BUFFER_SIZE));
+	}
+
+	@Test
+	public void countBufferedBytes() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		try (Utf8Writer writer = new Utf8Writer(out)) {
+
+			writer.write("aä€");
+			assertEquals(writer.getBytesEncoded(), 6);
+
+			writer.write("x".repeat(Utf8Writer.BUFFER_SIZE));
+			assertEquals(writer.getBytesEncoded(), 6 + Utf8Writer.BUFFER_SIZE);
+			assertTrue(writer.getBytesWritten() <= writer.getBytesEncoded());
+
+			writer.flush();
+			assertEquals(writer.getBytesWritten(), writer.getBytesEncoded());
+		}
+	}
+
+	@Test
+	public void encodeSurrogatePairSplitAcrossWrites() throws IOException
+	{
+		assertEncodesLikeString("a\ud83d", "\ude00b");
+	}
+
+	@Test
+	public void encodeMalformedSurrogatesLikeString() throws IOException
+	{
+		assertEncodesLikeString("a\ud800b");
+		assertEncodesLikeString("\ud800ࠀ");
+		assertEncodesLikeString("\ud800ä");
+		assertEncodesLikeString("\udc00x");
+		assertEncodesLikeString("\ud800𐀀");
+		assertEncodesLikeString("end\ud800");
+	}
+
+	@Test
+	public void closeDoesNotCloseStream() throws IOException
+	{
+		TrackingOutputStream out = new TrackingOutputStream();
+
+		Utf8Writer writer = new Utf8Writer(out);
+		writer.write("flushed");
+		writer.flush();
+		writer.write("dropped");
+		writer.close();
+
+		assertFalse(out.closed);
+		assertEquals(out.toString(StandardCharsets.UTF_8), "flushed");
+	}
+}
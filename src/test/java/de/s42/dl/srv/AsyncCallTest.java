@@ -0,0 +1,219 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.srv;
+
+import de.s42.dl.services.remote.ServiceOverloaded;
+import de.s42.dl.services.remote.ServletRemoteService;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class AsyncCallTest
+{
+
+	/**
+	 * Request proxy keeping attributes - startAsync returns the given context
+	 */
+	protected static HttpServletRequest createRequest(AsyncContext context)
+	{
+		Map<String, Object> attributes = new HashMap<>();
+
+		return (HttpServletRequest) Proxy.newProxyInstance(AsyncCallTest.class.getClassLoader(), new Class[]{HttpServletRequest.class}, (proxy, method, args) -> {
+
+			String name = method.getName();
+
+			if (name.equals("setAttribute")) {
+				attributes.put((String) args[0], args[1]);
+			} else if (name.equals("getAttribute")) {
+				return attributes.get((String) args[0]);
+			} else if (name.equals("getMethod")) {
+				return "GET";
+			} else if (name.equals("isAsyncSupported")) {
+				return true;
+			} else if (name.equals("startAsync")) {
+				return context;
+			} else if (name.equals("getRequestURL")) {
+				return new StringBuffer("http://localhost/test");
+			}
+
+			return null;
+		});
+	}
+
+	/**
+	 * Response proxy whose output stream blocks each write until released
+	 */
+	protected static HttpServletResponse createBlockingResponse(CountDownLatch writing, CountDownLatch release)
+	{
+		ServletOutputStream out = new ServletOutputStream()
+		{
+			@Override
+			public boolean isReady()
+			{
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener)
+			{
+				// Nothing to do
+			}
+
+			@Override
+			public void write(int b) throws IOException
+			{
+				writing.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					throw new IOException(ex);
+				}
+			}
+		};
+
+		return (HttpServletResponse) Proxy.newProxyInstance(AsyncCallTest.class.getClassLoader(), new Class[]{HttpServletResponse.class}, (proxy, method, args) -> {
+
+			String name = method.getName();
+
+			if (name.equals("getOutputStream")) {
+				return out;
+			} else if (name.equals("getStatus")) {
+				return 200;
+			} else if (name.equals("isCommitted")) {
+				return false;
+			}
+
+			return null;
+		});
+	}
+
+	@Test
+	public void detachDoesNotWaitForBlockedWrite() throws Exception
+	{
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		AsyncCall call = new AsyncCall(createRequest(null), createBlockingResponse(writing, release));
+		ServletOutputStream out = call.getResponse().getOutputStream();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			Future<?> write = executor.submit(() -> {
+				out.write(1);
+				return null;
+			});
+
+			assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+			// Returns right away although the write is still blocked
+			assertTrue(call.detach(504));
+			assertTrue(call.isDetached());
+			assertTrue(call.isAccessInProgress());
+			assertFalse(call.detach(500));
+
+			release.countDown();
+			write.get(5, TimeUnit.SECONDS);
+
+			assertFalse(call.isAccessInProgress());
+		}
+
+		// No further access reaches the container objects
+		out.write(2);
+		assertEquals(call.getResponse().getStatus(), 504);
+		assertTrue(call.getResponse().isCommitted());
+		assertThrows(IllegalStateException.class, () -> call.getRequest().getMethod());
+	}
+
+	@Test
+	public void attributesStayReadableAfterDetach()
+	{
+		HttpServletRequest request = createRequest(null);
+		AsyncCall call = new AsyncCall(request, createBlockingResponse(new CountDownLatch(0), new CountDownLatch(0)));
+
+		call.getRequest().setAttribute("uploads", "value");
+		call.detach(504);
+		call.getRequest().setAttribute("late", "value");
+
+		assertEquals(call.getRequest().getAttribute("uploads"), "value");
+		assertEquals(call.getRequest().getAttribute("late"), "value");
+
+		// Just the attribute set before detaching reached the container request
+		assertEquals(request.getAttribute("uploads"), "value");
+		assertNull(request.getAttribute("late"));
+	}
+
+	@Test
+	public void rejectedCallCompletesWith503() throws Exception
+	{
+		AtomicBoolean completed = new AtomicBoolean();
+		AtomicReference<Object> sentError = new AtomicReference<>();
+
+		AsyncContext context = (AsyncContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{AsyncContext.class}, (proxy, method, args) -> {
+			if (method.getName().equals("complete")) {
+				completed.set(true);
+			}
+			return null;
+		});
+
+		DLServlet servlet = new DLServlet();
+		servlet.async = true;
+		servlet.executor = Executors.newVirtualThreadPerTaskExecutor();
+		servlet.executor.shutdown();
+		servlet.remoteService = (ServletRemoteService) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ServletRemoteService.class}, (proxy, method, args) -> {
+			if (method.getName().equals("sendErrorResponse")) {
+				sentError.set(args[2]);
+			} else if (method.getName().equals("call")) {
+				fail("Rejected call must not be executed");
+			}
+			return null;
+		});
+
+		servlet.processRequest(createRequest(context), createBlockingResponse(new CountDownLatch(0), new CountDownLatch(0)));
+
+		assertTrue(completed.get());
+		assertTrue(sentError.get() instanceof ServiceOverloaded);
+		assertEquals(((ServiceOverloaded) sentError.get()).getHttpStatus(), 503);
+	}
+}
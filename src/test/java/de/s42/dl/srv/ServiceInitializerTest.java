@@ -0,0 +1,184 @@
+// <editor-fold desc="The MIT License" defaultstate="collapsed">
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Studio 42 GmbH ( https://www.s42m.de ).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+//</editor-fold>
+package de.s42.dl.srv;
+
+import de.s42.dl.DLAttribute.AttributeDL;
+import de.s42.dl.services.AbstractService;
+import de.s42.dl.services.Service;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Benjamin Schiller
+ */
+public class ServiceInitializerTest
+{
+
+	/**
+	 * Records its init and the max amount of services inited at once
+	 */
+	public static class TestService extends AbstractService
+	{
+
+		protected final InitLog log;
+
+		@AttributeDL(required = false)
+		protected Service dependency;
+
+		public TestService(String name, InitLog log)
+		{
+			this.name = name;
+			this.log = log;
+		}
+
+		@Override
+		protected void initService() throws Exception
+		{
+			log.maxRunning.accumulateAndGet(log.running.incrementAndGet(), Math::max);
+
+			try {
+				// Gives independent services the chance to overlap
+				Thread.sleep(20);
+
+				if (log.checkDependencies && dependency != null && !dependency.isInited()) {
+					throw new IllegalStateException("Dependency " + dependency.getName() + " of " + name + " is not inited");
+				}
+
+				log.inited.add(name);
+			} finally {
+				log.running.decrementAndGet();
+			}
+		}
+
+		public Service getDependency()
+		{
+			return dependency;
+		}
+
+		public void setDependency(Service dependency)
+		{
+			this.dependency = dependency;
+		}
+	}
+
+	public static class FailingService extends AbstractService
+	{
+
+		public FailingService(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		protected void initService() throws Exception
+		{
+			throw new IllegalStateException("Init of " + name + " failed");
+		}
+	}
+
+	protected static class InitLog
+	{
+
+		protected final List<String> inited = Collections.synchronizedList(new ArrayList<>());
+		protected final AtomicInteger running = new AtomicInteger();
+		protected final AtomicInteger maxRunning = new AtomicInteger();
+		protected boolean checkDependencies = true;
+	}
+
+	@Test
+	public void sequentialInitKeepsDeclarationOrder() throws Exception
+	{
+		InitLog log = new InitLog();
+
+		new ServiceInitializer(1).init(List.of(new TestService("a", log), new TestService("b", log), new TestService("c", log)));
+
+		assertEquals(log.inited, List.of("a", "b", "c"));
+		assertEquals(log.maxRunning.get(), 1);
+	}
+
+	@Test
+	public void parallelInitRespectsDependencies() throws Exception
+	{
+		InitLog log = new InitLog();
+
+		TestService database = new TestService("database", log);
+		TestService user = new TestService("user", log);
+		TestService content = new TestService("content", log);
+		TestService remote = new TestService("remote", log);
+
+		// Declared before their dependencies
+		remote.setDependency(user);
+		user.setDependency(database);
+
+		new ServiceInitializer(4).init(List.of(remote, user, content, database));
+
+		assertEquals(log.inited.size(), 4);
+		assertTrue(log.inited.indexOf("database") < log.inited.indexOf("user"), log.inited.toString());
+		assertTrue(log.inited.indexOf("user") < log.inited.indexOf("remote"), log.inited.toString());
+		assertTrue(log.maxRunning.get() > 1, "Independent services are inited in parallel");
+	}
+
+	@Test
+	public void cyclicDependenciesAreInitedSequentially() throws Exception
+	{
+		InitLog log = new InitLog();
+		log.checkDependencies = false;
+
+		TestService first = new TestService("first", log);
+		TestService second = new TestService("second", log);
+		TestService independent = new TestService("independent", log);
+
+		first.setDependency(second);
+		second.setDependency(first);
+
+		new ServiceInitializer(4).init(List.of(first, second, independent));
+
+		// The cycle is inited after the other services in declaration order
+		assertEquals(log.inited, List.of("independent", "first", "second"));
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = "Init of failing failed")
+	public void parallelInitRethrowsFirstFailure() throws Exception
+	{
+		InitLog log = new InitLog();
+
+		TestService dependent = new TestService("dependent", log);
+		FailingService failing = new FailingService("failing");
+
+		dependent.setDependency(failing);
+
+		try {
+			new ServiceInitializer(4).init(List.of(dependent, failing, new TestService("other", log)));
+		} finally {
+			assertFalse(log.inited.contains("dependent"));
+		}
+	}
+}